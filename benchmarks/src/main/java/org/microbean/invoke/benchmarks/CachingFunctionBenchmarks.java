@@ -0,0 +1,148 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import java.util.function.Function;
+
+import org.microbean.invoke.CachingFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks comparing {@link CachingFunction#apply(Object)} with the ad-hoc {@link
+ * ConcurrentHashMap#computeIfAbsent(Object, Function)} memoization it is intended to replace.
+ *
+ * <p>Every key fits within the {@link CachingFunction}'s maximum size, so after warmup both benchmarks measure hits,
+ * including the cost of recording accesses for the eviction policy.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+@Warmup(iterations = 5, time = 1)
+public class CachingFunctionBenchmarks {
+
+  private static final int MASK = 1023;
+
+  /**
+   * The maximum size of the {@link CachingFunction} under test.
+   */
+  @Param({ "1024", "4096" })
+  public int maximumSize;
+
+  private CachingFunction<Integer, Integer> cachingFunction;
+
+  private ConcurrentHashMap<Integer, Integer> map;
+
+  /**
+   * Creates a new {@link CachingFunctionBenchmarks}.
+   */
+  public CachingFunctionBenchmarks() {
+    super();
+  }
+
+  /**
+   * Creates the memoizers under test.
+   */
+  @Setup(Level.Trial)
+  public final void setUp() {
+    this.cachingFunction = new CachingFunction<>(CachingFunctionBenchmarks::compute, this.maximumSize);
+    this.map = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Benchmarks {@link CachingFunction#apply(Object)}.
+   *
+   * @param cursor the per-thread key cursor; must not be {@code null}
+   *
+   * @return the value
+   */
+  @Benchmark
+  public final Integer cachingFunction(final Cursor cursor) {
+    return this.cachingFunction.apply(cursor.next());
+  }
+
+  /**
+   * Benchmarks {@link ConcurrentHashMap#computeIfAbsent(Object, Function)}.
+   *
+   * @param cursor the per-thread key cursor; must not be {@code null}
+   *
+   * @return the value
+   */
+  @Benchmark
+  public final Integer computeIfAbsent(final Cursor cursor) {
+    return this.map.computeIfAbsent(cursor.next(), CachingFunctionBenchmarks::compute);
+  }
+
+  private static final Integer compute(final Integer key) {
+    return Integer.valueOf(key.intValue() * 31);
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  /**
+   * A per-thread cursor over the keys.
+   *
+   * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+
+    private static final Integer[] KEYS = new Integer[MASK + 1];
+
+    static {
+      for (int i = 0; i < KEYS.length; i++) {
+        KEYS[i] = Integer.valueOf(i);
+      }
+    }
+
+    private int index;
+
+    /**
+     * Creates a new {@link Cursor}.
+     */
+    public Cursor() {
+      super();
+    }
+
+    private final Integer next() {
+      return KEYS[this.index++ & MASK];
+    }
+
+  }
+
+}
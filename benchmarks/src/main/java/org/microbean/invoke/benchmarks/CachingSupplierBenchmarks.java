@@ -0,0 +1,58 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import org.microbean.invoke.CachingSupplier;
+import org.microbean.invoke.OptionalSupplier;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link OptionalSupplierBenchmarks} for {@link CachingSupplier}.
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+public class CachingSupplierBenchmarks extends OptionalSupplierBenchmarks {
+
+  /**
+   * The case under test: {@code present} (value supplied at construction time), {@code computed} (value computed by a
+   * delegate and then cached) or {@code absent} (no delegate and no value).
+   */
+  @Param({ "present", "computed", "absent" })
+  public String kind;
+
+  /**
+   * Creates a new {@link CachingSupplierBenchmarks}.
+   */
+  public CachingSupplierBenchmarks() {
+    super();
+  }
+
+  @Override // OptionalSupplierBenchmarks
+  protected OptionalSupplier<Object> supplier() {
+    switch (this.kind) {
+    case "present":
+      return new CachingSupplier<>(VALUE);
+    case "computed":
+      final CachingSupplier<Object> cs = new CachingSupplier<>(OptionalSupplierBenchmarks::present);
+      cs.get();
+      return cs;
+    case "absent":
+      return new CachingSupplier<>();
+    default:
+      throw new IllegalArgumentException("kind: " + this.kind);
+    }
+  }
+
+}
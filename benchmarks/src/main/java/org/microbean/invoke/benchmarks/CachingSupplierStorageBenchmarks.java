@@ -0,0 +1,131 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import java.util.Optional;
+
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import java.util.function.Supplier;
+
+import org.microbean.invoke.CachingSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks comparing the hot path of {@link CachingSupplier#get()}, which reads a single field through a {@link
+ * java.lang.invoke.VarHandle} with acquire semantics, with that of the {@link Optional}-in-an-{@link AtomicReference}
+ * storage scheme it replaced.
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+@Warmup(iterations = 5, time = 1)
+public class CachingSupplierStorageBenchmarks {
+
+  private static final Object VALUE = new Object();
+
+  private CachingSupplier<Object> cachingSupplier;
+
+  private AtomicReferenceCachingSupplier<Object> atomicReferenceCachingSupplier;
+
+  /**
+   * Creates a new {@link CachingSupplierStorageBenchmarks}.
+   */
+  public CachingSupplierStorageBenchmarks() {
+    super();
+  }
+
+  /**
+   * Creates and primes the suppliers under test.
+   */
+  @Setup(Level.Trial)
+  public final void setUp() {
+    this.cachingSupplier = new CachingSupplier<>(CachingSupplierStorageBenchmarks::value);
+    this.cachingSupplier.get();
+    this.atomicReferenceCachingSupplier = new AtomicReferenceCachingSupplier<>(CachingSupplierStorageBenchmarks::value);
+    this.atomicReferenceCachingSupplier.get();
+  }
+
+  /**
+   * Benchmarks {@link CachingSupplier#get()} once its value has been computed.
+   *
+   * @return the result of the invocation
+   */
+  @Benchmark
+  public final Object varHandle() {
+    return this.cachingSupplier.get();
+  }
+
+  /**
+   * Benchmarks the former {@link Optional}-in-an-{@link AtomicReference} storage scheme once its value has been
+   * computed.
+   *
+   * @return the result of the invocation
+   */
+  @Benchmark
+  public final Object atomicReference() {
+    return this.atomicReferenceCachingSupplier.get();
+  }
+
+  private static final Object value() {
+    return VALUE;
+  }
+
+  // A copy of the storage scheme formerly used by CachingSupplier, kept here only for comparison.
+  private static final class AtomicReferenceCachingSupplier<T> implements Supplier<T> {
+
+    private final Supplier<? extends T> delegate;
+
+    private final AtomicReference<Optional<T>> ref;
+
+    private AtomicReferenceCachingSupplier(final Supplier<? extends T> delegate) {
+      super();
+      this.delegate = delegate;
+      this.ref = new AtomicReference<>();
+    }
+
+    @Override // Supplier<T>
+    public final T get() {
+      Optional<T> optional = this.ref.get();
+      if (optional == null) {
+        optional = Optional.ofNullable(this.delegate.get());
+        if (!this.ref.compareAndSet(null, optional)) {
+          optional = this.ref.get();
+        }
+      }
+      return optional.orElse(null);
+    }
+
+  }
+
+}
@@ -0,0 +1,140 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+
+import java.util.concurrent.TimeUnit;
+
+import org.microbean.invoke.CachingSupplier;
+import org.microbean.invoke.CallSiteCachingSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks comparing the hot paths of {@link CallSiteCachingSupplier#get()} and {@link
+ * CallSiteCachingSupplier#dynamicInvoker()}, whose value is bound into a {@link java.lang.invoke.MutableCallSite} as a
+ * constant, with that of the field-based {@link CachingSupplier#get()}.
+ *
+ * <p>The {@code static} benchmarks hold each supplier in a {@code static final} field.  The {@code instance}
+ * benchmarks hold each supplier in an ordinary field.  Only the {@code staticDynamicInvoker} benchmark, which invokes
+ * a dynamic invoker held in a {@code static final} field, lets the JIT compiler fold the value entirely.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class CallSiteCachingSupplierBenchmarks {
+
+  private static final Object VALUE = new Object();
+
+  private static final CachingSupplier<Object> STATIC_CACHING_SUPPLIER = new CachingSupplier<>(() -> VALUE);
+
+  private static final CallSiteCachingSupplier<Object> STATIC_CALL_SITE_CACHING_SUPPLIER =
+    new CallSiteCachingSupplier<>(() -> VALUE);
+
+  private static final MethodHandle STATIC_DYNAMIC_INVOKER = STATIC_CALL_SITE_CACHING_SUPPLIER.dynamicInvoker();
+
+  private CachingSupplier<Object> cachingSupplier;
+
+  private CallSiteCachingSupplier<Object> callSiteCachingSupplier;
+
+  /**
+   * Creates a new {@link CallSiteCachingSupplierBenchmarks}.
+   */
+  public CallSiteCachingSupplierBenchmarks() {
+    super();
+  }
+
+  /**
+   * Creates and primes the suppliers under test.
+   */
+  @Setup(Level.Trial)
+  public final void setUp() {
+    STATIC_CACHING_SUPPLIER.get();
+    STATIC_CALL_SITE_CACHING_SUPPLIER.get();
+    this.cachingSupplier = new CachingSupplier<>(() -> VALUE);
+    this.cachingSupplier.get();
+    this.callSiteCachingSupplier = new CallSiteCachingSupplier<>(() -> VALUE);
+    this.callSiteCachingSupplier.get();
+  }
+
+  /**
+   * Benchmarks {@link CachingSupplier#get()} on a supplier held in a {@code static final} field.
+   *
+   * @return the value
+   */
+  @Benchmark
+  public final Object staticCachingSupplier() {
+    return STATIC_CACHING_SUPPLIER.get();
+  }
+
+  /**
+   * Benchmarks {@link CallSiteCachingSupplier#get()} on a supplier held in a {@code static final} field.
+   *
+   * @return the value
+   */
+  @Benchmark
+  public final Object staticCallSiteCachingSupplier() {
+    return STATIC_CALL_SITE_CACHING_SUPPLIER.get();
+  }
+
+  /**
+   * Benchmarks invoking the {@linkplain CallSiteCachingSupplier#dynamicInvoker() dynamic invoker} of a supplier held in
+   * a {@code static final} field.
+   *
+   * @return the value
+   *
+   * @exception Throwable if the invocation fails
+   */
+  @Benchmark
+  public final Object staticDynamicInvoker() throws Throwable {
+    return (Object)STATIC_DYNAMIC_INVOKER.invokeExact();
+  }
+
+  /**
+   * Benchmarks {@link CachingSupplier#get()} on a supplier held in an instance field.
+   *
+   * @return the value
+   */
+  @Benchmark
+  public final Object instanceCachingSupplier() {
+    return this.cachingSupplier.get();
+  }
+
+  /**
+   * Benchmarks {@link CallSiteCachingSupplier#get()} on a supplier held in an instance field.
+   *
+   * @return the value
+   */
+  @Benchmark
+  public final Object instanceCallSiteCachingSupplier() {
+    return this.callSiteCachingSupplier.get();
+  }
+
+}
@@ -0,0 +1,63 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import java.util.function.Supplier;
+
+import org.microbean.invoke.OptionalSupplier;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link OptionalSupplierBenchmarks} for the {@link OptionalSupplier} returned by the {@link
+ * OptionalSupplier#of(Supplier, Supplier)} method.
+ *
+ * <p>The primary and fallback {@link Supplier}s used here are not {@link OptionalSupplier}s, so no {@linkplain
+ * OptionalSupplier#determinism() determinism}-based optimizations apply; this measures the worst case.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+public class DefaultingOptionalSupplierBenchmarks extends OptionalSupplierBenchmarks {
+
+  /**
+   * The case under test: {@code present} (the primary supplier supplies a value), {@code defaulted} (the primary
+   * supplier indicates absence and the fallback supplies a value) or {@code absent} (both indicate absence).
+   */
+  @Param({ "present", "defaulted", "absent" })
+  public String kind;
+
+  /**
+   * Creates a new {@link DefaultingOptionalSupplierBenchmarks}.
+   */
+  public DefaultingOptionalSupplierBenchmarks() {
+    super();
+  }
+
+  @Override // OptionalSupplierBenchmarks
+  protected OptionalSupplier<Object> supplier() {
+    final Supplier<Object> present = OptionalSupplierBenchmarks::present;
+    final Supplier<Object> absent = OptionalSupplierBenchmarks::absent;
+    switch (this.kind) {
+    case "present":
+      return OptionalSupplier.of(present, absent);
+    case "defaulted":
+      return OptionalSupplier.of(absent, present);
+    case "absent":
+      return OptionalSupplier.of(absent, absent);
+    default:
+      throw new IllegalArgumentException("kind: " + this.kind);
+    }
+  }
+
+}
@@ -0,0 +1,63 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import org.microbean.invoke.OptionalSupplier;
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link OptionalSupplierBenchmarks} measuring the effect of {@linkplain OptionalSupplier#determinism() determinism}
+ * on an {@link OptionalSupplier} that always indicates absence by throwing an exception from its {@link
+ * OptionalSupplier#get() get()} method.
+ *
+ * <p>When the declared {@link Determinism} is {@link Determinism#ABSENT}, the {@code default} methods of {@link
+ * OptionalSupplier} return their fallbacks without invoking {@link OptionalSupplier#get() get()} at all; compare its
+ * results with those of the other cases.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+public class DeterminismBenchmarks extends OptionalSupplierBenchmarks {
+
+  /**
+   * The {@link Determinism} declared for the absent {@link OptionalSupplier} under test.
+   */
+  @Param({ "NON_DETERMINISTIC", "DETERMINISTIC", "ABSENT" })
+  public Determinism determinism;
+
+  /**
+   * Creates a new {@link DeterminismBenchmarks}.
+   */
+  public DeterminismBenchmarks() {
+    super();
+  }
+
+  @Override // OptionalSupplierBenchmarks
+  protected OptionalSupplier<Object> supplier() {
+    final Determinism d = this.determinism;
+    return new OptionalSupplier<>() {
+      @Override
+      public final Determinism determinism() {
+        return d;
+      }
+
+      @Override
+      public final Object get() {
+        return absent();
+      }
+    };
+  }
+
+}
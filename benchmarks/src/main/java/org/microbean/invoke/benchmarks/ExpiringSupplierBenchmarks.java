@@ -0,0 +1,62 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import java.time.Duration;
+
+import org.microbean.invoke.ExpiringSupplier;
+import org.microbean.invoke.OptionalSupplier;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link OptionalSupplierBenchmarks} for {@link ExpiringSupplier}.
+ *
+ * <p>Compare the {@code present} case with the {@code computed} case of {@link CachingSupplierBenchmarks} to see the
+ * cost of reading the ticker on the hot path.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+public class ExpiringSupplierBenchmarks extends OptionalSupplierBenchmarks {
+
+  /**
+   * The case under test: {@code present} (a value that does not expire during the benchmark) or {@code absent} (a
+   * delegate that always indicates absence).
+   */
+  @Param({ "present", "absent" })
+  public String kind;
+
+  /**
+   * Creates a new {@link ExpiringSupplierBenchmarks}.
+   */
+  public ExpiringSupplierBenchmarks() {
+    super();
+  }
+
+  @Override // OptionalSupplierBenchmarks
+  protected OptionalSupplier<Object> supplier() {
+    switch (this.kind) {
+    case "present":
+      final ExpiringSupplier<Object> es =
+        new ExpiringSupplier<>(OptionalSupplierBenchmarks::present, Duration.ofDays(1L));
+      es.get();
+      return es;
+    case "absent":
+      return new ExpiringSupplier<>(OptionalSupplierBenchmarks::absent, Duration.ofDays(1L));
+    default:
+      throw new IllegalArgumentException("kind: " + this.kind);
+    }
+  }
+
+}
@@ -0,0 +1,53 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import org.microbean.invoke.FixedValueSupplier;
+import org.microbean.invoke.OptionalSupplier;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link OptionalSupplierBenchmarks} for {@link FixedValueSupplier}.
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+public class FixedValueSupplierBenchmarks extends OptionalSupplierBenchmarks {
+
+  /**
+   * The case under test: {@code present} or {@code null}.
+   */
+  @Param({ "present", "null" })
+  public String kind;
+
+  /**
+   * Creates a new {@link FixedValueSupplierBenchmarks}.
+   */
+  public FixedValueSupplierBenchmarks() {
+    super();
+  }
+
+  @Override // OptionalSupplierBenchmarks
+  protected OptionalSupplier<Object> supplier() {
+    switch (this.kind) {
+    case "present":
+      return FixedValueSupplier.of(VALUE);
+    case "null":
+      return FixedValueSupplier.of(null);
+    default:
+      throw new IllegalArgumentException("kind: " + this.kind);
+    }
+  }
+
+}
@@ -0,0 +1,62 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import java.util.function.Supplier;
+
+import org.microbean.invoke.OptionalSupplier;
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@link OptionalSupplierBenchmarks} for the {@link OptionalSupplier}s returned by the {@link
+ * OptionalSupplier#of(Supplier)} and {@link OptionalSupplier#of(Determinism, Supplier)} methods.
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+public class OptionalSupplierAdapterBenchmarks extends OptionalSupplierBenchmarks {
+
+  /**
+   * The case under test: {@code present} or {@code absent}.
+   */
+  @Param({ "present", "absent" })
+  public String kind;
+
+  /**
+   * The {@link Determinism} declared for the adapted {@link Supplier}.
+   */
+  @Param({ "NON_DETERMINISTIC", "DETERMINISTIC" })
+  public Determinism determinism;
+
+  /**
+   * Creates a new {@link OptionalSupplierAdapterBenchmarks}.
+   */
+  public OptionalSupplierAdapterBenchmarks() {
+    super();
+  }
+
+  @Override // OptionalSupplierBenchmarks
+  protected OptionalSupplier<Object> supplier() {
+    switch (this.kind) {
+    case "present":
+      return OptionalSupplier.of(this.determinism, OptionalSupplierBenchmarks::present);
+    case "absent":
+      return OptionalSupplier.of(this.determinism, OptionalSupplierBenchmarks::absent);
+    default:
+      throw new IllegalArgumentException("kind: " + this.kind);
+    }
+  }
+
+}
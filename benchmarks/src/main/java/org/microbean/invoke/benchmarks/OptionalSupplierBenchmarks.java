@@ -0,0 +1,239 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.TimeUnit;
+
+import org.microbean.invoke.OptionalSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * An abstract collection of benchmarks exercising the {@code default} (and overriding) methods of an {@link
+ * OptionalSupplier} implementation.
+ *
+ * <p>Subclasses supply the {@link OptionalSupplier} under test, usually driven by a JMH {@code @Param} field that
+ * selects a present, absent or defaulted case.  Run with {@code -prof gc} to see allocation rates.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #supplier()
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public abstract class OptionalSupplierBenchmarks {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  /**
+   * The value present suppliers supply.
+   *
+   * @nullability This field is never {@code null}.
+   */
+  protected static final Object VALUE = new Object();
+
+  /**
+   * The value used as a fallback by benchmarks that need one.
+   *
+   * @nullability This field is never {@code null}.
+   */
+  protected static final Object OTHER = new Object();
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private OptionalSupplier<Object> supplier;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link OptionalSupplierBenchmarks}.
+   */
+  protected OptionalSupplierBenchmarks() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Sets up the {@link OptionalSupplier} under test by invoking the {@link #supplier()} method.
+   */
+  @Setup(Level.Trial)
+  public final void setUp() {
+    this.supplier = this.supplier();
+  }
+
+  /**
+   * Returns the {@link OptionalSupplier} under test.
+   *
+   * <p>This method is invoked once per trial, after JMH has assigned any {@code @Param} fields.</p>
+   *
+   * @return the {@link OptionalSupplier} under test; must not be {@code null}
+   */
+  protected abstract OptionalSupplier<Object> supplier();
+
+  /**
+   * Benchmarks {@link OptionalSupplier#get()}, catching any exception indicating absence.
+   *
+   * @param bh a {@link Blackhole}; must not be {@code null}
+   */
+  @Benchmark
+  public final void get(final Blackhole bh) {
+    try {
+      bh.consume(this.supplier.get());
+    } catch (final NoSuchElementException | UnsupportedOperationException e) {
+      bh.consume(e);
+    }
+  }
+
+  /**
+   * Benchmarks {@link OptionalSupplier#orElse(Object)}.
+   *
+   * @return the result of the invocation
+   */
+  @Benchmark
+  public final Object orElse() {
+    return this.supplier.orElse(OTHER);
+  }
+
+  /**
+   * Benchmarks {@link OptionalSupplier#orElseGet(java.util.function.Supplier)}.
+   *
+   * @return the result of the invocation
+   */
+  @Benchmark
+  public final Object orElseGet() {
+    return this.supplier.orElseGet(OptionalSupplierBenchmarks::other);
+  }
+
+  /**
+   * Benchmarks {@link OptionalSupplier#ifPresent(java.util.function.Consumer)}.
+   *
+   * @param bh a {@link Blackhole}; must not be {@code null}
+   */
+  @Benchmark
+  public final void ifPresent(final Blackhole bh) {
+    this.supplier.ifPresent(bh::consume);
+  }
+
+  /**
+   * Benchmarks {@link OptionalSupplier#ifPresentOrElse(java.util.function.Consumer, Runnable)}.
+   *
+   * @param bh a {@link Blackhole}; must not be {@code null}
+   */
+  @Benchmark
+  public final void ifPresentOrElse(final Blackhole bh) {
+    this.supplier.ifPresentOrElse(bh::consume, () -> bh.consume(OTHER));
+  }
+
+  /**
+   * Benchmarks {@link OptionalSupplier#stream()}, consuming the sole element, if any.
+   *
+   * @param bh a {@link Blackhole}; must not be {@code null}
+   */
+  @Benchmark
+  public final void stream(final Blackhole bh) {
+    this.supplier.stream().forEach(bh::consume);
+  }
+
+  /**
+   * Benchmarks {@link OptionalSupplier#optional()}.
+   *
+   * @return the result of the invocation
+   */
+  @Benchmark
+  public final Object optional() {
+    return this.supplier.optional();
+  }
+
+  /**
+   * Benchmarks {@link OptionalSupplier#determinism()}.
+   *
+   * @return the result of the invocation
+   */
+  @Benchmark
+  public final Object determinism() {
+    return this.supplier.determinism();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns {@link #OTHER}.
+   *
+   * @return {@link #OTHER}
+   */
+  protected static final Object other() {
+    return OTHER;
+  }
+
+  /**
+   * Throws a new {@link NoSuchElementException}, in the manner of a typical, non-{@link OptionalSupplier} {@link
+   * java.util.function.Supplier} indicating absence.
+   *
+   * @return nothing
+   *
+   * @exception NoSuchElementException when invoked
+   */
+  protected static final Object absent() {
+    throw new NoSuchElementException();
+  }
+
+  /**
+   * Returns {@link #VALUE}.
+   *
+   * @return {@link #VALUE}
+   */
+  protected static final Object present() {
+    return VALUE;
+  }
+
+}
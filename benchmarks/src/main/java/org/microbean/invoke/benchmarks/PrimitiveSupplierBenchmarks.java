@@ -0,0 +1,123 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.microbean.invoke.CachingIntSupplier;
+import org.microbean.invoke.CachingSupplier;
+import org.microbean.invoke.OptionalIntSupplier;
+import org.microbean.invoke.OptionalSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks comparing the {@code int}-specialized suppliers with their generic counterparts.
+ *
+ * <p>The value is outside the {@link Integer#valueOf(int)} cache, so the generic defaulting supplier, whose primary
+ * {@link java.util.function.Supplier} reads a mutable field, allocates a boxed {@link Integer} on every invocation; run
+ * with {@code -prof gc} to see it.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class PrimitiveSupplierBenchmarks {
+
+  private int value;
+
+  private CachingSupplier<Integer> cachingSupplier;
+
+  private CachingIntSupplier cachingIntSupplier;
+
+  private OptionalSupplier<Integer> defaultingSupplier;
+
+  private OptionalIntSupplier defaultingIntSupplier;
+
+  /**
+   * Creates a new {@link PrimitiveSupplierBenchmarks}.
+   */
+  public PrimitiveSupplierBenchmarks() {
+    super();
+  }
+
+  /**
+   * Creates and primes the suppliers under test.
+   */
+  @Setup(Level.Trial)
+  public final void setUp() {
+    this.value = 100_000;
+    this.cachingSupplier = new CachingSupplier<>(() -> this.value);
+    this.cachingSupplier.get();
+    this.cachingIntSupplier = new CachingIntSupplier(() -> this.value);
+    this.cachingIntSupplier.getAsInt();
+    this.defaultingSupplier = OptionalSupplier.of(() -> this.value, () -> -1);
+    this.defaultingIntSupplier = OptionalIntSupplier.of(() -> this.value, () -> -1);
+  }
+
+  /**
+   * Benchmarks {@link CachingSupplier#get()}, unboxing the result.
+   *
+   * @return the value
+   */
+  @Benchmark
+  public final int cachingSupplier() {
+    return this.cachingSupplier.get().intValue();
+  }
+
+  /**
+   * Benchmarks {@link CachingIntSupplier#getAsInt()}.
+   *
+   * @return the value
+   */
+  @Benchmark
+  public final int cachingIntSupplier() {
+    return this.cachingIntSupplier.getAsInt();
+  }
+
+  /**
+   * Benchmarks the generic defaulting supplier, unboxing the result.
+   *
+   * @return the value
+   */
+  @Benchmark
+  public final int defaultingSupplier() {
+    return this.defaultingSupplier.orElse(-1).intValue();
+  }
+
+  /**
+   * Benchmarks the {@code int}-specialized defaulting supplier.
+   *
+   * @return the value
+   */
+  @Benchmark
+  public final int defaultingIntSupplier() {
+    return this.defaultingIntSupplier.orElse(-1);
+  }
+
+}
@@ -0,0 +1,34 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke.benchmarks;
+
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * {@link AbsenceBenchmarks} run with the {@code org.microbean.invoke.Absence.stackless} system property set to {@code
+ * true}, so that absence is indicated by throwing a shared, stackless {@link java.util.NoSuchElementException}.
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+@Fork(value = 1, jvmArgsAppend = "-Dorg.microbean.invoke.Absence.stackless=true")
+public class StacklessAbsenceBenchmarks extends AbsenceBenchmarks {
+
+  /**
+   * Creates a new {@link StacklessAbsenceBenchmarks}.
+   */
+  public StacklessAbsenceBenchmarks() {
+    super();
+  }
+
+}
@@ -35,6 +35,12 @@ public final class Absence<T> implements OptionalSupplier<T> {
 
   private static final Absence<?> INSTANCE = new Absence<Void>();
 
+  private static final boolean STACKLESS = Boolean.getBoolean("org.microbean.invoke.Absence.stackless");
+
+  // A private token supplied to OptionalSupplier#orElse(Object) so that absence can be detected by identity, without
+  // exceptions.  See #token() and #isToken(Object).
+  private static final Object TOKEN = new Object();
+
 
   /*
    * Constructors.
@@ -71,6 +77,11 @@ public final class Absence<T> implements OptionalSupplier<T> {
   /**
    * Throws a {@link NoSuchElementException} when invoked.
    *
+   * <p>If the {@code org.microbean.invoke.Absence.stackless} system
+   * property is set to {@code true} when this class is initialized,
+   * the {@link NoSuchElementException} thrown has no stack trace,
+   * which makes it considerably cheaper to create.</p>
+   *
    * @return nothing
    *
    * @exception NoSuchElementException when invoked
@@ -84,7 +95,26 @@ public final class Absence<T> implements OptionalSupplier<T> {
    */
   @Override // OptionalSupplier<T>
   public final T get() {
-    throw new NoSuchElementException();
+    throw noSuchElementException();
+  }
+
+  /**
+   * Returns the supplied {@code other} value when invoked, without throwing any exception.
+   *
+   * @param other the value to return; may be {@code null}
+   *
+   * @return {@code other}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final T orElse(final T other) {
+    return other;
   }
 
 
@@ -113,4 +143,57 @@ public final class Absence<T> implements OptionalSupplier<T> {
     return (Absence<T>)INSTANCE;
   }
 
+  /**
+   * Returns a {@link NoSuchElementException} suitable for throwing to
+   * indicate absence.
+   *
+   * <p>If the {@code org.microbean.invoke.Absence.stackless} system
+   * property was set to {@code true} when this class was initialized,
+   * a new {@link NoSuchElementException} with no stack trace is
+   * returned.  Otherwise a new, ordinary {@link
+   * NoSuchElementException} is returned.  An instance is never
+   * shared, so any {@linkplain Throwable#addSuppressed(Throwable)
+   * suppressed exceptions} added to it by one caller are never seen
+   * by another.</p>
+   *
+   * @return a {@link NoSuchElementException}; never {@code null}
+   *
+   * @see #get()
+   */
+  static final NoSuchElementException noSuchElementException() {
+    return STACKLESS ? new StacklessNoSuchElementException() : new NoSuchElementException();
+  }
+
+  /**
+   * Returns a private token that, when supplied to an {@link
+   * OptionalSupplier#orElse(Object)} invocation, permits absence to
+   * be detected by identity using the {@link #isToken(Object)} method.
+   *
+   * @param <T> the type to which the token is (unsafely, but harmlessly
+   * within this package) cast
+   *
+   * @return the token; never {@code null}
+   *
+   * @see #isToken(Object)
+   */
+  @SuppressWarnings("unchecked")
+  static final <T> T token() {
+    return (T)TOKEN;
+  }
+
+  /**
+   * Returns {@code true} if and only if the supplied object is the
+   * token returned by the {@link #token()} method.
+   *
+   * @param o the object to test; may be {@code null}
+   *
+   * @return {@code true} if and only if the supplied object is the
+   * token returned by the {@link #token()} method
+   *
+   * @see #token()
+   */
+  static final boolean isToken(final Object o) {
+    return o == TOKEN;
+  }
+
 }
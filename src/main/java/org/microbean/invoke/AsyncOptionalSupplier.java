@@ -0,0 +1,328 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+import java.util.function.Supplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An asynchronous counterpart to {@link OptionalSupplier} that exposes its (possibly absent) value as a {@link
+ * CompletionStage}, so that suppliers that front I/O need not block the threads that ask for their values.
+ *
+ * <p>An {@link AsyncOptionalSupplier} indicates absence by returning a {@link CompletionStage} that completes
+ * exceptionally with a {@link NoSuchElementException} or an {@link UnsupportedOperationException}, possibly wrapped in
+ * a {@link CompletionException}.  Its {@link #determinism()} method has the same semantics as {@link
+ * OptionalSupplier#determinism()}, applied to the outcomes of the {@link CompletionStage}s it returns.</p>
+ *
+ * @param <T> the type of value the {@link CompletionStage}s returned by implementations of this interface complete
+ * with
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #getAsync()
+ *
+ * @see #of(Supplier)
+ *
+ * @see #of(AsyncOptionalSupplier, AsyncOptionalSupplier)
+ *
+ * @see #speculative(AsyncOptionalSupplier, AsyncOptionalSupplier)
+ *
+ * @see #toOptionalSupplier()
+ */
+@FunctionalInterface
+public interface AsyncOptionalSupplier<T> {
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns a {@link CompletionStage} that will complete with a value, which may be {@code null}, or that will complete
+   * exceptionally, with a {@link NoSuchElementException} or an {@link UnsupportedOperationException}, possibly wrapped
+   * in a {@link CompletionException}, to indicate absence.
+   *
+   * <p>Implementations of this method should not block.</p>
+   *
+   * @return a {@link CompletionStage}; never {@code null}
+   *
+   * @nullability Implementations of this method must not return {@code null}.
+   *
+   * @idempotency No guarantees are made about idempotency or determinism.  If the {@link #determinism()} method returns
+   * a {@link Determinism} that is not {@link Determinism#NON_DETERMINISTIC}, then the outcomes of the {@link
+   * CompletionStage}s returned by any implementation of this method must be deterministic.
+   *
+   * @threadsafety Implementations of this method must be safe for concurrent use by multiple threads.
+   *
+   * @see #determinism()
+   */
+  public CompletionStage<T> getAsync();
+
+  /**
+   * Returns a {@link Determinism} denoting the presence of values completed by the {@link CompletionStage}s returned by
+   * the {@link #getAsync()} method, in the same manner as {@link OptionalSupplier#determinism()}.
+   *
+   * <p>The default implementation of this method returns {@link Determinism#NON_DETERMINISTIC}.</p>
+   *
+   * @return a {@link Determinism}; never {@code null}
+   *
+   * @nullability This method and its overrides never return {@code null}.
+   *
+   * @idempotency This method and its overrides must be idempotent and deterministic.
+   *
+   * @threadsafety This method is, and its overrides must be, safe for concurrent use by multiple threads.
+   *
+   * @see OptionalSupplier#determinism()
+   */
+  public default Determinism determinism() {
+    return Determinism.NON_DETERMINISTIC;
+  }
+
+  /**
+   * Returns an {@link OptionalSupplier} with the same {@link Determinism} as this {@link AsyncOptionalSupplier} whose
+   * {@link OptionalSupplier#get()} method invokes the {@link #getAsync()} method and blocks until the resulting {@link
+   * CompletionStage} completes.
+   *
+   * <p>If the returned {@link OptionalSupplier}'s {@link Determinism} is {@link Determinism#PRESENT} or {@link
+   * Determinism#DETERMINISTIC}, its outcome is remembered after it has first been computed.</p>
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}
+   *
+   * @nullability This method and its (discouraged) overrides never return {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is, and its (discouraged) overrides must be, safe for concurrent use by multiple threads.
+   *
+   * @see #toCachingSupplier()
+   */
+  public default OptionalSupplier<T> toOptionalSupplier() {
+    return OptionalSupplier.of(this.determinism(), () -> join(this.getAsync()));
+  }
+
+  /**
+   * Returns a new {@link CachingSupplier} that blocks, the first time a value is requested from it, until a {@link
+   * CompletionStage} returned by this {@link AsyncOptionalSupplier}'s {@link #getAsync()} method completes, and that
+   * caches the value it completes with.
+   *
+   * @return a new {@link CachingSupplier}; never {@code null}
+   *
+   * @nullability This method and its (discouraged) overrides never return {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is, and its (discouraged) overrides must be, safe for concurrent use by multiple threads.
+   *
+   * @see #toOptionalSupplier()
+   */
+  public default CachingSupplier<T> toCachingSupplier() {
+    return new CachingSupplier<>(this.toOptionalSupplier());
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns an {@link AsyncOptionalSupplier} whose {@link #getAsync()} method always returns a {@link CompletionStage}
+   * that has completed exceptionally, indicating absence, and whose {@link #determinism()} method always returns {@link
+   * Determinism#ABSENT}.
+   *
+   * @param <T> the type of value the returned {@link AsyncOptionalSupplier} will never supply
+   *
+   * @return an {@link AsyncOptionalSupplier}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see Absence#instance()
+   */
+  public static <T> AsyncOptionalSupplier<T> absent() {
+    return AsyncOptionalSupplierAdapter.absent();
+  }
+
+  /**
+   * Returns an {@link AsyncOptionalSupplier} whose {@link #getAsync()} method always returns a {@link CompletionStage}
+   * that has already completed with the supplied value, and whose {@link #determinism()} method always returns {@link
+   * Determinism#PRESENT}.
+   *
+   * @param <T> the type of value the returned {@link AsyncOptionalSupplier} will supply
+   *
+   * @param value the value; may be {@code null}
+   *
+   * @return an {@link AsyncOptionalSupplier}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static <T> AsyncOptionalSupplier<T> of(final T value) {
+    return new AsyncOptionalSupplierAdapter<>(FixedValueSupplier.of(value), Runnable::run);
+  }
+
+  /**
+   * Returns an {@link AsyncOptionalSupplier} that invokes the supplied {@link Supplier} using the {@linkplain
+   * DefaultExecutor#instance() default <code>Executor</code>}.
+   *
+   * @param <T> the type of value the returned {@link AsyncOptionalSupplier} will supply
+   *
+   * @param supplier the {@link Supplier}; must not be {@code null}
+   *
+   * @return an {@link AsyncOptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #of(Supplier, Executor)
+   */
+  public static <T> AsyncOptionalSupplier<T> of(final Supplier<? extends T> supplier) {
+    return of(supplier, DefaultExecutor.instance());
+  }
+
+  /**
+   * Returns an {@link AsyncOptionalSupplier} that invokes the supplied {@link Supplier} using the supplied {@link
+   * Executor}, and that has the supplied {@link Supplier}'s {@link Determinism} if it is an {@link OptionalSupplier}.
+   *
+   * <p>No task is submitted to the {@link Executor} if the outcome is already known without blocking: when the supplied
+   * {@link Supplier} is {@link Determinism#ABSENT}, is a {@link FixedValueSupplier}, or is a {@link CachingSupplier}
+   * whose value has been cached.  If the supplied {@link Supplier} is a {@link DefaultingOptionalSupplier}, the
+   * returned {@link AsyncOptionalSupplier} submits its fallback {@link Supplier} only once its main {@link Supplier}
+   * has indicated absence.</p>
+   *
+   * @param <T> the type of value the returned {@link AsyncOptionalSupplier} will supply
+   *
+   * @param supplier the {@link Supplier}; must not be {@code null}
+   *
+   * @param executor the {@link Executor}; must not be {@code null}
+   *
+   * @return an {@link AsyncOptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static <T> AsyncOptionalSupplier<T> of(final Supplier<? extends T> supplier, final Executor executor) {
+    Objects.requireNonNull(executor, "executor");
+    if (supplier instanceof DefaultingOptionalSupplier<? extends T> dos) {
+      return of(of(dos.supplier(), executor), of(dos.defaults(), executor));
+    }
+    final OptionalSupplier<? extends T> s = OptionalSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+    return s.determinism() == Determinism.ABSENT ? absent() : new AsyncOptionalSupplierAdapter<>(s, executor);
+  }
+
+  /**
+   * Returns an {@link AsyncOptionalSupplier} that completes with the outcome of the supplied {@code supplier}, unless
+   * it indicates absence, in which case it completes with the outcome of the supplied {@code defaults}.
+   *
+   * <p>The {@link #getAsync()} method of {@code defaults} is invoked only after the {@link CompletionStage} returned by
+   * {@code supplier} has completed and indicated absence.</p>
+   *
+   * @param <T> the type of value the returned {@link AsyncOptionalSupplier} will supply
+   *
+   * @param supplier the {@link AsyncOptionalSupplier} to try first; must not be {@code null}
+   *
+   * @param defaults the {@link AsyncOptionalSupplier} to fall back on; must not be {@code null}
+   *
+   * @return an {@link AsyncOptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #speculative(AsyncOptionalSupplier, AsyncOptionalSupplier)
+   *
+   * @see OptionalSupplier#of(Supplier, Supplier)
+   */
+  public static <T> AsyncOptionalSupplier<T> of(final AsyncOptionalSupplier<? extends T> supplier,
+                                                final AsyncOptionalSupplier<? extends T> defaults) {
+    return DefaultingAsyncOptionalSupplier.of(supplier, defaults, false);
+  }
+
+  /**
+   * Returns an {@link AsyncOptionalSupplier} that, like the one returned by the {@link #of(AsyncOptionalSupplier,
+   * AsyncOptionalSupplier)} method, completes with the outcome of the supplied {@code supplier} unless it indicates
+   * absence, in which case it completes with the outcome of the supplied {@code defaults}, but that speculatively
+   * invokes the {@link #getAsync()} methods of both at the same time.
+   *
+   * <p>This trades work, which is wasted whenever {@code supplier} indicates presence, for latency, which is lower
+   * whenever it indicates absence.  If the outcome of either argument is known in advance, by way of its {@link
+   * #determinism()}, no speculation takes place.</p>
+   *
+   * @param <T> the type of value the returned {@link AsyncOptionalSupplier} will supply
+   *
+   * @param supplier the {@link AsyncOptionalSupplier} to prefer; must not be {@code null}
+   *
+   * @param defaults the {@link AsyncOptionalSupplier} to fall back on; must not be {@code null}
+   *
+   * @return an {@link AsyncOptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #of(AsyncOptionalSupplier, AsyncOptionalSupplier)
+   */
+  public static <T> AsyncOptionalSupplier<T> speculative(final AsyncOptionalSupplier<? extends T> supplier,
+                                                         final AsyncOptionalSupplier<? extends T> defaults) {
+    return DefaultingAsyncOptionalSupplier.of(supplier, defaults, true);
+  }
+
+  private static <T> T join(final CompletionStage<T> stage) {
+    try {
+      return stage.toCompletableFuture().join();
+    } catch (final CompletionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException r) {
+        throw r;
+      } else if (cause instanceof Error r) {
+        throw r;
+      }
+      throw new IllegalStateException(cause == null ? e.getMessage() : cause.getMessage(), cause == null ? e : cause);
+    }
+  }
+
+}
@@ -0,0 +1,137 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An {@link AsyncOptionalSupplier} that runs an {@link OptionalSupplier} using an {@link Executor}, unless its outcome
+ * is already known without blocking.
+ *
+ * @param <T> the type of value this {@link AsyncOptionalSupplierAdapter} supplies
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see AsyncOptionalSupplier#of(java.util.function.Supplier, Executor)
+ */
+final class AsyncOptionalSupplierAdapter<T> implements AsyncOptionalSupplier<T> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final AsyncOptionalSupplierAdapter<?> ABSENT =
+    new AsyncOptionalSupplierAdapter<>(Absence.instance(), Runnable::run);
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalSupplier<? extends T> supplier;
+
+  private final Executor executor;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  AsyncOptionalSupplierAdapter(final OptionalSupplier<? extends T> supplier, final Executor executor) {
+    super();
+    this.supplier = supplier;
+    this.executor = executor;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override // AsyncOptionalSupplier<T>
+  public final Determinism determinism() {
+    return this.supplier.determinism();
+  }
+
+  @Override // AsyncOptionalSupplier<T>
+  public final CompletionStage<T> getAsync() {
+    final OptionalSupplier<? extends T> s = this.supplier;
+    switch (s.determinism()) {
+    case ABSENT:
+      return CompletableFuture.failedStage(Absence.noSuchElementException());
+    case PRESENT:
+      if (s instanceof FixedValueSupplier || s instanceof CachingSupplier) {
+        // The value is already in hand; handing it to the Executor would only add latency.
+        return resolve(s);
+      }
+      break;
+    default:
+      break;
+    }
+    final CompletableFuture<T> f = new CompletableFuture<>();
+    this.executor.execute(() -> {
+        try {
+          final T value = s.orElse(Absence.token());
+          if (Absence.isToken(value)) {
+            f.completeExceptionally(Absence.noSuchElementException());
+          } else {
+            f.complete(value);
+          }
+        } catch (final Throwable e) {
+          f.completeExceptionally(e);
+        }
+      });
+    return f;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  // Returns true if the supplied Throwable, with which a CompletionStage completed exceptionally, indicates absence.
+  static final boolean absence(Throwable t) {
+    while (t instanceof CompletionException || t instanceof ExecutionException) {
+      t = t.getCause();
+    }
+    return t instanceof NoSuchElementException || t instanceof UnsupportedOperationException;
+  }
+
+  @SuppressWarnings("unchecked")
+  static final <T> AsyncOptionalSupplier<T> absent() {
+    return (AsyncOptionalSupplier<T>)ABSENT;
+  }
+
+  private static final <T> CompletionStage<T> resolve(final OptionalSupplier<? extends T> s) {
+    final T value = s.orElse(Absence.token());
+    return Absence.isToken(value) ?
+      CompletableFuture.failedStage(Absence.noSuchElementException()) :
+      CompletableFuture.completedStage(value);
+  }
+
+}
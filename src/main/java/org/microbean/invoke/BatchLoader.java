@@ -0,0 +1,215 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.function.Function;
+
+/**
+ * A loader of values for a group of {@link CachingSupplier}s that resolves all of them together in a single bulk
+ * operation when any one of them is first requested.
+ *
+ * <p>Each invocation of the {@link #register(Object)} method returns a {@link CachingSupplier} for a key.  The first
+ * time any such {@link CachingSupplier} that has not yet been resolved needs its value, the bulk {@link Function}
+ * supplied at construction time is invoked once with every key registered since the last bulk load, and every affected
+ * {@link CachingSupplier} is {@linkplain CachingSupplier#set(Object) set} from the resulting {@link Map}.  A key that
+ * is absent from the resulting {@link Map} is absent; it is included again in the bulk load that follows its next
+ * request.  The returned {@link CachingSupplier}s are {@linkplain
+ * CachingSupplier#invalidatable(java.util.function.Supplier) invalidatable}; an invalidated one is included again in
+ * the bulk load that follows its next request.</p>
+ *
+ * <p>At most one bulk load is in progress at any time.  Threads that request a value while a bulk load is in progress
+ * wait, without pinning any carrier thread, until it has finished, and then use the value it loaded, if any, rather
+ * than loading again.  The returned {@link CachingSupplier}s are single-flight.</p>
+ *
+ * @param <K> the type of key
+ *
+ * @param <V> the type of value
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #register(Object)
+ *
+ * @see CachingSupplier
+ */
+public final class BatchLoader<K, V> {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkFunction;
+
+  private final Lock lock;
+
+  private final ConcurrentLinkedQueue<Slot> pending;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link BatchLoader}.
+   *
+   * @param bulkFunction a {@link Function} that accepts an unmodifiable, non-empty {@link Set} of keys and returns a
+   * {@link Map} containing values for as many of them as are present; must not be {@code null}; must not return {@code
+   * null}; <strong>must be side-effect free</strong>
+   *
+   * @exception NullPointerException if {@code bulkFunction} is {@code null}
+   */
+  public BatchLoader(final Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> bulkFunction) {
+    super();
+    this.bulkFunction = Objects.requireNonNull(bulkFunction, "bulkFunction");
+    this.lock = new ReentrantLock();
+    this.pending = new ConcurrentLinkedQueue<>();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns a new {@link CachingSupplier} whose value is the value for the supplied key, loaded in bulk together with
+   * the values for all other keys that are registered but not yet loaded when it is first requested.
+   *
+   * <p>Registration itself does not load anything and does not wait for any bulk load in progress.</p>
+   *
+   * @param key the key; must not be {@code null}
+   *
+   * @return a new {@link CachingSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code key} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is neither idempotent nor deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public final CachingSupplier<V> register(final K key) {
+    final Slot slot = new Slot(Objects.requireNonNull(key, "key"));
+    this.pending.add(slot);
+    return slot.cachingSupplier;
+  }
+
+  // Must be called with the lock held.  Drains the pending slots, plus the supplied one if it is not among them, loads
+  // them all with one invocation of the bulk function, sets the CachingSuppliers of all but the requester, and returns
+  // the requester's value, or an absence token.  The requester's own CachingSupplier publishes its value itself.
+  private final V loadAll(final Slot requester) {
+    final List<Slot> batch = new ArrayList<>();
+    final Set<K> keys = new HashSet<>();
+    boolean requesterPending = false;
+    for (Slot slot = this.pending.poll(); slot != null; slot = this.pending.poll()) {
+      batch.add(slot);
+      keys.add(slot.key);
+      if (slot == requester) {
+        requesterPending = true;
+      }
+    }
+    if (!requesterPending) {
+      // The requester was absent from an earlier bulk load.
+      batch.add(requester);
+      keys.add(requester.key);
+    }
+    final Map<? extends K, ? extends V> values;
+    try {
+      values = Objects.requireNonNull(this.bulkFunction.apply(Set.copyOf(keys)), "bulkFunction.apply(keys)");
+    } catch (final RuntimeException | Error e) {
+      // Retry the whole batch with the next request.
+      for (final Slot slot : batch) {
+        if (slot != requester || requesterPending) {
+          this.pending.add(slot);
+        }
+      }
+      throw e;
+    }
+    V requesterValue = Absence.token();
+    for (final Slot slot : batch) {
+      if (values.containsKey(slot.key)) {
+        final V value = values.get(slot.key);
+        if (slot == requester) {
+          requesterValue = value;
+        } else {
+          slot.cachingSupplier.set(value);
+        }
+      }
+    }
+    return requesterValue;
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  // The delegate of a registered, single-flight CachingSupplier.  It holds no value of its own: a value loaded for
+  // another slot's request is set directly on this slot's CachingSupplier, and a thread that waited for that bulk load
+  // finds it there rather than loading again.
+  private final class Slot implements OptionalSupplier<V> {
+
+    private final K key;
+
+    private final CachingSupplier<V> cachingSupplier;
+
+    private Slot(final K key) {
+      super();
+      this.key = key;
+      this.cachingSupplier = CachingSupplier.invalidatable(this, true);
+    }
+
+    @Override // OptionalSupplier<V>
+    public final V get() {
+      final V value = this.orElse(Absence.token());
+      if (Absence.isToken(value)) {
+        throw Absence.noSuchElementException();
+      }
+      return value;
+    }
+
+    @Override // OptionalSupplier<V>
+    public final V orElse(final V other) {
+      lock.lock();
+      try {
+        V value = this.cachingSupplier.peek(Absence.token());
+        if (Absence.isToken(value)) {
+          value = loadAll(this);
+        }
+        return Absence.isToken(value) ? other : value;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+  }
+
+}
@@ -227,6 +227,51 @@ public final class BootstrapMethods {
     return new ConstantCallSite(findConstructorMethodHandle(lookup, methodType, targetClass));
   }
 
+  /**
+   * Returns a {@link ConstantCallSite} that invokes a {@linkplain Lookup#findStatic(Class, String, MethodType) static
+   * <code>MethodHandle</code>} that takes no arguments once, and thereafter returns its result as a constant that the
+   * JIT compiler may fold.
+   *
+   * @param lookup a {@link Lookup}; will not be {@code null}
+   *
+   * @param methodName the name of the static method to find; will not be {@code null}
+   *
+   * @param methodType a {@link MethodType} with no parameters; will not be {@code null}
+   *
+   * @param targetClass the {@link Class} whose static method will be sought; will not be {@code null}
+   *
+   * @return a {@link ConstantCallSite} {@linkplain ConstantCallSite#getTarget() backed} by the {@linkplain
+   * CallSiteCachingSupplier#dynamicInvoker() dynamic invoker} of a {@link CallSiteCachingSupplier}
+   *
+   * @exception Throwable if an error occurs
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is neither idempotent nor deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see CallSiteCachingSupplier
+   */
+  public static final ConstantCallSite findCachingStaticCallSite(final Lookup lookup,
+                                                                 final String methodName,
+                                                                 final MethodType methodType,
+                                                                 final Class<?> targetClass)
+    throws Throwable {
+    final MethodHandle mh =
+      findStaticMethodHandle(lookup, methodName, methodType, targetClass).asType(MethodType.methodType(Object.class));
+    final CallSiteCachingSupplier<Object> s = new CallSiteCachingSupplier<>(() -> {
+        try {
+          return (Object)mh.invokeExact();
+        } catch (final RuntimeException | Error e) {
+          throw e;
+        } catch (final Throwable e) {
+          throw new IllegalStateException(e.getMessage(), e);
+        }
+    });
+    return new ConstantCallSite(s.dynamicInvoker().asType(methodType));
+  }
+
   /**
    * Returns an empty, immutable {@link SortedMap}.
    *
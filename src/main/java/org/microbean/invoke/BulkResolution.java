@@ -0,0 +1,374 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.Collection;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import java.util.function.Supplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * The immutable, array-backed outcome of resolving a collection of {@link Supplier}s in parallel, holding, for each,
+ * either the value it supplied or a marker recording that it indicated absence.
+ *
+ * <p>Resolving with the {@link #resolve(Collection)} or {@link #resolve(Collection, Executor)} methods never throws or
+ * catches an exception to record absence, and answers {@link OptionalSupplier}s whose {@linkplain
+ * OptionalSupplier#determinism() determinism} is {@link Determinism#PRESENT} or {@link Determinism#ABSENT} on the
+ * calling thread without scheduling a task for them.</p>
+ *
+ * @param <T> the type of the values held
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #resolve(Collection)
+ *
+ * @see #resolve(Collection, Executor)
+ */
+public final class BulkResolution<T> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  // Recorded for a supplier that indicated absence.
+  private static final Object ABSENT = new Object();
+
+  // The number of suppliers below which a fork/join task resolves its range itself rather than splitting it.
+  private static final int THRESHOLD = 16;
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Object[] values;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private BulkResolution(final Object[] values) {
+    super();
+    this.values = values;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the number of suppliers that were resolved.
+   *
+   * @return the number of suppliers that were resolved; always {@code 0} or greater
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public final int size() {
+    return this.values.length;
+  }
+
+  /**
+   * Returns {@code true} if the supplier at the supplied index supplied a value, which may be {@code null}.
+   *
+   * @param index the index, in the iteration order of the resolved {@link Collection}
+   *
+   * @return {@code true} if the supplier at the supplied index supplied a value; {@code false} if it indicated absence
+   *
+   * @exception IndexOutOfBoundsException if {@code index} is out of bounds
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public final boolean isPresent(final int index) {
+    return this.values[Objects.checkIndex(index, this.values.length)] != ABSENT;
+  }
+
+  /**
+   * Returns the value supplied by the supplier at the supplied index.
+   *
+   * @param index the index, in the iteration order of the resolved {@link Collection}
+   *
+   * @return the value, which may be {@code null}
+   *
+   * @exception IndexOutOfBoundsException if {@code index} is out of bounds
+   *
+   * @exception NoSuchElementException if the supplier at the supplied index indicated absence
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #isPresent(int)
+   */
+  public final T get(final int index) {
+    final T value = this.orElse(index, Absence.token());
+    if (Absence.isToken(value)) {
+      throw Absence.noSuchElementException();
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value supplied by the supplier at the supplied index, or, if it indicated absence, the supplied {@code
+   * other} value.
+   *
+   * @param index the index, in the iteration order of the resolved {@link Collection}
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the value, which may be {@code null}, or {@code other}
+   *
+   * @exception IndexOutOfBoundsException if {@code index} is out of bounds
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @SuppressWarnings("unchecked")
+  public final T orElse(final int index, final T other) {
+    final Object value = this.values[Objects.checkIndex(index, this.values.length)];
+    return value == ABSENT ? other : (T)value;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Resolves the supplied {@link Supplier}s in parallel using the {@linkplain DefaultExecutor#instance() default
+   * <code>Executor</code>}, which runs each one on its own virtual thread where virtual threads are available, and
+   * otherwise uses fork/join parallelism on the {@linkplain ForkJoinPool#commonPool() common pool}, and returns their
+   * outcomes.
+   *
+   * @param <T> the type of value the supplied {@link Supplier}s supply
+   *
+   * @param suppliers the {@link Supplier}s; must not be {@code null}; must not contain {@code null} elements
+   *
+   * @return a new {@link BulkResolution}; never {@code null}
+   *
+   * @exception NullPointerException if {@code suppliers} is {@code null} or contains {@code null} elements
+   *
+   * @exception IllegalStateException if the calling thread was interrupted while waiting, or if a {@link Supplier}
+   * failed with a checked exception
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent and is deterministic only if every supplied {@link Supplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #resolve(Collection, Executor)
+   */
+  public static final <T> BulkResolution<T> resolve(final Collection<? extends Supplier<? extends T>> suppliers) {
+    return resolve(suppliers, DefaultExecutor.instance());
+  }
+
+  /**
+   * Resolves the supplied {@link Supplier}s in parallel using the supplied {@link Executor} and returns their outcomes.
+   *
+   * <p>If the supplied {@link Executor} is a {@link ForkJoinPool}, the suppliers are resolved by recursively splitting
+   * them into ranges.  Otherwise each supplier is resolved by its own task.  In either case, {@link OptionalSupplier}s
+   * whose outcomes are known in advance are resolved on the calling thread.</p>
+   *
+   * <p>If any {@link Supplier} fails other than by indicating absence, this method waits for all the others to finish,
+   * and then rethrows the first failure, with any others {@linkplain Throwable#addSuppressed(Throwable)
+   * suppressed}.</p>
+   *
+   * @param <T> the type of value the supplied {@link Supplier}s supply
+   *
+   * @param suppliers the {@link Supplier}s; must not be {@code null}; must not contain {@code null} elements
+   *
+   * @param executor the {@link Executor}; must not be {@code null}
+   *
+   * @return a new {@link BulkResolution}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null} or if {@code suppliers} contains {@code null}
+   * elements
+   *
+   * @exception IllegalStateException if the calling thread was interrupted while waiting, or if a {@link Supplier}
+   * failed with a checked exception
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent and is deterministic only if every supplied {@link Supplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final <T> BulkResolution<T> resolve(final Collection<? extends Supplier<? extends T>> suppliers,
+                                                    final Executor executor) {
+    Objects.requireNonNull(executor, "executor");
+    final Object[] values = new Object[suppliers.size()];
+    final OptionalSupplier<?>[] pending = new OptionalSupplier<?>[values.length];
+    final int[] indices = new int[values.length];
+    int pendingCount = 0;
+    int i = 0;
+    for (final Supplier<? extends T> supplier : suppliers) {
+      final OptionalSupplier<? extends T> s = OptionalSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+      switch (s.determinism()) {
+      case ABSENT:
+        values[i] = ABSENT;
+        break;
+      case PRESENT:
+        values[i] = probe(s);
+        break;
+      default:
+        pending[pendingCount] = s;
+        indices[pendingCount++] = i;
+        break;
+      }
+      ++i;
+    }
+    if (pendingCount > 0) {
+      final AtomicReference<Throwable> failure = new AtomicReference<>();
+      if (executor instanceof ForkJoinPool pool) {
+        pool.invoke(new Resolve(pending, indices, values, failure, 0, pendingCount));
+      } else {
+        final CountDownLatch latch = new CountDownLatch(pendingCount);
+        for (int p = 0; p < pendingCount; p++) {
+          final OptionalSupplier<?> s = pending[p];
+          final int index = indices[p];
+          final Runnable task = () -> {
+            try {
+              resolve(s, index, values, failure);
+            } finally {
+              latch.countDown();
+            }
+          };
+          try {
+            executor.execute(task);
+          } catch (final RuntimeException e) {
+            // The Executor refused; do the work here instead.
+            task.run();
+          }
+        }
+        try {
+          latch.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException(e.getMessage(), e);
+        }
+      }
+      final Throwable t = failure.get();
+      if (t instanceof RuntimeException r) {
+        throw r;
+      } else if (t instanceof Error r) {
+        throw r;
+      } else if (t != null) {
+        throw new IllegalStateException(t.getMessage(), t);
+      }
+    }
+    return new BulkResolution<>(values);
+  }
+
+  private static final Object probe(final OptionalSupplier<?> s) {
+    final Object value = s.orElse(Absence.token());
+    return Absence.isToken(value) ? ABSENT : value;
+  }
+
+  private static final void resolve(final OptionalSupplier<?> s,
+                                    final int index,
+                                    final Object[] values,
+                                    final AtomicReference<Throwable> failure) {
+    try {
+      // Each task writes a distinct element; the latch or the fork/join framework publishes the writes to the caller.
+      values[index] = probe(s);
+    } catch (final Throwable e) {
+      if (!failure.compareAndSet(null, e)) {
+        final Throwable first = failure.get();
+        if (first != e) {
+          first.addSuppressed(e);
+        }
+      }
+    }
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class Resolve extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final OptionalSupplier<?>[] pending;
+
+    private final int[] indices;
+
+    private final Object[] values;
+
+    private final AtomicReference<Throwable> failure;
+
+    private final int from;
+
+    private final int to;
+
+    private Resolve(final OptionalSupplier<?>[] pending,
+                    final int[] indices,
+                    final Object[] values,
+                    final AtomicReference<Throwable> failure,
+                    final int from,
+                    final int to) {
+      super();
+      this.pending = pending;
+      this.indices = indices;
+      this.values = values;
+      this.failure = failure;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override // RecursiveAction
+    protected final void compute() {
+      if (this.to - this.from <= THRESHOLD) {
+        for (int i = this.from; i < this.to; i++) {
+          resolve(this.pending[i], this.indices[i], this.values, this.failure);
+        }
+      } else {
+        final int middle = (this.from + this.to) >>> 1;
+        invokeAll(new Resolve(this.pending, this.indices, this.values, this.failure, this.from, middle),
+                  new Resolve(this.pending, this.indices, this.values, this.failure, middle, this.to));
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,189 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+import java.util.function.BooleanSupplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An {@link OptionalBooleanSupplier} that, like {@link CachingSupplier}, computes its value once, using a delegate
+ * {@link BooleanSupplier}, and then supplies it forever without boxing it.
+ *
+ * <p>The computed value is held in a single {@code byte} field, so the hot path is one load with acquire semantics and
+ * no allocation.  Absence is not cached.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see CachingSupplier
+ */
+public final class CachingBooleanSupplier implements OptionalBooleanSupplier {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final byte UNSET = 0;
+
+  private static final byte FALSE = 1;
+
+  private static final byte TRUE = 2;
+
+  private static final VarHandle STATE;
+
+  static {
+    try {
+      STATE = MethodHandles.lookup().findVarHandle(CachingBooleanSupplier.class, "state", byte.class);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw (ExceptionInInitializerError)new ExceptionInInitializerError(e.getMessage()).initCause(e);
+    }
+  }
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalBooleanSupplier delegate;
+
+  // Accessed only via STATE.  UNSET means "not yet computed"; otherwise FALSE or TRUE.
+  private byte state;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link CachingBooleanSupplier}.
+   *
+   * @param supplier the {@link BooleanSupplier} that will compute the value; must not be {@code null}; <strong>must be
+   * safe for concurrent use by multiple threads and must be side-effect free</strong>
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   */
+  public CachingBooleanSupplier(final BooleanSupplier supplier) {
+    super();
+    this.delegate = OptionalBooleanSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns {@link Determinism#PRESENT} if the value has been computed, or {@link Determinism#DETERMINISTIC} otherwise.
+   *
+   * @return {@link Determinism#PRESENT} or {@link Determinism#DETERMINISTIC}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalBooleanSupplier
+  public final Determinism determinism() {
+    return (byte)STATE.getAcquire(this) == UNSET ? Determinism.DETERMINISTIC : Determinism.PRESENT;
+  }
+
+  /**
+   * Returns the value this {@link CachingBooleanSupplier} will forever supply, computing it first if necessary.
+   *
+   * @return the value
+   *
+   * @exception NoSuchElementException if the delegate {@link BooleanSupplier} indicates absence
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link BooleanSupplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalBooleanSupplier
+  public final boolean getAsBoolean() {
+    final byte state = this.state();
+    if (state == UNSET) {
+      throw Absence.noSuchElementException();
+    }
+    return state == TRUE;
+  }
+
+  /**
+   * Returns the value this {@link CachingBooleanSupplier} will forever supply, computing it first if necessary, or, if
+   * the delegate {@link BooleanSupplier} indicates absence, the supplied {@code other} value.
+   *
+   * @param other the alternate value
+   *
+   * @return the value, or {@code other}
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link BooleanSupplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalBooleanSupplier
+  public final boolean orElse(final boolean other) {
+    final byte state = this.state();
+    return state == UNSET ? other : state == TRUE;
+  }
+
+  /**
+   * Returns an {@link Optional} holding the value this {@link CachingBooleanSupplier} will forever supply, computing it
+   * first if necessary, or an empty {@link Optional} if the delegate {@link BooleanSupplier} indicates absence.
+   *
+   * <p>Once the value has been computed, this method neither allocates nor throws.</p>
+   *
+   * @return an {@link Optional}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link BooleanSupplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalBooleanSupplier
+  public final Optional<Boolean> optional() {
+    final byte state = this.state();
+    return state == UNSET ? Optional.empty() : FixedBooleanValueSupplier.of(state == TRUE).optional();
+  }
+
+  // Returns the published state, computing and publishing it first if necessary, or UNSET if the delegate indicates
+  // absence.
+  private final byte state() {
+    byte state = (byte)STATE.getAcquire(this);
+    if (state == UNSET) {
+      final Optional<Boolean> optional = this.delegate.optional();
+      if (optional.isPresent()) {
+        state = optional.get() ? TRUE : FALSE;
+        final byte witness = (byte)STATE.compareAndExchange(this, UNSET, state);
+        if (witness != UNSET) {
+          state = witness;
+        }
+      }
+    }
+    return state;
+  }
+
+}
@@ -0,0 +1,137 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalDouble;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * An {@link OptionalDoubleSupplier} that, like {@link CachingSupplier}, computes its value once, using a delegate
+ * {@link DoubleSupplier}, and then supplies it forever without boxing it.
+ *
+ * <p>The computed value is held in an {@link OptionalDouble} published through a single field, so the hot path is one
+ * load with acquire semantics and no allocation.  Absence is not cached.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see CachingSupplier
+ */
+public final class CachingDoubleSupplier extends CachingPrimitiveSupplier<OptionalDouble>
+  implements OptionalDoubleSupplier {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalDoubleSupplier delegate;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link CachingDoubleSupplier}.
+   *
+   * @param supplier the {@link DoubleSupplier} that will compute the value; must not be {@code null}; <strong>must be
+   * safe for concurrent use by multiple threads and must be side-effect free</strong>
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   */
+  public CachingDoubleSupplier(final DoubleSupplier supplier) {
+    super();
+    this.delegate = OptionalDoubleSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the value this {@link CachingDoubleSupplier} will forever supply, computing it first if necessary.
+   *
+   * @return the value
+   *
+   * @exception NoSuchElementException if the delegate {@link DoubleSupplier} indicates absence
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link DoubleSupplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalDoubleSupplier
+  public final double getAsDouble() {
+    final OptionalDouble optional = this.cached();
+    if (optional.isEmpty()) {
+      throw Absence.noSuchElementException();
+    }
+    return optional.getAsDouble();
+  }
+
+  /**
+   * Returns the value this {@link CachingDoubleSupplier} will forever supply, computing it first if necessary, or, if
+   * the delegate {@link DoubleSupplier} indicates absence, the supplied {@code other} value.
+   *
+   * @param other the alternate value
+   *
+   * @return the value, or {@code other}
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link DoubleSupplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalDoubleSupplier
+  public final double orElse(final double other) {
+    final OptionalDouble optional = this.cached();
+    return optional.isPresent() ? optional.getAsDouble() : other;
+  }
+
+  /**
+   * Returns an {@link OptionalDouble} holding the value this {@link CachingDoubleSupplier} will forever supply,
+   * computing it first if necessary, or an empty {@link OptionalDouble} if the delegate {@link DoubleSupplier}
+   * indicates absence.
+   *
+   * <p>Once the value has been computed, this method neither allocates nor throws.</p>
+   *
+   * @return an {@link OptionalDouble}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link DoubleSupplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalDoubleSupplier
+  public final OptionalDouble optional() {
+    return this.cached();
+  }
+
+  @Override // CachingPrimitiveSupplier<OptionalDouble>
+  final OptionalDouble compute() {
+    return this.delegate.optional();
+  }
+
+  @Override // CachingPrimitiveSupplier<OptionalDouble>
+  final boolean present(final OptionalDouble optional) {
+    return optional.isPresent();
+  }
+
+}
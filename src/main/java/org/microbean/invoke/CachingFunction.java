@@ -0,0 +1,672 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.function.Function;
+
+/**
+ * A {@link Function} that, like a keyed {@link CachingSupplier}, memoizes the values computed by a delegate {@link
+ * Function}, retaining at most a fixed number of them.
+ *
+ * <p>Values are loaded at most once per key at a time: a thread that requires a value that another thread is loading
+ * waits for that load to finish rather than invoking the delegate {@link Function} itself.  Unlike {@link
+ * ConcurrentHashMap#computeIfAbsent(Object, Function)}, no lock is held on any part of the underlying map while the
+ * delegate {@link Function} runs, so loads of unrelated keys never block one another.</p>
+ *
+ * <p>When the number of retained values exceeds the maximum size, values are evicted according to a simplified <a
+ * href="https://arxiv.org/abs/1512.00727" target="_top">W-TinyLFU</a> policy.  New values enter a small LRU admission
+ * window.  Values leaving the window are admitted into a segmented LRU main space only if they have been requested more
+ * frequently, as estimated by a compact count-min sketch with periodic aging, than the value they would displace.
+ * Requests for retained values do not contend for the eviction policy: each is recorded in one of several small
+ * buffers, chosen by thread, that are replayed against the policy in batches.  Requests that find their buffer full are
+ * not recorded, which sacrifices a little accuracy for read scalability.</p>
+ *
+ * <p>Absence follows the conventions of {@link OptionalSupplier}: if the delegate {@link Function} throws a {@link
+ * NoSuchElementException} or an {@link UnsupportedOperationException}, the key is absent.  Absence and other
+ * exceptions are not cached.  Threads that waited for a load that failed with any other {@link RuntimeException} each
+ * receive their own {@link IllegalStateException} whose {@linkplain Throwable#getCause() cause} is that failure; only
+ * the loading thread receives the original exception.  Threads that waited for a load that failed with an {@link
+ * Error} load the value themselves.</p>
+ *
+ * @param <K> the type of key
+ *
+ * @param <V> the type of value
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #apply(Object)
+ *
+ * @see #orElse(Object, Object)
+ *
+ * @see CachingSupplier
+ */
+public final class CachingFunction<K, V> implements Function<K, V> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  // Stands in for a computed null value.
+  private static final Object NULL = new Object();
+
+  // The result of a load that indicated absence.
+  private static final Object ABSENT = new Object();
+
+  // The result of a load that failed with an Error; threads that awaited it load afresh.
+  private static final Object RETRY = new Object();
+
+  private static final byte NONE = 0;
+
+  private static final byte WINDOW = 1;
+
+  private static final byte PROBATION = 2;
+
+  private static final byte PROTECTED = 3;
+
+  // The number of read buffers: the smallest power of two no smaller than the number of processors, up to 32.
+  private static final int READ_BUFFERS =
+    Integer.highestOneBit(Math.min(32, Math.max(1, Runtime.getRuntime().availableProcessors())) * 2 - 1);
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Function<? super K, ? extends V> function;
+
+  private final ConcurrentHashMap<K, Node<K>> map;
+
+  // Guards the policy: the sketch, the three queues and every Node's queue, prev and next fields.
+  private final Lock policyLock;
+
+  // Records reads of retained values for later replay under the policy lock.
+  private final ReadBuffer<K>[] readBuffers;
+
+  private final FrequencySketch sketch;
+
+  private final Queue<K> window;
+
+  private final Queue<K> probation;
+
+  private final Queue<K> protectedQueue;
+
+  private final int windowMaximum;
+
+  private final int mainMaximum;
+
+  private final int protectedMaximum;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link CachingFunction}.
+   *
+   * @param function the {@link Function} that will compute values; must not be {@code null}; <strong>must be safe for
+   * concurrent use by multiple threads, must be side-effect free, and must not invoke this {@link CachingFunction}
+   * recursively with the key it was given</strong>
+   *
+   * @param maximumSize the maximum number of values to retain; must be positive
+   *
+   * @exception NullPointerException if {@code function} is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code maximumSize} is not positive
+   */
+  public CachingFunction(final Function<? super K, ? extends V> function, final int maximumSize) {
+    super();
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize: " + maximumSize);
+    }
+    this.function = Objects.requireNonNull(function, "function");
+    this.map = new ConcurrentHashMap<>();
+    this.policyLock = new ReentrantLock();
+    @SuppressWarnings("unchecked")
+    final ReadBuffer<K>[] readBuffers = (ReadBuffer<K>[])new ReadBuffer<?>[READ_BUFFERS];
+    for (int i = 0; i < readBuffers.length; i++) {
+      readBuffers[i] = new ReadBuffer<>();
+    }
+    this.readBuffers = readBuffers;
+    this.sketch = new FrequencySketch(maximumSize);
+    this.window = new Queue<>();
+    this.probation = new Queue<>();
+    this.protectedQueue = new Queue<>();
+    this.windowMaximum = Math.max(1, maximumSize / 100);
+    this.mainMaximum = maximumSize - this.windowMaximum;
+    this.protectedMaximum = this.mainMaximum / 5 * 4;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the value associated with the supplied key, computing it first, using the delegate {@link Function}
+   * supplied at construction time, if necessary.
+   *
+   * @param key the key; must not be {@code null}
+   *
+   * @return the value, which may be {@code null}
+   *
+   * @exception NullPointerException if {@code key} is {@code null}
+   *
+   * @exception NoSuchElementException if the delegate {@link Function} indicates absence
+   *
+   * @exception IllegalStateException if the delegate {@link Function} recursively requests the value for the key it is
+   * computing, or if this thread waited for another thread's load of the value and that load failed
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link Function} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #orElse(Object, Object)
+   */
+  @Override // Function<K, V>
+  public final V apply(final K key) {
+    final Object value = this.value(key);
+    if (value == ABSENT) {
+      throw Absence.noSuchElementException();
+    }
+    return unwrap(value);
+  }
+
+  /**
+   * Returns the value associated with the supplied key, computing it first if necessary in the same manner as the
+   * {@link #apply(Object)} method, or, if the delegate {@link Function} indicates absence, returns the supplied {@code
+   * other} value.
+   *
+   * @param key the key; must not be {@code null}
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the value, which may be {@code null}, or {@code other}
+   *
+   * @exception NullPointerException if {@code key} is {@code null}
+   *
+   * @exception IllegalStateException if the delegate {@link Function} recursively requests the value for the key it is
+   * computing, or if this thread waited for another thread's load of the value and that load failed
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link Function} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #apply(Object)
+   */
+  public final V orElse(final K key, final V other) {
+    final Object value = this.value(key);
+    return value == ABSENT ? other : unwrap(value);
+  }
+
+  /**
+   * Discards any value associated with the supplied key, so that it will be computed again when it is next requested.
+   *
+   * <p>A load of the supplied key that is in progress will complete for the threads awaiting it, but its value will not
+   * be retained.</p>
+   *
+   * @param key the key; must not be {@code null}
+   *
+   * @exception NullPointerException if {@code key} is {@code null}
+   *
+   * @idempotency This method is idempotent but not deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public final void invalidate(final K key) {
+    final Node<K> node = this.map.remove(key);
+    if (node != null) {
+      this.policyLock.lock();
+      try {
+        this.drainReadBuffers();
+        this.unlink(node);
+      } finally {
+        this.policyLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns an estimate of the number of values this {@link CachingFunction} currently retains, including those that
+   * are being loaded.
+   *
+   * @return an estimate of the number of values this {@link CachingFunction} currently retains; never negative
+   *
+   * @idempotency This method is idempotent but not deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public final int estimatedSize() {
+    return this.map.size();
+  }
+
+  // Returns the (wrapped) value for key, or ABSENT.
+  private final Object value(final K key) {
+    while (true) {
+      Node<K> node = this.map.get(key);
+      if (node == null) {
+        final Node<K> newNode = new Node<>(key, Thread.currentThread());
+        node = this.map.putIfAbsent(key, newNode);
+        if (node == null) {
+          return this.load(newNode);
+        }
+      }
+      final Object value = node.value;
+      if (value != null) {
+        // Fast path.  Record the access in this thread's read buffer; replay the buffer only when it is full and the
+        // policy is not busy.
+        final ReadBuffer<K> readBuffer =
+          this.readBuffers[FrequencySketch.spread(Long.hashCode(Thread.currentThread().getId())) & (READ_BUFFERS - 1)];
+        if (!readBuffer.offer(node) && this.policyLock.tryLock()) {
+          try {
+            this.drainReadBuffers();
+          } finally {
+            this.policyLock.unlock();
+          }
+        }
+        return value;
+      }
+      final Object result = await(node);
+      if (result != RETRY) {
+        return result;
+      }
+    }
+  }
+
+  private final Object load(final Node<K> node) {
+    final V value;
+    try {
+      value = this.function.apply(node.key);
+    } catch (final NoSuchElementException | UnsupportedOperationException e) {
+      this.map.remove(node.key, node);
+      node.future.complete(ABSENT);
+      return ABSENT;
+    } catch (final RuntimeException e) {
+      this.map.remove(node.key, node);
+      node.future.completeExceptionally(e);
+      throw e;
+    } catch (final Error e) {
+      this.map.remove(node.key, node);
+      node.future.complete(RETRY);
+      throw e;
+    } finally {
+      node.loader = null;
+    }
+    final Object wrapped = value == null ? NULL : value;
+    node.value = wrapped;
+    node.future.complete(wrapped);
+    this.policyLock.lock();
+    try {
+      this.drainReadBuffers();
+      this.sketch.increment(node.key);
+      if (this.map.get(node.key) == node) {
+        // The node was not invalidated while it was loading.
+        this.window.addFirst(node, WINDOW);
+        this.evict();
+      }
+    } finally {
+      this.policyLock.unlock();
+    }
+    return wrapped;
+  }
+
+  // Must be called with the policy lock held.
+  private final void drainReadBuffers() {
+    for (final ReadBuffer<K> readBuffer : this.readBuffers) {
+      readBuffer.drainTo(this);
+    }
+  }
+
+  // Must be called with the policy lock held.
+  private final void onAccess(final Node<K> node) {
+    switch (node.queue) {
+    case WINDOW:
+      this.window.moveToFirst(node);
+      break;
+    case PROBATION:
+      this.probation.remove(node);
+      this.protectedQueue.addFirst(node, PROTECTED);
+      if (this.protectedQueue.size > this.protectedMaximum) {
+        this.probation.addFirst(this.protectedQueue.removeLast(), PROBATION);
+      }
+      break;
+    case PROTECTED:
+      this.protectedQueue.moveToFirst(node);
+      break;
+    default:
+      // Evicted or invalidated.
+      break;
+    }
+  }
+
+  // Must be called with the policy lock held.
+  private final void evict() {
+    while (this.window.size > this.windowMaximum) {
+      final Node<K> candidate = this.window.removeLast();
+      if (this.probation.size + this.protectedQueue.size < this.mainMaximum) {
+        this.probation.addFirst(candidate, PROBATION);
+        continue;
+      }
+      Node<K> victim = this.probation.tail;
+      if (victim == null) {
+        victim = this.protectedQueue.tail;
+      }
+      if (victim != null && this.sketch.frequency(candidate.key) > this.sketch.frequency(victim.key)) {
+        this.unlink(victim);
+        this.map.remove(victim.key, victim);
+        this.probation.addFirst(candidate, PROBATION);
+      } else {
+        this.map.remove(candidate.key, candidate);
+      }
+    }
+  }
+
+  // Must be called with the policy lock held.
+  private final void unlink(final Node<K> node) {
+    switch (node.queue) {
+    case WINDOW:
+      this.window.remove(node);
+      break;
+    case PROBATION:
+      this.probation.remove(node);
+      break;
+    case PROTECTED:
+      this.protectedQueue.remove(node);
+      break;
+    default:
+      break;
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final Object await(final Node<?> node) {
+    if (node.loader == Thread.currentThread() && !node.future.isDone()) {
+      throw new IllegalStateException("recursive load of " + node.key);
+    }
+    try {
+      return node.future.join();
+    } catch (final CompletionException e) {
+      // The loading thread threw the original exception; this thread must not throw the same instance.
+      final Throwable cause = e.getCause();
+      throw new IllegalStateException(cause.getMessage(), cause);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static final <V> V unwrap(final Object value) {
+    return value == NULL ? null : (V)value;
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class Node<K> {
+
+    private final K key;
+
+    // The loading Thread, used to detect recursive loads; null once the load has finished.
+    private volatile Thread loader;
+
+    // Completed with the wrapped value, or ABSENT, or RETRY, or exceptionally with a RuntimeException.  Awaited only by
+    // threads that find the node loading.
+    private final CompletableFuture<Object> future;
+
+    // null while loading or if the load did not produce a value; read without locking on the fast path.
+    private volatile Object value;
+
+    // Guarded by the policy lock.
+    private byte queue;
+
+    private Node<K> prev;
+
+    private Node<K> next;
+
+    private Node(final K key, final Thread loader) {
+      super();
+      this.key = key;
+      this.loader = loader;
+      this.future = new CompletableFuture<>();
+    }
+
+  }
+
+  // An intrusive doubly-linked access-ordered queue; most recently used at the head.  Guarded by the policy lock.
+  private static final class Queue<K> {
+
+    private Node<K> head;
+
+    private Node<K> tail;
+
+    private int size;
+
+    private Queue() {
+      super();
+    }
+
+    private final void addFirst(final Node<K> node, final byte queue) {
+      node.queue = queue;
+      node.prev = null;
+      node.next = this.head;
+      if (this.head == null) {
+        this.tail = node;
+      } else {
+        this.head.prev = node;
+      }
+      this.head = node;
+      ++this.size;
+    }
+
+    private final void moveToFirst(final Node<K> node) {
+      if (node != this.head) {
+        final byte queue = node.queue;
+        this.remove(node);
+        this.addFirst(node, queue);
+      }
+    }
+
+    private final Node<K> removeLast() {
+      final Node<K> node = this.tail;
+      this.remove(node);
+      return node;
+    }
+
+    private final void remove(final Node<K> node) {
+      if (node.prev == null) {
+        this.head = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        this.tail = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+      node.queue = NONE;
+      --this.size;
+    }
+
+  }
+
+  // A lossy, bounded ring of reads written by any number of threads and drained by the holder of the policy lock.  A
+  // writer claims a slot by advancing the write count and then publishes its Node into it; the drainer stops at the
+  // first slot that has been claimed but not yet published.
+  private static final class ReadBuffer<K> {
+
+    private static final int SIZE = 16;
+
+    private static final VarHandle NODES = MethodHandles.arrayElementVarHandle(Node[].class);
+
+    private static final VarHandle WRITES;
+
+    private static final VarHandle READS;
+
+    static {
+      try {
+        WRITES = MethodHandles.lookup().findVarHandle(ReadBuffer.class, "writes", long.class);
+        READS = MethodHandles.lookup().findVarHandle(ReadBuffer.class, "reads", long.class);
+      } catch (final NoSuchFieldException | IllegalAccessException e) {
+        throw (ExceptionInInitializerError)new ExceptionInInitializerError(e.getMessage()).initCause(e);
+      }
+    }
+
+    private final Node<?>[] nodes;
+
+    private volatile long writes;
+
+    // Written only by the holder of the policy lock.
+    private volatile long reads;
+
+    private ReadBuffer() {
+      super();
+      this.nodes = new Node<?>[SIZE];
+    }
+
+    // Returns false if this buffer was full and the read was not recorded.  A read that loses a race for a slot is
+    // dropped silently.
+    private final boolean offer(final Node<K> node) {
+      final long writes = (long)WRITES.getAcquire(this);
+      if (writes - (long)READS.getAcquire(this) >= SIZE) {
+        return false;
+      }
+      if (WRITES.compareAndSet(this, writes, writes + 1L)) {
+        NODES.setRelease(this.nodes, (int)writes & (SIZE - 1), node);
+      }
+      return true;
+    }
+
+    // Must be called with the policy lock held.
+    @SuppressWarnings("unchecked")
+    private final void drainTo(final CachingFunction<K, ?> f) {
+      long reads = this.reads;
+      final long writes = (long)WRITES.getAcquire(this);
+      while (reads < writes) {
+        final int index = (int)reads & (SIZE - 1);
+        final Node<K> node = (Node<K>)NODES.getAcquire(this.nodes, index);
+        if (node == null) {
+          // Claimed but not yet published.
+          break;
+        }
+        NODES.setRelease(this.nodes, index, null);
+        f.sketch.increment(node.key);
+        f.onAccess(node);
+        ++reads;
+      }
+      READS.setRelease(this, reads);
+    }
+
+  }
+
+  // A count-min sketch of 4-bit counters, four per key, sixteen to a long, that halves every counter once a sample of
+  // ten times the maximum size has been recorded, so that stale popularity decays.  Guarded by the policy lock.
+  private static final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+      0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private final long[] table;
+
+    private final int sampleSize;
+
+    private int additions;
+
+    private FrequencySketch(final int maximumSize) {
+      super();
+      final int length = Math.max(1, Integer.highestOneBit(Math.max(1, Math.min(maximumSize, 1 << 30)) - 1) << 1);
+      this.table = new long[length];
+      this.sampleSize = maximumSize > Integer.MAX_VALUE / 10 ? Integer.MAX_VALUE : maximumSize * 10;
+    }
+
+    private final int frequency(final Object key) {
+      final int hash = spread(key.hashCode());
+      final int start = (hash & 3) << 2;
+      int frequency = Integer.MAX_VALUE;
+      for (int i = 0; i < 4; i++) {
+        final int count = (int)((this.table[this.indexOf(hash, i)] >>> ((start + i) << 2)) & 0xfL);
+        frequency = Math.min(frequency, count);
+      }
+      return frequency;
+    }
+
+    private final void increment(final Object key) {
+      final int hash = spread(key.hashCode());
+      final int start = (hash & 3) << 2;
+      boolean added = false;
+      for (int i = 0; i < 4; i++) {
+        final int index = this.indexOf(hash, i);
+        final int offset = (start + i) << 2;
+        final long mask = 0xfL << offset;
+        if ((this.table[index] & mask) != mask) {
+          this.table[index] += 1L << offset;
+          added = true;
+        }
+      }
+      if (added && ++this.additions >= this.sampleSize) {
+        this.reset();
+      }
+    }
+
+    private final void reset() {
+      for (int i = 0; i < this.table.length; i++) {
+        this.table[i] = (this.table[i] >>> 1) & 0x7777777777777777L;
+      }
+      this.additions >>>= 1;
+    }
+
+    private final int indexOf(final int hash, final int i) {
+      long h = (hash + SEEDS[i]) * SEEDS[i];
+      h += h >>> 32;
+      return (int)h & (this.table.length - 1);
+    }
+
+    private static final int spread(final int hash) {
+      final int h = hash * 0x9e3779b9;
+      return h ^ (h >>> 16);
+    }
+
+  }
+
+}
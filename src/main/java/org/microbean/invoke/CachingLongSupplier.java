@@ -0,0 +1,135 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+import java.util.function.LongSupplier;
+
+/**
+ * An {@link OptionalLongSupplier} that, like {@link CachingSupplier}, computes its value once, using a delegate {@link
+ * LongSupplier}, and then supplies it forever without boxing it.
+ *
+ * <p>The computed value is held in an {@link OptionalLong} published through a single field, so the hot path is one
+ * load with acquire semantics and no allocation.  Absence is not cached.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see CachingSupplier
+ */
+public final class CachingLongSupplier extends CachingPrimitiveSupplier<OptionalLong> implements OptionalLongSupplier {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalLongSupplier delegate;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link CachingLongSupplier}.
+   *
+   * @param supplier the {@link LongSupplier} that will compute the value; must not be {@code null}; <strong>must be
+   * safe for concurrent use by multiple threads and must be side-effect free</strong>
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   */
+  public CachingLongSupplier(final LongSupplier supplier) {
+    super();
+    this.delegate = OptionalLongSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the value this {@link CachingLongSupplier} will forever supply, computing it first if necessary.
+   *
+   * @return the value
+   *
+   * @exception NoSuchElementException if the delegate {@link LongSupplier} indicates absence
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link LongSupplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalLongSupplier
+  public final long getAsLong() {
+    final OptionalLong optional = this.cached();
+    if (optional.isEmpty()) {
+      throw Absence.noSuchElementException();
+    }
+    return optional.getAsLong();
+  }
+
+  /**
+   * Returns the value this {@link CachingLongSupplier} will forever supply, computing it first if necessary, or, if the
+   * delegate {@link LongSupplier} indicates absence, the supplied {@code other} value.
+   *
+   * @param other the alternate value
+   *
+   * @return the value, or {@code other}
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link LongSupplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalLongSupplier
+  public final long orElse(final long other) {
+    final OptionalLong optional = this.cached();
+    return optional.isPresent() ? optional.getAsLong() : other;
+  }
+
+  /**
+   * Returns an {@link OptionalLong} holding the value this {@link CachingLongSupplier} will forever supply, computing
+   * it first if necessary, or an empty {@link OptionalLong} if the delegate {@link LongSupplier} indicates absence.
+   *
+   * <p>Once the value has been computed, this method neither allocates nor throws.</p>
+   *
+   * @return an {@link OptionalLong}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link LongSupplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalLongSupplier
+  public final OptionalLong optional() {
+    return this.cached();
+  }
+
+  @Override // CachingPrimitiveSupplier<OptionalLong>
+  final OptionalLong compute() {
+    return this.delegate.optional();
+  }
+
+  @Override // CachingPrimitiveSupplier<OptionalLong>
+  final boolean present(final OptionalLong optional) {
+    return optional.isPresent();
+  }
+
+}
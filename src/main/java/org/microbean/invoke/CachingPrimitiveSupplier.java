@@ -0,0 +1,116 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * The machinery shared by {@link CachingIntSupplier}, {@link CachingLongSupplier} and {@link CachingDoubleSupplier}:
+ * an immutable, present optional value published once through a single field.
+ *
+ * <p>The hot path is one load with acquire semantics and no allocation.  Subclasses are consulted, to compute the
+ * optional value and to find out whether it is present, only until a present value has been published.  Absence is not
+ * cached.</p>
+ *
+ * @param <O> the type of the optional value, such as {@link java.util.OptionalInt}
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see CachingSupplier
+ */
+abstract class CachingPrimitiveSupplier<O> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final VarHandle OPTIONAL;
+
+  static {
+    try {
+      OPTIONAL = MethodHandles.lookup().findVarHandle(CachingPrimitiveSupplier.class, "optional", Object.class);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw (ExceptionInInitializerError)new ExceptionInInitializerError(e.getMessage()).initCause(e);
+    }
+  }
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  // Accessed only via OPTIONAL.  null means "not yet computed"; otherwise a present optional value of type O.
+  private Object optional;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  CachingPrimitiveSupplier() {
+    super();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns {@link Determinism#PRESENT} if the value has been computed, or {@link Determinism#DETERMINISTIC} otherwise.
+   *
+   * @return {@link Determinism#PRESENT} or {@link Determinism#DETERMINISTIC}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public final Determinism determinism() {
+    return OPTIONAL.getAcquire(this) == null ? Determinism.DETERMINISTIC : Determinism.PRESENT;
+  }
+
+  // Returns the published optional value, computing and publishing it first if necessary.  Only the first present
+  // value ever computed is published.
+  @SuppressWarnings("unchecked")
+  final O cached() {
+    O optional = (O)OPTIONAL.getAcquire(this);
+    if (optional == null) {
+      optional = this.compute();
+      if (this.present(optional)) {
+        final O witness = (O)OPTIONAL.compareAndExchange(this, null, optional);
+        if (witness != null) {
+          optional = witness;
+        }
+      }
+    }
+    return optional;
+  }
+
+  // Computes the optional value using the delegate.
+  abstract O compute();
+
+  // Returns true if the supplied optional value, returned by compute(), is present.
+  abstract boolean present(final O optional);
+
+}
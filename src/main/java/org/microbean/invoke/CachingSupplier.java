@@ -16,11 +16,18 @@
  */
 package org.microbean.invoke;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import java.time.Duration;
+
 import java.util.NoSuchElementException;
-import java.util.Optional;
+import java.util.Objects;
 
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 /**
@@ -39,21 +46,97 @@ import java.util.function.Supplier;
  *
  * @see #CachingSupplier(Supplier)
  *
+ * @see #CachingSupplier(Supplier, boolean)
+ *
+ * @see #CachingSupplier(Supplier, boolean, Duration, Duration, LongSupplier)
+ *
  * @see #get()
  *
  * @see #set(Object)
+ *
+ * @see #invalidate()
  */
 public final class CachingSupplier<T> implements OptionalSupplier<T> {
 
 
+  /*
+   * Static fields.
+   */
+
+
+  // Stands in for a computed (or set) null value in the value field, since null in that field means "not yet
+  // computed".  Using the field's default value for "not yet computed" means that even a racy publication of a
+  // CachingSupplier can never be mistaken for one that has been computed.
+  private static final Object NULL = new Object();
+
+  // The outcome of a single-flight attempt that indicated absence.
+  private static final Object ABSENT = new Object();
+
+  private static final VarHandle VALUE;
+
+  private static final VarHandle ATTEMPTS;
+
+  private static final VarHandle FAILURE;
+
+  private static final VarHandle GENERATION;
+
+  private static final VarHandle CHANGE_LISTENERS;
+
+  static {
+    try {
+      VALUE = MethodHandles.lookup().findVarHandle(CachingSupplier.class, "value", Object.class);
+      ATTEMPTS = MethodHandles.lookup().findVarHandle(CachingSupplier.class, "attempts", long.class);
+      FAILURE = MethodHandles.lookup().findVarHandle(CachingSupplier.class, "failure", Failure.class);
+      GENERATION = MethodHandles.lookup().findVarHandle(CachingSupplier.class, "generation", long.class);
+      CHANGE_LISTENERS =
+        MethodHandles.lookup().findVarHandle(CachingSupplier.class, "changeListeners", ChangeListeners.class);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw (ExceptionInInitializerError)new ExceptionInInitializerError(e.getMessage()).initCause(e);
+    }
+  }
+
+
   /*
    * Instance fields.
    */
 
 
-  private final Supplier<? extends T> delegate;
+  private final OptionalSupplier<T> delegate;
+
+  private final Lock lock;
+
+  private final long initialBackoff;
+
+  private final long maximumBackoff;
+
+  // null when failures are not cached.
+  private final LongSupplier ticker;
+
+  // Whether invalidate() is permitted.  An invalidatable CachingSupplier may change its value at any time, so it can
+  // never promise, via determinism(), that it will not.
+  private final boolean invalidatable;
+
+  // Accessed only via VALUE.  null means "not yet computed"; an Unset means "not yet computed since an invalidation";
+  // NULL means "computed, and null"; anything else is the computed value.  Each invalidation installs a new Unset, so a
+  // computation can publish its value only if the marker it started from is still in place.
+  private Object value;
+
+  // Accessed only via FAILURE.  Consulted only on the slow path, and only when failures are cached.
+  private Failure failure;
+
+  // Accessed only via ATTEMPTS.  The number of single-flight attempts that have finished.  Written only with the lock
+  // held.
+  private long attempts;
 
-  private final AtomicReference<Optional<T>> ref;
+  // Guarded by lock.  The outcome of the last single-flight attempt: ABSENT, the RuntimeException it threw, or null if
+  // it published a value or threw nothing that can be shared.
+  private Object outcome;
+
+  // Accessed only via GENERATION.  The number of times this CachingSupplier has been invalidated.
+  private long generation;
+
+  // Accessed only via CHANGE_LISTENERS.  null until something first listens for changes.
+  private ChangeListeners changeListeners;
 
 
   /*
@@ -69,9 +152,6 @@ public final class CachingSupplier<T> implements OptionalSupplier<T> {
    * @see #get()
    *
    * @see #set(Object)
-   *
-   * @see
-   * AtomicReference#updateAndGet(java.util.function.UnaryOperator)
    */
   public CachingSupplier() {
     this((Supplier<? extends T>)null);
@@ -81,7 +161,8 @@ public final class CachingSupplier<T> implements OptionalSupplier<T> {
    * Creates a new {@link CachingSupplier}.
    *
    * <p>An invocation of this constructor will result in the {@link
-   * #set(Object)} method always returning {@code false}.</p>
+   * #set(Object)} method returning {@code false} until this {@link
+   * CachingSupplier} is {@linkplain #invalidate() invalidated}.</p>
    *
    * @param value the value that will be returned by all invocations
    * of the {@link #get()} method; may be {@code null} in which case
@@ -91,9 +172,13 @@ public final class CachingSupplier<T> implements OptionalSupplier<T> {
    */
   public CachingSupplier(final T value) {
     super();
-    final Optional<T> optional = Optional.ofNullable(value);
-    this.ref = new AtomicReference<>(optional);
-    this.delegate = OptionalSupplier.of(optional.orElse(null));
+    this.value = value == null ? NULL : value;
+    this.delegate = OptionalSupplier.of(value);
+    this.lock = null;
+    this.initialBackoff = 0L;
+    this.maximumBackoff = 0L;
+    this.ticker = null;
+    this.invalidatable = false;
   }
 
   /**
@@ -108,11 +193,134 @@ public final class CachingSupplier<T> implements OptionalSupplier<T> {
    * side-effect free</strong>
    *
    * @see #get()
+   *
+   * @see #CachingSupplier(Supplier, boolean)
    */
   public CachingSupplier(final Supplier<? extends T> supplier) {
+    this(supplier, false);
+  }
+
+  /**
+   * Creates a new {@link CachingSupplier}.
+   *
+   * <p>If {@code singleFlight} is {@code true}, then at most one
+   * thread at a time will invoke the {@link Supplier#get()} method of
+   * the supplied {@code supplier}; other threads requiring the value
+   * will wait, without pinning any carrier thread, until it has been
+   * published, and will then return it without invoking the supplied
+   * {@code supplier}.  If instead the attempt that was in flight
+   * while they waited indicates absence, or fails, they share that
+   * outcome, again without invoking the supplied {@code supplier}:
+   * absence is indicated to each of them, and a failure is reported
+   * to each of them as a new {@link IllegalStateException} whose
+   * {@linkplain Throwable#getCause() cause} is that failure.  This is
+   * appropriate for expensive {@link Supplier}s.  If {@code
+   * singleFlight} is {@code false}, then racing threads may each
+   * invoke the supplied {@code supplier}, and all but one of the
+   * results will be discarded.</p>
+   *
+   * @param supplier the {@link Supplier} that will be used to supply
+   * the value that will be returned by all invocations of the {@link
+   * #get()} method; may be {@code null} in which case the {@link
+   * #get()} method will throw a {@link NoSuchElementException} until,
+   * at least, the {@link #set(Object)} method is called; <strong>must
+   * be safe for concurrent use by multiple threads and must be
+   * side-effect free</strong>
+   *
+   * @param singleFlight whether at most one thread at a time should
+   * invoke the supplied {@code supplier}
+   *
+   * @see #get()
+   *
+   * @see #CachingSupplier(Supplier, boolean, Duration, Duration, LongSupplier)
+   */
+  public CachingSupplier(final Supplier<? extends T> supplier, final boolean singleFlight) {
+    this(supplier, singleFlight && supplier != null ? new ReentrantLock() : null, false);
+  }
+
+  // Package-private so that tests can supply a Lock that reveals when callers have arrived to wait for an attempt.
+  // lock is null if this CachingSupplier is not single-flight.
+  CachingSupplier(final Supplier<? extends T> supplier, final Lock lock, final boolean invalidatable) {
+    super();
+    this.delegate = OptionalSupplier.of(supplier);
+    this.lock = lock;
+    this.initialBackoff = 0L;
+    this.maximumBackoff = 0L;
+    this.ticker = null;
+    this.invalidatable = invalidatable;
+  }
+
+  /**
+   * Creates a new {@link CachingSupplier} that caches failures of the
+   * supplied {@code supplier} for an exponentially growing backoff
+   * period.
+   *
+   * <p>If an invocation of the supplied {@code supplier}'s {@link
+   * Supplier#get()} method throws a {@link RuntimeException},
+   * including a {@link NoSuchElementException} or an {@link
+   * UnsupportedOperationException} indicating absence, then for the
+   * next {@code initialBackoff} the {@link #get()} method will throw
+   * a new {@link NoSuchElementException} if that exception indicated
+   * absence, or otherwise a new {@link IllegalStateException} whose
+   * {@linkplain Throwable#getCause() cause} is that exception, and
+   * the {@link #orElse(Object)} method will return its alternate
+   * value, without invoking the supplied {@code supplier}.  No two
+   * callers are ever thrown the same exception instance.  Each
+   * failure that follows the expiry of a backoff period doubles the
+   * next backoff period, up to {@code maximumBackoff}.  A successful
+   * invocation caches its value forever, as usual.</p>
+   *
+   * <p>Because a {@link CachingSupplier} created by this constructor
+   * may indicate absence for a while and then supply a value, its
+   * {@link #determinism()} method returns {@link
+   * Determinism#NON_DETERMINISTIC} until a value has been cached.</p>
+   *
+   * @param supplier the {@link Supplier} that will be used to supply
+   * the value that will be returned by all invocations of the {@link
+   * #get()} method; must not be {@code null}; <strong>must be safe
+   * for concurrent use by multiple threads and must be side-effect
+   * free</strong>
+   *
+   * @param singleFlight whether at most one thread at a time should
+   * invoke the supplied {@code supplier}
+   *
+   * @param initialBackoff how long the first failure is cached; must
+   * not be {@code null}; must be positive
+   *
+   * @param maximumBackoff the longest that any failure is cached;
+   * must not be {@code null}; must be no less than {@code
+   * initialBackoff}
+   *
+   * @param ticker a {@link LongSupplier} returning a monotonically
+   * increasing number of nanoseconds, such as {@link
+   * System#nanoTime()}; must not be {@code null}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code initialBackoff} is
+   * not positive or {@code maximumBackoff} is less than {@code
+   * initialBackoff}
+   *
+   * @see #CachingSupplier(Supplier, boolean)
+   */
+  public CachingSupplier(final Supplier<? extends T> supplier,
+                         final boolean singleFlight,
+                         final Duration initialBackoff,
+                         final Duration maximumBackoff,
+                         final LongSupplier ticker) {
     super();
-    this.ref = new AtomicReference<>();
-    this.delegate = supplier == null ? CachingSupplier::noSuchElementException : supplier;
+    this.delegate = OptionalSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+    this.lock = singleFlight ? new ReentrantLock() : null;
+    this.initialBackoff = initialBackoff.toNanos();
+    if (this.initialBackoff <= 0L) {
+      throw new IllegalArgumentException("initialBackoff: " + initialBackoff);
+    }
+    this.maximumBackoff = maximumBackoff.toNanos();
+    if (this.maximumBackoff < this.initialBackoff) {
+      throw new IllegalArgumentException("maximumBackoff: " + maximumBackoff);
+    }
+    this.ticker = Objects.requireNonNull(ticker, "ticker");
+    this.invalidatable = false;
   }
 
 
@@ -152,23 +360,164 @@ public final class CachingSupplier<T> implements OptionalSupplier<T> {
    */
   @Override // Supplier<T>
   public final T get() {
-    Optional<T> optional = this.ref.get();
-    if (optional == null) {
-      optional = Optional.ofNullable(this.delegate.get());
-      if (!this.ref.compareAndSet(null, optional)) {
-        optional = this.ref.get();
+    Object value = VALUE.getAcquire(this);
+    if (unset(value)) {
+      value = this.load(value, false);
+      if (value == null) {
+        // Absence shared from a single-flight attempt, or a cached absence whose backoff period has not yet expired.
+        throw Absence.noSuchElementException();
+      }
+    }
+    return unwrap(value);
+  }
+
+  /**
+   * Returns the value this {@link CachingSupplier} will forever
+   * supply, computing it if necessary in the same manner as the
+   * {@link #get()} method, or, if the {@link Supplier} supplied at
+   * {@linkplain #CachingSupplier(Supplier) construction time}
+   * indicates absence, returns the supplied {@code other} value,
+   * without throwing any exception.
+   *
+   * <p>Absence is not cached.</p>
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the value, which may very well be {@code null}, or
+   * {@code other}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method's idempotency and determinism are
+   * determined by the idempotency and determinisim of the {@link
+   * Supplier} supplied at {@linkplain #CachingSupplier(Supplier)
+   * construction time}.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #get()
+   */
+  @Override // OptionalSupplier<T>
+  public final T orElse(final T other) {
+    Object value = VALUE.getAcquire(this);
+    if (unset(value)) {
+      value = this.load(value, true);
+      if (value == null) {
+        return other;
+      }
+    }
+    return unwrap(value);
+  }
+
+  // Computes, publishes and returns the value using the delegate, or, if probe is true, or if the delegate's absence
+  // has been cached or shared, returns null.  In single-flight mode, only one thread at a time computes, and threads
+  // that waited for an attempt that did not publish a value share its outcome.  marker is the unset marker (null or an
+  // Unset) the caller observed.
+  private final Object load(final Object marker, final boolean probe) {
+    if (this.lock == null) {
+      return this.compute(marker, probe);
+    }
+    final long attempts = (long)ATTEMPTS.getAcquire(this);
+    this.lock.lock();
+    try {
+      final Object value = VALUE.getAcquire(this);
+      if (!unset(value)) {
+        return value;
+      }
+      if ((long)ATTEMPTS.getAcquire(this) != attempts) {
+        // An attempt that was in flight while this thread waited finished without publishing a value.
+        final Object outcome = this.outcome;
+        if (outcome == ABSENT) {
+          return null;
+        } else if (outcome instanceof RuntimeException e) {
+          if (absence(e)) {
+            return null;
+          }
+          throw new IllegalStateException(e.getMessage(), e);
+        }
+        // The attempt's value was not published because of an invalidation; this thread computes afresh.
+      }
+      try {
+        return this.compute(value, probe);
+      } finally {
+        ATTEMPTS.setRelease(this, (long)ATTEMPTS.getAcquire(this) + 1L);
       }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private final Object compute(final Object marker, final boolean probe) {
+    final Failure f;
+    if (this.ticker == null) {
+      f = null;
+    } else {
+      f = (Failure)FAILURE.getAcquire(this);
+      if (f != null && f.until - this.ticker.getAsLong() > 0L) {
+        // A failure is cached and its backoff period has not yet elapsed.
+        if (probe || f.exception == null || absence(f.exception)) {
+          return null;
+        }
+        throw new IllegalStateException(f.exception.getMessage(), f.exception);
+      }
+    }
+    if (this.lock != null) {
+      this.outcome = null;
+    }
+    final T value;
+    try {
+      value = probe ? this.delegate.orElse(Absence.token()) : this.delegate.get();
+    } catch (final RuntimeException e) {
+      if (this.ticker != null) {
+        this.fail(f, e);
+      }
+      if (this.lock != null) {
+        this.outcome = e;
+      }
+      throw e;
+    }
+    if (Absence.isToken(value)) {
+      if (this.ticker != null) {
+        this.fail(f, null);
+      }
+      if (this.lock != null) {
+        this.outcome = ABSENT;
+      }
+      return null;
+    } else if (f != null) {
+      FAILURE.compareAndSet(this, f, null);
+    }
+    final Object wrapped = value == null ? NULL : value;
+    final Object witness = VALUE.compareAndExchange(this, marker, wrapped);
+    if (witness == marker) {
+      this.changed();
+    }
+    // If witness is a different unset marker then this CachingSupplier was invalidated while the value was being
+    // computed.  The value belongs to an older generation, so it is returned to this caller but not published.
+    return witness == marker || unset(witness) ? wrapped : witness;
+  }
+
+  private final void fail(final Failure previous, final RuntimeException exception) {
+    final long backoff;
+    if (previous == null) {
+      backoff = this.initialBackoff;
+    } else if (previous.backoff > this.maximumBackoff / 2L) {
+      backoff = this.maximumBackoff;
+    } else {
+      backoff = previous.backoff * 2L;
     }
-    return optional.orElse(null);
+    FAILURE.setRelease(this, new Failure(exception, this.ticker.getAsLong() + backoff, backoff));
   }
 
   /**
-   * Sets the value that will be returned forever afterwards by the
-   * {@link #get()} method and returns {@code true} if and only if the
-   * value was previously unset.
+   * Sets the value that will be returned forever afterwards, or until
+   * the next {@linkplain #invalidate() invalidation}, by the {@link
+   * #get()} method and returns {@code true} if and only if the value
+   * was previously unset.
    *
    * @param newValue the new value that will be returned by the {@link
-   * #get()} method forever afterwards; may be {@code null}
+   * #get()} method; may be {@code null}
    *
    * @return {@code true} if and only if this assignment was permitted;
    * {@code false} otherwise
@@ -182,25 +531,130 @@ public final class CachingSupplier<T> implements OptionalSupplier<T> {
    *
    * @see #CachingSupplier(Supplier)
    *
-   * @see AtomicReference#compareAndSet(Object, Object)
+   * @see VarHandle#compareAndSet(Object...)
    */
   public final boolean set(final T newValue) {
-    return this.ref.compareAndSet(null, Optional.ofNullable(newValue));
+    final Object wrapped = newValue == null ? NULL : newValue;
+    Object value = VALUE.getAcquire(this);
+    while (unset(value)) {
+      final Object witness = VALUE.compareAndExchange(this, value, wrapped);
+      if (witness == value) {
+        this.changed();
+        return true;
+      }
+      value = witness;
+    }
+    return false;
+  }
+
+  /**
+   * Discards any value this {@link CachingSupplier} has cached, and
+   * any failure it has cached, so that the next invocation of the
+   * {@link #get()} method will compute a new one, and returns the new
+   * {@linkplain #generation() generation}.
+   *
+   * <p>Readers never take a lock.  A computation that was begun before
+   * an invocation of this method will return its value to the thread
+   * that requested it but will not publish it, so a value from an
+   * older generation never overwrites a newer one.</p>
+   *
+   * <p>Only a {@link CachingSupplier} created by one of the {@link
+   * #invalidatable(Supplier, boolean)} methods may be invalidated.</p>
+   *
+   * @return the new generation; always positive
+   *
+   * @exception IllegalStateException if this {@link CachingSupplier}
+   * was not created by one of the {@link #invalidatable(Supplier,
+   * boolean)} methods
+   *
+   * @idempotency This method is neither idempotent nor deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #generation()
+   *
+   * @see #invalidateAll(Iterable)
+   */
+  public final long invalidate() {
+    if (!this.invalidatable) {
+      throw new IllegalStateException("not invalidatable");
+    }
+    final long generation = (long)GENERATION.getAndAdd(this, 1L) + 1L;
+    FAILURE.setRelease(this, null);
+    VALUE.setRelease(this, new Unset(generation));
+    this.changed();
+    return generation;
+  }
+
+  /**
+   * Returns the number of times this {@link CachingSupplier} has been
+   * {@linkplain #invalidate() invalidated}.
+   *
+   * @return the number of times this {@link CachingSupplier} has been
+   * {@linkplain #invalidate() invalidated}; never negative
+   *
+   * @idempotency This method is idempotent but not deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #invalidate()
+   */
+  public final long generation() {
+    return (long)GENERATION.getAcquire(this);
+  }
+
+  // Returns the published value, or other if there is none, without computing anything.  For BatchLoader.
+  final T peek(final T other) {
+    final Object value = VALUE.getAcquire(this);
+    return unset(value) ? other : unwrap(value);
+  }
+
+  // Returns the ChangeListeners for this CachingSupplier, creating them if necessary.  For OptionalSupplierPublisher.
+  final ChangeListeners changeListeners() {
+    final ChangeListeners c = (ChangeListeners)CHANGE_LISTENERS.getAcquire(this);
+    if (c != null) {
+      return c;
+    }
+    final ChangeListeners n = new ChangeListeners();
+    final ChangeListeners witness = (ChangeListeners)CHANGE_LISTENERS.compareAndExchange(this, null, n);
+    return witness == null ? n : witness;
+  }
+
+  private final void changed() {
+    final ChangeListeners c = (ChangeListeners)CHANGE_LISTENERS.getAcquire(this);
+    if (c != null) {
+      c.changed();
+    }
   }
 
   /**
    * Returns an {@link Determinism} suitable for this {@link CachingSupplier}.
    *
    * <p>In most cases, this method returns {@link
-   * Determinism#PRESENT}.  In the case that the {@linkplain
+   * Determinism#PRESENT}.  If this {@link CachingSupplier} was
+   * created by the {@link #CachingSupplier(Supplier, boolean,
+   * Duration, Duration, LongSupplier)} constructor, then until a
+   * value has been cached this method returns {@link
+   * Determinism#NON_DETERMINISTIC}, since absence may be
+   * transitory.  In the case that the {@linkplain
    * #CachingSupplier() zero-argument constructor} was invoked, and
    * the {@link #set(Object)} method has not yet been called, this
    * method will return {@link Determinism#DETERMINISTIC}.  Once the
    * {@link #set(Object)} method has been called, this method will
    * return {@link Determinism#PRESENT}.</p>
    *
-   * @return one of {@link Determinism#PRESENT} or {@link
-   * Determinism#DETERMINISTIC}
+   * <p>If this {@link CachingSupplier} was created by one of the
+   * {@link #invalidatable(Supplier, boolean)} methods, this method
+   * always returns {@link Determinism#NON_DETERMINISTIC}, since its
+   * value may be discarded and replaced at any time.  Composite
+   * {@link OptionalSupplier}s that remember the outcomes of
+   * deterministic suppliers therefore never remember its value.</p>
+   *
+   * @return one of {@link Determinism#PRESENT}, {@link
+   * Determinism#DETERMINISTIC} or {@link
+   * Determinism#NON_DETERMINISTIC}
    *
    * @nullability This method does not return {@code null}.
    *
@@ -211,7 +665,13 @@ public final class CachingSupplier<T> implements OptionalSupplier<T> {
    */
   @Override
   public final Determinism determinism() {
-    return this.ref.get() == null ? Determinism.DETERMINISTIC : Determinism.PRESENT;
+    if (this.invalidatable) {
+      return Determinism.NON_DETERMINISTIC;
+    }
+    if (VALUE.getAcquire(this) != null) {
+      return Determinism.PRESENT;
+    }
+    return this.ticker == null ? Determinism.DETERMINISTIC : Determinism.NON_DETERMINISTIC;
   }
 
   /**
@@ -246,8 +706,158 @@ public final class CachingSupplier<T> implements OptionalSupplier<T> {
    */
 
 
-  private static final <T> T noSuchElementException() {
-    throw new NoSuchElementException();
+  /**
+   * {@linkplain #invalidate() Invalidates} each of the supplied {@link
+   * CachingSupplier}s.
+   *
+   * @param suppliers the {@link CachingSupplier}s to invalidate; must
+   * not be {@code null}; must not contain {@code null} elements
+   *
+   * @exception NullPointerException if {@code suppliers} is {@code
+   * null} or contains {@code null} elements
+   *
+   * @exception IllegalStateException if any of the supplied {@link
+   * CachingSupplier}s is not invalidatable
+   *
+   * @idempotency This method is neither idempotent nor deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads, provided that {@code suppliers} is not modified
+   * concurrently.
+   *
+   * @see #invalidate()
+   */
+  public static final void invalidateAll(final Iterable<? extends CachingSupplier<?>> suppliers) {
+    for (final CachingSupplier<?> s : suppliers) {
+      s.invalidate();
+    }
+  }
+  /**
+   * Returns a new {@link CachingSupplier} that caches the value
+   * supplied by the supplied {@link Supplier} until it is
+   * {@linkplain #invalidate() invalidated}.
+   *
+   * @param <T> the type of value the returned {@link CachingSupplier}
+   * will {@linkplain #get() supply}
+   *
+   * @param supplier the {@link Supplier} that will be used to supply
+   * values; may be {@code null} in which case the {@link #get()}
+   * method will throw a {@link NoSuchElementException} until, at
+   * least, the {@link #set(Object)} method is called; <strong>must be
+   * safe for concurrent use by multiple threads and must be
+   * side-effect free</strong>
+   *
+   * @return a new, invalidatable {@link CachingSupplier}; never
+   * {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #invalidatable(Supplier, boolean)
+   */
+  public static final <T> CachingSupplier<T> invalidatable(final Supplier<? extends T> supplier) {
+    return invalidatable(supplier, false);
+  }
+
+  /**
+   * Returns a new {@link CachingSupplier} that caches the value
+   * supplied by the supplied {@link Supplier} until it is
+   * {@linkplain #invalidate() invalidated}.
+   *
+   * <p>Because its value may be replaced at any time, the {@link
+   * #determinism()} method of the returned {@link CachingSupplier}
+   * always returns {@link Determinism#NON_DETERMINISTIC}.</p>
+   *
+   * @param <T> the type of value the returned {@link CachingSupplier}
+   * will {@linkplain #get() supply}
+   *
+   * @param supplier the {@link Supplier} that will be used to supply
+   * values; may be {@code null} in which case the {@link #get()}
+   * method will throw a {@link NoSuchElementException} until, at
+   * least, the {@link #set(Object)} method is called; <strong>must be
+   * safe for concurrent use by multiple threads and must be
+   * side-effect free</strong>
+   *
+   * @param singleFlight whether at most one thread at a time should
+   * invoke the supplied {@code supplier}
+   *
+   * @return a new, invalidatable {@link CachingSupplier}; never
+   * {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #CachingSupplier(Supplier, boolean)
+   *
+   * @see #invalidate()
+   */
+  public static final <T> CachingSupplier<T> invalidatable(final Supplier<? extends T> supplier,
+                                                           final boolean singleFlight) {
+    return new CachingSupplier<>(supplier, singleFlight && supplier != null ? new ReentrantLock() : null, true);
+  }
+
+
+  // Returns true if the supplied exception, thrown by the delegate, indicates absence.
+  private static final boolean absence(final RuntimeException e) {
+    return e instanceof NoSuchElementException || e instanceof UnsupportedOperationException;
+  }
+
+  private static final boolean unset(final Object value) {
+    return value == null || value instanceof Unset;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static final <T> T unwrap(final Object value) {
+    return value == NULL ? null : (T)value;
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class Failure {
+
+    // null if absence was indicated without an exception
+    private final RuntimeException exception;
+
+    private final long until;
+
+    private final long backoff;
+
+    private Failure(final RuntimeException exception, final long until, final long backoff) {
+      super();
+      this.exception = exception;
+      this.until = until;
+      this.backoff = backoff;
+    }
+
+  }
+
+  // An unset marker installed by an invalidation.  Each invalidation installs a distinct instance.
+  private static final class Unset {
+
+    private final long generation;
+
+    private Unset(final long generation) {
+      super();
+      this.generation = generation;
+    }
+
+    @Override // Object
+    public final String toString() {
+      return "unset (generation " + this.generation + ")";
+    }
+
   }
 
 }
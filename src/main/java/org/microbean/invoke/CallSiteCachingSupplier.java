@@ -0,0 +1,269 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.ConstantCallSite;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.invoke.VarHandle;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.function.Supplier;
+
+/**
+ * An {@link OptionalSupplier} that, like {@link CachingSupplier}, computes its value once, but that then publishes it
+ * by rebinding a {@link MutableCallSite} to a {@linkplain MethodHandles#constant(Class, Object) constant
+ * <code>MethodHandle</code>}, so that the JIT compiler can treat the value as a true constant.
+ *
+ * <p>The JIT compiler can fold the value only where it can see the {@linkplain #dynamicInvoker() dynamic invoker} as a
+ * constant: when it is the target of a {@link ConstantCallSite}, such as the one returned by {@link
+ * BootstrapMethods#findCachingStaticCallSite(java.lang.invoke.MethodHandles.Lookup, String, MethodType, Class)} for an
+ * {@code invokedynamic} instruction, or when it is held in a {@code static final} {@link MethodHandle} field and
+ * invoked with {@link MethodHandle#invokeExact(Object...)}.  Callers that want the value folded should use it in one of
+ * these ways.</p>
+ *
+ * <p>The {@link #get()} and {@link #orElse(Object)} methods do not use the call site at all.  The JIT compiler does not
+ * trust instance fields to be constant, even {@code final} ones, so invoking a {@link MethodHandle} held in one cannot
+ * be folded, even when the {@link CallSiteCachingSupplier} itself is held in a {@code static final} field; it is merely
+ * a slower indirect call.  These methods instead read the computed value from a field, as {@link CachingSupplier}
+ * does.</p>
+ *
+ * <p>At most one thread at a time invokes the delegate {@link Supplier}.  Absence is not cached.</p>
+ *
+ * @param <T> the type of value this {@link CallSiteCachingSupplier} {@linkplain #get() supplies}
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #dynamicInvoker()
+ *
+ * @see CachingSupplier
+ */
+public final class CallSiteCachingSupplier<T> implements OptionalSupplier<T> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  // Returned by the unbound call site's target to indicate absence.  Never bound as a constant.
+  private static final Object ABSENT = new Object();
+
+  private static final MethodType TYPE = MethodType.methodType(Object.class);
+
+  private static final MethodHandle LOAD;
+
+  private static final MethodHandle CHECK;
+
+  // Stands in for a computed null value in the value field.
+  private static final Object NULL = new Object();
+
+  private static final VarHandle VALUE;
+
+  static {
+    try {
+      final MethodHandles.Lookup lookup = MethodHandles.lookup();
+      LOAD = lookup.findVirtual(CallSiteCachingSupplier.class, "load", TYPE);
+      CHECK = lookup.findStatic(CallSiteCachingSupplier.class, "check", TYPE.appendParameterTypes(Object.class));
+      VALUE = lookup.findVarHandle(CallSiteCachingSupplier.class, "value", Object.class);
+    } catch (final NoSuchFieldException | NoSuchMethodException | IllegalAccessException e) {
+      throw (ExceptionInInitializerError)new ExceptionInInitializerError(e.getMessage()).initCause(e);
+    }
+  }
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalSupplier<T> delegate;
+
+  private final Lock lock;
+
+  // Until the value is computed, its target is LOAD bound to this; afterwards it is a constant MethodHandle.
+  private final MutableCallSite callSite;
+
+  private final MethodHandle checkedInvoker;
+
+  // Accessed only via VALUE.  null until the value is computed; then the value, or NULL.  Written only with the lock
+  // held.
+  private Object value;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link CallSiteCachingSupplier}.
+   *
+   * @param supplier the {@link Supplier} that will compute the value; must not be {@code null}; <strong>must be safe
+   * for concurrent use by multiple threads and must be side-effect free</strong>
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   */
+  public CallSiteCachingSupplier(final Supplier<? extends T> supplier) {
+    super();
+    this.delegate = OptionalSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+    this.lock = new ReentrantLock();
+    this.callSite = new MutableCallSite(LOAD.bindTo(this));
+    this.checkedInvoker = MethodHandles.filterReturnValue(this.callSite.dynamicInvoker(), CHECK);
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns {@link Determinism#PRESENT} if the value has been computed, or {@link Determinism#DETERMINISTIC} otherwise.
+   *
+   * @return {@link Determinism#PRESENT} or {@link Determinism#DETERMINISTIC}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final Determinism determinism() {
+    return VALUE.getAcquire(this) == null ? Determinism.DETERMINISTIC : Determinism.PRESENT;
+  }
+
+  /**
+   * Returns the value this {@link CallSiteCachingSupplier} will forever supply, computing it if necessary with the
+   * first invocation by using the {@link Supplier} supplied at {@linkplain #CallSiteCachingSupplier(Supplier)
+   * construction time}.
+   *
+   * @return the value, which may be {@code null}
+   *
+   * @exception NoSuchElementException if the delegate {@link Supplier} indicates absence
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link Supplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  @SuppressWarnings("unchecked")
+  public final T get() {
+    Object value = VALUE.getAcquire(this);
+    if (value == null) {
+      value = this.load();
+      if (value == ABSENT) {
+        throw Absence.noSuchElementException();
+      }
+      return (T)value;
+    }
+    return value == NULL ? null : (T)value;
+  }
+
+  /**
+   * Returns the value this {@link CallSiteCachingSupplier} will forever supply, computing it if necessary in the same
+   * manner as the {@link #get()} method, or, if the delegate {@link Supplier} indicates absence, returns the supplied
+   * {@code other} value, without throwing any exception to do so.
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the value, which may be {@code null}, or {@code other}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link Supplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  @SuppressWarnings("unchecked")
+  public final T orElse(final T other) {
+    Object value = VALUE.getAcquire(this);
+    if (value == null) {
+      value = this.load();
+      return value == ABSENT ? other : (T)value;
+    }
+    return value == NULL ? null : (T)value;
+  }
+
+  /**
+   * Returns a {@link MethodHandle} of type {@code ()Object} that behaves like the {@link #get()} method, but that
+   * invokes the underlying {@link MutableCallSite} directly, suitable for use as, or as part of, the target of a {@link
+   * CallSite}, or for storing in a {@code static final} field.  Only invocations through this {@link MethodHandle} can
+   * have the value folded into compiled code.
+   *
+   * @return a {@link MethodHandle} of type {@code ()Object}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see MutableCallSite#dynamicInvoker()
+   */
+  public final MethodHandle dynamicInvoker() {
+    return this.checkedInvoker;
+  }
+
+  // The target of the call site until the value has been computed, and the slow path of get() and orElse(Object).
+  // Returns the value or ABSENT.
+  private final Object load() {
+    this.lock.lock();
+    try {
+      final Object published = VALUE.getAcquire(this);
+      if (published != null) {
+        // Another thread has computed the value, and perhaps rebound the call site, but this thread invoked its
+        // previous target or had not yet seen the value.
+        return published == NULL ? null : published;
+      }
+      final T value = this.delegate.orElse(Absence.token());
+      if (Absence.isToken(value)) {
+        return ABSENT;
+      }
+      VALUE.setRelease(this, value == null ? NULL : value);
+      // Threads that have not yet seen the new target will call load() and return the value above, so there is no need
+      // to incur the cost of MutableCallSite.syncAll(MutableCallSite[]).
+      this.callSite.setTarget(MethodHandles.constant(Object.class, value));
+      return value;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  private static final Object check(final Object value) {
+    if (value == ABSENT) {
+      throw Absence.noSuchElementException();
+    }
+    return value;
+  }
+
+}
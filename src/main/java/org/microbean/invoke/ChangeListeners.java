@@ -0,0 +1,76 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A registry of {@link Runnable} listeners that a refreshable or invalidatable {@link OptionalSupplier} runs whenever
+ * the value it would supply may have changed.
+ *
+ * <p>Listeners are told only that a change may have happened, not what changed, so that bursts of changes can be
+ * coalesced.  They are run on the thread that made the change, sometimes while it holds a lock, so they must be quick
+ * and must not block.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see OptionalSupplierPublisher
+ */
+final class ChangeListeners {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final CopyOnWriteArrayList<Runnable> listeners;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  ChangeListeners() {
+    super();
+    this.listeners = new CopyOnWriteArrayList<>();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  final void add(final Runnable listener) {
+    this.listeners.add(listener);
+  }
+
+  final void remove(final Runnable listener) {
+    this.listeners.remove(listener);
+  }
+
+  // Runs every listener.  A listener that throws does not prevent the others from running.
+  final void changed() {
+    for (final Runnable listener : this.listeners) {
+      try {
+        listener.run();
+      } catch (final RuntimeException e) {
+        // Listeners are internal and are not expected to throw; the change itself has already happened.
+      }
+    }
+  }
+
+}
@@ -0,0 +1,975 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An {@link OptionalSupplier} that combines the values supplied by several input {@link Supplier}s into one, and that
+ * indicates absence if any of them does.
+ *
+ * <p>Inputs are consulted in order, and consultation stops at the first input that indicates absence.  The {@linkplain
+ * #determinism() determinism} of a {@link CombiningOptionalSupplier} is derived from those of its inputs: if any input
+ * is {@link Determinism#ABSENT}, no {@link CombiningOptionalSupplier} is created at all and no input is ever called;
+ * if every input is {@link Determinism#PRESENT}, so is the {@link CombiningOptionalSupplier}; if every input is
+ * deterministic, it is {@link Determinism#DETERMINISTIC}; otherwise it is {@link Determinism#NON_DETERMINISTIC}.  When
+ * it is {@link Determinism#PRESENT} or {@link Determinism#DETERMINISTIC}, its outcome is computed once and then
+ * remembered.  If an input becomes {@link Determinism#ABSENT} after construction, absence is indicated, and remembered,
+ * without calling any input.</p>
+ *
+ * <p>Each arity from two to six has its own implementation, which holds its inputs in fields and calls its combining
+ * function directly, so that supplying a value allocates nothing beyond what the inputs and the combining function
+ * do.</p>
+ *
+ * @param <T> the type of value this {@link CombiningOptionalSupplier} {@linkplain #get() supplies}
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #of(Supplier, Supplier, BiFunction)
+ *
+ * @see #of(Function, Supplier...)
+ */
+public abstract class CombiningOptionalSupplier<T> implements OptionalSupplier<T> {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Determinism determinism;
+
+  // null until a memoized outcome has settled.  Immutable, so it is read through a plain field.
+  private Resolution<T> resolution;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private CombiningOptionalSupplier(final Determinism determinism) {
+    super();
+    this.determinism = determinism;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the {@link Determinism} of this {@link CombiningOptionalSupplier}, derived from those of its inputs.
+   *
+   * <p>Once a {@link Determinism#DETERMINISTIC} {@link CombiningOptionalSupplier} has computed its outcome, this method
+   * returns either {@link Determinism#PRESENT} or {@link Determinism#ABSENT}.  Once any input has been found to be
+   * {@link Determinism#ABSENT}, this method returns {@link Determinism#ABSENT}.</p>
+   *
+   * @return the {@link Determinism} of this {@link CombiningOptionalSupplier}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final Determinism determinism() {
+    final Resolution<T> r = this.resolution;
+    return r == null ? this.determinism : r.determinism();
+  }
+
+  /**
+   * Returns the result of combining the values supplied by this {@link CombiningOptionalSupplier}'s inputs.
+   *
+   * @return the combined value, which may be {@code null}
+   *
+   * @exception NoSuchElementException if any input indicates absence
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if every input and the combining function are.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads if the combining function is.
+   */
+  @Override // OptionalSupplier<T>
+  public final T get() {
+    final T value = this.orElse(Absence.token());
+    if (Absence.isToken(value)) {
+      throw Absence.noSuchElementException();
+    }
+    return value;
+  }
+
+  /**
+   * Returns the result of combining the values supplied by this {@link CombiningOptionalSupplier}'s inputs, or, if any
+   * input indicates absence, the supplied {@code other} value, without throwing or catching any exception to do so
+   * unless an input does.
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the combined value, which may be {@code null}, or {@code other}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if every input and the combining function are.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads if the combining function is.
+   */
+  @Override // OptionalSupplier<T>
+  public final T orElse(final T other) {
+    final Resolution<T> r = this.resolution;
+    if (r != null) {
+      return r.orElse(other);
+    } else if (this.settledAbsent()) {
+      // An input has settled since construction, and will indicate absence forever, so this CombiningOptionalSupplier
+      // will too.  Remember that, without calling any input.
+      this.resolution = Resolution.absent();
+      return other;
+    }
+    final T value = this.combine();
+    if (Absence.isToken(value)) {
+      if (this.determinism.deterministic()) {
+        this.resolution = Resolution.absent();
+      }
+      return other;
+    }
+    if (this.determinism.deterministic()) {
+      this.resolution = Resolution.present(value);
+    }
+    return value;
+  }
+
+  // Returns true if any input's determinism is now ABSENT.
+  abstract boolean settledAbsent();
+
+  // Returns the combined value, or the absence token if any input indicates absence.
+  abstract T combine();
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns an {@link OptionalSupplier} that combines the values supplied by the supplied {@link Supplier}s using the
+   * supplied {@link BiFunction}.
+   *
+   * @param <A> the type of the first input
+   *
+   * @param <B> the type of the second input
+   *
+   * @param <T> the type of the combined value
+   *
+   * @param a the first input; must not be {@code null}
+   *
+   * @param b the second input; must not be {@code null}
+   *
+   * @param combiner the combining function; must not be {@code null}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}; {@link Absence#instance()} if any input is {@link
+   * Determinism#ABSENT}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final <A, B, T> OptionalSupplier<T> of(final Supplier<? extends A> a,
+                                                       final Supplier<? extends B> b,
+                                                       final BiFunction<? super A, ? super B, ? extends T> combiner) {
+    Objects.requireNonNull(combiner, "combiner");
+    final OptionalSupplier<A> as = input(a);
+    final OptionalSupplier<B> bs = input(b);
+    final Determinism determinism = determinism(as, bs);
+    return determinism == Determinism.ABSENT ? Absence.instance() : new Combining2<>(determinism, as, bs, combiner);
+  }
+
+  /**
+   * Returns an {@link OptionalSupplier} that combines the values supplied by the supplied {@link Supplier}s using the
+   * supplied {@link Function3}.
+   *
+   * @param <A> the type of the first input
+   *
+   * @param <B> the type of the second input
+   *
+   * @param <C> the type of the third input
+   *
+   * @param <T> the type of the combined value
+   *
+   * @param a the first input; must not be {@code null}
+   *
+   * @param b the second input; must not be {@code null}
+   *
+   * @param c the third input; must not be {@code null}
+   *
+   * @param combiner the combining function; must not be {@code null}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}; {@link Absence#instance()} if any input is {@link
+   * Determinism#ABSENT}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final <A, B, C, T> OptionalSupplier<T> of(final Supplier<? extends A> a,
+                                                          final Supplier<? extends B> b,
+                                                          final Supplier<? extends C> c,
+                                                          final Function3<? super A, ? super B, ? super C,
+                                                                          ? extends T> combiner) {
+    Objects.requireNonNull(combiner, "combiner");
+    final OptionalSupplier<A> as = input(a);
+    final OptionalSupplier<B> bs = input(b);
+    final OptionalSupplier<C> cs = input(c);
+    final Determinism determinism = determinism(as, bs, cs);
+    return
+      determinism == Determinism.ABSENT ? Absence.instance() : new Combining3<>(determinism, as, bs, cs, combiner);
+  }
+
+  /**
+   * Returns an {@link OptionalSupplier} that combines the values supplied by the supplied {@link Supplier}s using the
+   * supplied {@link Function4}.
+   *
+   * @param <A> the type of the first input
+   *
+   * @param <B> the type of the second input
+   *
+   * @param <C> the type of the third input
+   *
+   * @param <D> the type of the fourth input
+   *
+   * @param <T> the type of the combined value
+   *
+   * @param a the first input; must not be {@code null}
+   *
+   * @param b the second input; must not be {@code null}
+   *
+   * @param c the third input; must not be {@code null}
+   *
+   * @param d the fourth input; must not be {@code null}
+   *
+   * @param combiner the combining function; must not be {@code null}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}; {@link Absence#instance()} if any input is {@link
+   * Determinism#ABSENT}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final <A, B, C, D, T> OptionalSupplier<T> of(final Supplier<? extends A> a,
+                                                             final Supplier<? extends B> b,
+                                                             final Supplier<? extends C> c,
+                                                             final Supplier<? extends D> d,
+                                                             final Function4<? super A, ? super B, ? super C,
+                                                                             ? super D, ? extends T> combiner) {
+    Objects.requireNonNull(combiner, "combiner");
+    final OptionalSupplier<A> as = input(a);
+    final OptionalSupplier<B> bs = input(b);
+    final OptionalSupplier<C> cs = input(c);
+    final OptionalSupplier<D> ds = input(d);
+    final Determinism determinism = determinism(as, bs, cs, ds);
+    return
+      determinism == Determinism.ABSENT ? Absence.instance() : new Combining4<>(determinism, as, bs, cs, ds, combiner);
+  }
+
+  /**
+   * Returns an {@link OptionalSupplier} that combines the values supplied by the supplied {@link Supplier}s using the
+   * supplied {@link Function5}.
+   *
+   * @param <A> the type of the first input
+   *
+   * @param <B> the type of the second input
+   *
+   * @param <C> the type of the third input
+   *
+   * @param <D> the type of the fourth input
+   *
+   * @param <E> the type of the fifth input
+   *
+   * @param <T> the type of the combined value
+   *
+   * @param a the first input; must not be {@code null}
+   *
+   * @param b the second input; must not be {@code null}
+   *
+   * @param c the third input; must not be {@code null}
+   *
+   * @param d the fourth input; must not be {@code null}
+   *
+   * @param e the fifth input; must not be {@code null}
+   *
+   * @param combiner the combining function; must not be {@code null}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}; {@link Absence#instance()} if any input is {@link
+   * Determinism#ABSENT}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final <A, B, C, D, E, T> OptionalSupplier<T> of(final Supplier<? extends A> a,
+                                                                final Supplier<? extends B> b,
+                                                                final Supplier<? extends C> c,
+                                                                final Supplier<? extends D> d,
+                                                                final Supplier<? extends E> e,
+                                                                final Function5<? super A, ? super B, ? super C,
+                                                                                ? super D, ? super E,
+                                                                                ? extends T> combiner) {
+    Objects.requireNonNull(combiner, "combiner");
+    final OptionalSupplier<A> as = input(a);
+    final OptionalSupplier<B> bs = input(b);
+    final OptionalSupplier<C> cs = input(c);
+    final OptionalSupplier<D> ds = input(d);
+    final OptionalSupplier<E> es = input(e);
+    final Determinism determinism = determinism(as, bs, cs, ds, es);
+    return determinism == Determinism.ABSENT ?
+      Absence.instance() :
+      new Combining5<>(determinism, as, bs, cs, ds, es, combiner);
+  }
+
+  /**
+   * Returns an {@link OptionalSupplier} that combines the values supplied by the supplied {@link Supplier}s using the
+   * supplied {@link Function6}.
+   *
+   * @param <A> the type of the first input
+   *
+   * @param <B> the type of the second input
+   *
+   * @param <C> the type of the third input
+   *
+   * @param <D> the type of the fourth input
+   *
+   * @param <E> the type of the fifth input
+   *
+   * @param <F> the type of the sixth input
+   *
+   * @param <T> the type of the combined value
+   *
+   * @param a the first input; must not be {@code null}
+   *
+   * @param b the second input; must not be {@code null}
+   *
+   * @param c the third input; must not be {@code null}
+   *
+   * @param d the fourth input; must not be {@code null}
+   *
+   * @param e the fifth input; must not be {@code null}
+   *
+   * @param f the sixth input; must not be {@code null}
+   *
+   * @param combiner the combining function; must not be {@code null}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}; {@link Absence#instance()} if any input is {@link
+   * Determinism#ABSENT}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final <A, B, C, D, E, F, T> OptionalSupplier<T> of(final Supplier<? extends A> a,
+                                                                   final Supplier<? extends B> b,
+                                                                   final Supplier<? extends C> c,
+                                                                   final Supplier<? extends D> d,
+                                                                   final Supplier<? extends E> e,
+                                                                   final Supplier<? extends F> f,
+                                                                   final Function6<? super A, ? super B, ? super C,
+                                                                                   ? super D, ? super E, ? super F,
+                                                                                   ? extends T> combiner) {
+    Objects.requireNonNull(combiner, "combiner");
+    final OptionalSupplier<A> as = input(a);
+    final OptionalSupplier<B> bs = input(b);
+    final OptionalSupplier<C> cs = input(c);
+    final OptionalSupplier<D> ds = input(d);
+    final OptionalSupplier<E> es = input(e);
+    final OptionalSupplier<F> fs = input(f);
+    final Determinism determinism = determinism(as, bs, cs, ds, es, fs);
+    return determinism == Determinism.ABSENT ?
+      Absence.instance() :
+      new Combining6<>(determinism, as, bs, cs, ds, es, fs, combiner);
+  }
+
+  /**
+   * Returns an {@link OptionalSupplier} that combines the values supplied by the supplied {@link Supplier}s using the
+   * supplied {@link Function}, which receives them in a new array, in order.
+   *
+   * @param <T> the type of the combined value
+   *
+   * @param combiner the combining function; must not be {@code null}
+   *
+   * @param inputs the inputs; must not be {@code null}; must not contain {@code null} elements
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}; {@link Absence#instance()} if any input is {@link
+   * Determinism#ABSENT}
+   *
+   * @exception NullPointerException if any argument is {@code null} or if {@code inputs} contains {@code null} elements
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final <T> OptionalSupplier<T> of(final Function<? super Object[], ? extends T> combiner,
+                                                 final Supplier<?>... inputs) {
+    Objects.requireNonNull(combiner, "combiner");
+    final OptionalSupplier<?>[] optionalInputs = new OptionalSupplier<?>[inputs.length];
+    for (int i = 0; i < optionalInputs.length; i++) {
+      optionalInputs[i] = input(inputs[i]);
+    }
+    final Determinism determinism = determinism(optionalInputs);
+    return
+      determinism == Determinism.ABSENT ? Absence.instance() : new CombiningN<>(determinism, optionalInputs, combiner);
+  }
+
+  private static final <X> OptionalSupplier<X> input(final Supplier<? extends X> input) {
+    return OptionalSupplier.of(Objects.requireNonNull(input, "input"));
+  }
+
+  // Returns ABSENT if any input is ABSENT, PRESENT if every input is PRESENT, DETERMINISTIC if every input is
+  // deterministic, and NON_DETERMINISTIC otherwise.  Called only at construction time.
+  private static final Determinism determinism(final OptionalSupplier<?>... inputs) {
+    Determinism determinism = Determinism.PRESENT;
+    for (final OptionalSupplier<?> input : inputs) {
+      switch (input.determinism()) {
+      case ABSENT:
+        return Determinism.ABSENT;
+      case PRESENT:
+        break;
+      case DETERMINISTIC:
+        if (determinism == Determinism.PRESENT) {
+          determinism = Determinism.DETERMINISTIC;
+        }
+        break;
+      default:
+        determinism = Determinism.NON_DETERMINISTIC;
+        break;
+      }
+    }
+    return determinism;
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class Combining2<A, B, T> extends CombiningOptionalSupplier<T> {
+
+    private final OptionalSupplier<A> a;
+
+    private final OptionalSupplier<B> b;
+
+    private final BiFunction<? super A, ? super B, ? extends T> combiner;
+
+    private Combining2(final Determinism determinism,
+                       final OptionalSupplier<A> a,
+                       final OptionalSupplier<B> b,
+                       final BiFunction<? super A, ? super B, ? extends T> combiner) {
+      super(determinism);
+      this.a = a;
+      this.b = b;
+      this.combiner = combiner;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final boolean settledAbsent() {
+      return
+        this.a.determinism() == Determinism.ABSENT ||
+        this.b.determinism() == Determinism.ABSENT;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final T combine() {
+      final A a = this.a.orElse(Absence.token());
+      if (Absence.isToken(a)) {
+        return Absence.token();
+      }
+      final B b = this.b.orElse(Absence.token());
+      if (Absence.isToken(b)) {
+        return Absence.token();
+      }
+      return this.combiner.apply(a, b);
+    }
+
+  }
+
+  private static final class Combining3<A, B, C, T> extends CombiningOptionalSupplier<T> {
+
+    private final OptionalSupplier<A> a;
+
+    private final OptionalSupplier<B> b;
+
+    private final OptionalSupplier<C> c;
+
+    private final Function3<? super A, ? super B, ? super C, ? extends T> combiner;
+
+    private Combining3(final Determinism determinism,
+                       final OptionalSupplier<A> a,
+                       final OptionalSupplier<B> b,
+                       final OptionalSupplier<C> c,
+                       final Function3<? super A, ? super B, ? super C, ? extends T> combiner) {
+      super(determinism);
+      this.a = a;
+      this.b = b;
+      this.c = c;
+      this.combiner = combiner;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final boolean settledAbsent() {
+      return
+        this.a.determinism() == Determinism.ABSENT ||
+        this.b.determinism() == Determinism.ABSENT ||
+        this.c.determinism() == Determinism.ABSENT;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final T combine() {
+      final A a = this.a.orElse(Absence.token());
+      if (Absence.isToken(a)) {
+        return Absence.token();
+      }
+      final B b = this.b.orElse(Absence.token());
+      if (Absence.isToken(b)) {
+        return Absence.token();
+      }
+      final C c = this.c.orElse(Absence.token());
+      if (Absence.isToken(c)) {
+        return Absence.token();
+      }
+      return this.combiner.apply(a, b, c);
+    }
+
+  }
+
+  private static final class Combining4<A, B, C, D, T> extends CombiningOptionalSupplier<T> {
+
+    private final OptionalSupplier<A> a;
+
+    private final OptionalSupplier<B> b;
+
+    private final OptionalSupplier<C> c;
+
+    private final OptionalSupplier<D> d;
+
+    private final Function4<? super A, ? super B, ? super C, ? super D, ? extends T> combiner;
+
+    private Combining4(final Determinism determinism,
+                       final OptionalSupplier<A> a,
+                       final OptionalSupplier<B> b,
+                       final OptionalSupplier<C> c,
+                       final OptionalSupplier<D> d,
+                       final Function4<? super A, ? super B, ? super C, ? super D, ? extends T> combiner) {
+      super(determinism);
+      this.a = a;
+      this.b = b;
+      this.c = c;
+      this.d = d;
+      this.combiner = combiner;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final boolean settledAbsent() {
+      return
+        this.a.determinism() == Determinism.ABSENT ||
+        this.b.determinism() == Determinism.ABSENT ||
+        this.c.determinism() == Determinism.ABSENT ||
+        this.d.determinism() == Determinism.ABSENT;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final T combine() {
+      final A a = this.a.orElse(Absence.token());
+      if (Absence.isToken(a)) {
+        return Absence.token();
+      }
+      final B b = this.b.orElse(Absence.token());
+      if (Absence.isToken(b)) {
+        return Absence.token();
+      }
+      final C c = this.c.orElse(Absence.token());
+      if (Absence.isToken(c)) {
+        return Absence.token();
+      }
+      final D d = this.d.orElse(Absence.token());
+      if (Absence.isToken(d)) {
+        return Absence.token();
+      }
+      return this.combiner.apply(a, b, c, d);
+    }
+
+  }
+
+  private static final class Combining5<A, B, C, D, E, T> extends CombiningOptionalSupplier<T> {
+
+    private final OptionalSupplier<A> a;
+
+    private final OptionalSupplier<B> b;
+
+    private final OptionalSupplier<C> c;
+
+    private final OptionalSupplier<D> d;
+
+    private final OptionalSupplier<E> e;
+
+    private final Function5<? super A, ? super B, ? super C, ? super D, ? super E, ? extends T> combiner;
+
+    private Combining5(final Determinism determinism,
+                       final OptionalSupplier<A> a,
+                       final OptionalSupplier<B> b,
+                       final OptionalSupplier<C> c,
+                       final OptionalSupplier<D> d,
+                       final OptionalSupplier<E> e,
+                       final Function5<? super A, ? super B, ? super C, ? super D, ? super E, ? extends T> combiner) {
+      super(determinism);
+      this.a = a;
+      this.b = b;
+      this.c = c;
+      this.d = d;
+      this.e = e;
+      this.combiner = combiner;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final boolean settledAbsent() {
+      return
+        this.a.determinism() == Determinism.ABSENT ||
+        this.b.determinism() == Determinism.ABSENT ||
+        this.c.determinism() == Determinism.ABSENT ||
+        this.d.determinism() == Determinism.ABSENT ||
+        this.e.determinism() == Determinism.ABSENT;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final T combine() {
+      final A a = this.a.orElse(Absence.token());
+      if (Absence.isToken(a)) {
+        return Absence.token();
+      }
+      final B b = this.b.orElse(Absence.token());
+      if (Absence.isToken(b)) {
+        return Absence.token();
+      }
+      final C c = this.c.orElse(Absence.token());
+      if (Absence.isToken(c)) {
+        return Absence.token();
+      }
+      final D d = this.d.orElse(Absence.token());
+      if (Absence.isToken(d)) {
+        return Absence.token();
+      }
+      final E e = this.e.orElse(Absence.token());
+      if (Absence.isToken(e)) {
+        return Absence.token();
+      }
+      return this.combiner.apply(a, b, c, d, e);
+    }
+
+  }
+
+  private static final class Combining6<A, B, C, D, E, F, T> extends CombiningOptionalSupplier<T> {
+
+    private final OptionalSupplier<A> a;
+
+    private final OptionalSupplier<B> b;
+
+    private final OptionalSupplier<C> c;
+
+    private final OptionalSupplier<D> d;
+
+    private final OptionalSupplier<E> e;
+
+    private final OptionalSupplier<F> f;
+
+    private final Function6<? super A, ? super B, ? super C, ? super D, ? super E, ? super F, ? extends T> combiner;
+
+    private Combining6(final Determinism determinism,
+                       final OptionalSupplier<A> a,
+                       final OptionalSupplier<B> b,
+                       final OptionalSupplier<C> c,
+                       final OptionalSupplier<D> d,
+                       final OptionalSupplier<E> e,
+                       final OptionalSupplier<F> f,
+                       final Function6<? super A, ? super B, ? super C,
+                                       ? super D, ? super E, ? super F,
+                                       ? extends T> combiner) {
+      super(determinism);
+      this.a = a;
+      this.b = b;
+      this.c = c;
+      this.d = d;
+      this.e = e;
+      this.f = f;
+      this.combiner = combiner;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final boolean settledAbsent() {
+      return
+        this.a.determinism() == Determinism.ABSENT ||
+        this.b.determinism() == Determinism.ABSENT ||
+        this.c.determinism() == Determinism.ABSENT ||
+        this.d.determinism() == Determinism.ABSENT ||
+        this.e.determinism() == Determinism.ABSENT ||
+        this.f.determinism() == Determinism.ABSENT;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final T combine() {
+      final A a = this.a.orElse(Absence.token());
+      if (Absence.isToken(a)) {
+        return Absence.token();
+      }
+      final B b = this.b.orElse(Absence.token());
+      if (Absence.isToken(b)) {
+        return Absence.token();
+      }
+      final C c = this.c.orElse(Absence.token());
+      if (Absence.isToken(c)) {
+        return Absence.token();
+      }
+      final D d = this.d.orElse(Absence.token());
+      if (Absence.isToken(d)) {
+        return Absence.token();
+      }
+      final E e = this.e.orElse(Absence.token());
+      if (Absence.isToken(e)) {
+        return Absence.token();
+      }
+      final F f = this.f.orElse(Absence.token());
+      if (Absence.isToken(f)) {
+        return Absence.token();
+      }
+      return this.combiner.apply(a, b, c, d, e, f);
+    }
+
+  }
+
+  private static final class CombiningN<T> extends CombiningOptionalSupplier<T> {
+
+    private final OptionalSupplier<?>[] inputs;
+
+    private final Function<? super Object[], ? extends T> combiner;
+
+    private CombiningN(final Determinism determinism,
+                       final OptionalSupplier<?>[] inputs,
+                       final Function<? super Object[], ? extends T> combiner) {
+      super(determinism);
+      this.inputs = inputs;
+      this.combiner = combiner;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final boolean settledAbsent() {
+      for (final OptionalSupplier<?> input : this.inputs) {
+        if (input.determinism() == Determinism.ABSENT) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override // CombiningOptionalSupplier<T>
+    final T combine() {
+      // The combining function may retain the array, so it is new every time.
+      final Object[] values = new Object[this.inputs.length];
+      for (int i = 0; i < values.length; i++) {
+        final Object value = this.inputs[i].orElse(Absence.token());
+        if (Absence.isToken(value)) {
+          return Absence.token();
+        }
+        values[i] = value;
+      }
+      return this.combiner.apply(values);
+    }
+
+  }
+
+  /**
+   * A function of three arguments.
+   *
+   * @param <A> the type of the first argument
+   *
+   * @param <B> the type of the second argument
+   *
+   * @param <C> the type of the third argument
+   *
+   * @param <R> the type of the result
+   *
+   * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+   */
+  @FunctionalInterface
+  public static interface Function3<A, B, C, R> {
+
+    /**
+     * Applies this function to the supplied arguments.
+     *
+     * @param a the first argument; may be {@code null}
+     *
+     * @param b the second argument; may be {@code null}
+     *
+     * @param c the third argument; may be {@code null}
+     *
+     * @return the result, which may be {@code null}
+     */
+    public R apply(final A a, final B b, final C c);
+
+  }
+
+  /**
+   * A function of four arguments.
+   *
+   * @param <A> the type of the first argument
+   *
+   * @param <B> the type of the second argument
+   *
+   * @param <C> the type of the third argument
+   *
+   * @param <D> the type of the fourth argument
+   *
+   * @param <R> the type of the result
+   *
+   * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+   */
+  @FunctionalInterface
+  public static interface Function4<A, B, C, D, R> {
+
+    /**
+     * Applies this function to the supplied arguments.
+     *
+     * @param a the first argument; may be {@code null}
+     *
+     * @param b the second argument; may be {@code null}
+     *
+     * @param c the third argument; may be {@code null}
+     *
+     * @param d the fourth argument; may be {@code null}
+     *
+     * @return the result, which may be {@code null}
+     */
+    public R apply(final A a, final B b, final C c, final D d);
+
+  }
+
+  /**
+   * A function of five arguments.
+   *
+   * @param <A> the type of the first argument
+   *
+   * @param <B> the type of the second argument
+   *
+   * @param <C> the type of the third argument
+   *
+   * @param <D> the type of the fourth argument
+   *
+   * @param <E> the type of the fifth argument
+   *
+   * @param <R> the type of the result
+   *
+   * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+   */
+  @FunctionalInterface
+  public static interface Function5<A, B, C, D, E, R> {
+
+    /**
+     * Applies this function to the supplied arguments.
+     *
+     * @param a the first argument; may be {@code null}
+     *
+     * @param b the second argument; may be {@code null}
+     *
+     * @param c the third argument; may be {@code null}
+     *
+     * @param d the fourth argument; may be {@code null}
+     *
+     * @param e the fifth argument; may be {@code null}
+     *
+     * @return the result, which may be {@code null}
+     */
+    public R apply(final A a, final B b, final C c, final D d, final E e);
+
+  }
+
+  /**
+   * A function of six arguments.
+   *
+   * @param <A> the type of the first argument
+   *
+   * @param <B> the type of the second argument
+   *
+   * @param <C> the type of the third argument
+   *
+   * @param <D> the type of the fourth argument
+   *
+   * @param <E> the type of the fifth argument
+   *
+   * @param <F> the type of the sixth argument
+   *
+   * @param <R> the type of the result
+   *
+   * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+   */
+  @FunctionalInterface
+  public static interface Function6<A, B, C, D, E, F, R> {
+
+    /**
+     * Applies this function to the supplied arguments.
+     *
+     * @param a the first argument; may be {@code null}
+     *
+     * @param b the second argument; may be {@code null}
+     *
+     * @param c the third argument; may be {@code null}
+     *
+     * @param d the fourth argument; may be {@code null}
+     *
+     * @param e the fifth argument; may be {@code null}
+     *
+     * @param f the sixth argument; may be {@code null}
+     *
+     * @return the result, which may be {@code null}
+     */
+    public R apply(final A a, final B b, final C c, final D d, final E e, final F f);
+
+  }
+
+}
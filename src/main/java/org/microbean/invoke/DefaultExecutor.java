@@ -0,0 +1,139 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.lang.invoke.MethodHandles.publicLookup;
+
+/**
+ * A utility class that supplies the {@link Executor} used by default for background and concurrent work in this
+ * package.
+ *
+ * <p>On Java runtimes that support virtual threads, the default {@link Executor} starts a new virtual thread per task.
+ * Otherwise it is the {@linkplain ForkJoinPool#commonPool() common pool}.</p>
+ *
+ * <p>Work that may block, and whose tasks must all make progress at the same time, should instead use the {@link
+ * Executor} returned by the {@link #threadPerTask()} method, since the common pool may have as few as one thread.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #instance()
+ *
+ * @see #threadPerTask()
+ */
+final class DefaultExecutor {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final Executor INSTANCE = executor();
+
+  private static final Executor THREAD_PER_TASK =
+    INSTANCE instanceof ForkJoinPool ? DefaultExecutor::startDaemon : INSTANCE;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private DefaultExecutor() {
+    super();
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns the default {@link Executor}.
+   *
+   * @return the default {@link Executor}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  static final Executor instance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns an {@link Executor} that starts a new thread per task: a virtual thread on Java runtimes that support
+   * virtual threads, and a daemon platform thread otherwise.
+   *
+   * @return an {@link Executor} that starts a new thread per task; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  static final Executor threadPerTask() {
+    return THREAD_PER_TASK;
+  }
+
+  private static final void startDaemon(final Runnable task) {
+    final Thread t = new Thread(task);
+    t.setDaemon(true);
+    t.start();
+  }
+
+  private static final Executor executor() {
+    MethodHandle mh;
+    try {
+      // This project is compiled for Java 17, where Executors#newVirtualThreadPerTaskExecutor() does not exist.
+      mh = publicLookup().findStatic(Executors.class,
+                                     "newVirtualThreadPerTaskExecutor",
+                                     MethodType.methodType(ExecutorService.class));
+    } catch (final NoSuchMethodException | IllegalAccessException e) {
+      mh = null;
+    }
+    return executor(mh);
+  }
+
+  // Returns the ExecutorService produced by invoking the supplied factory, or the common pool if the factory is null or
+  // fails.  On Java 19 and 20, Executors#newVirtualThreadPerTaskExecutor() exists but is a preview API, and throws
+  // UnsupportedOperationException unless preview features are enabled.  Package-private for testing only.
+  static final Executor executor(final MethodHandle factory) {
+    if (factory == null) {
+      return ForkJoinPool.commonPool();
+    }
+    try {
+      return (ExecutorService)factory.invokeExact();
+    } catch (final RuntimeException | LinkageError e) {
+      return ForkJoinPool.commonPool();
+    } catch (final Error e) {
+      throw e;
+    } catch (final Throwable e) {
+      throw new IllegalStateException(e.getMessage(), e);
+    }
+  }
+
+}
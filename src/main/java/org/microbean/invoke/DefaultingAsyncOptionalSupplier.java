@@ -0,0 +1,117 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.Objects;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+import static org.microbean.invoke.AsyncOptionalSupplierAdapter.absence;
+
+/**
+ * An {@link AsyncOptionalSupplier} that completes with the outcome of one {@link AsyncOptionalSupplier}, unless it
+ * indicates absence, in which case it completes with the outcome of another, while properly implementing the {@link
+ * #determinism()} method.
+ *
+ * @param <T> the type of value this {@link DefaultingAsyncOptionalSupplier} supplies
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see AsyncOptionalSupplier#of(AsyncOptionalSupplier, AsyncOptionalSupplier)
+ *
+ * @see AsyncOptionalSupplier#speculative(AsyncOptionalSupplier, AsyncOptionalSupplier)
+ */
+final class DefaultingAsyncOptionalSupplier<T> implements AsyncOptionalSupplier<T> {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final AsyncOptionalSupplier<? extends T> supplier;
+
+  private final AsyncOptionalSupplier<? extends T> defaults;
+
+  private final boolean speculative;
+
+  private final Determinism determinism;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private DefaultingAsyncOptionalSupplier(final AsyncOptionalSupplier<? extends T> supplier,
+                                          final AsyncOptionalSupplier<? extends T> defaults,
+                                          final boolean speculative,
+                                          final Determinism determinism) {
+    super();
+    this.supplier = supplier;
+    this.defaults = defaults;
+    this.speculative = speculative;
+    this.determinism = determinism;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override // AsyncOptionalSupplier<T>
+  public final Determinism determinism() {
+    return this.determinism;
+  }
+
+  @Override // AsyncOptionalSupplier<T>
+  @SuppressWarnings("unchecked")
+  public final CompletionStage<T> getAsync() {
+    final CompletionStage<T> primary = (CompletionStage<T>)this.supplier.getAsync();
+    if (this.speculative) {
+      final CompletionStage<T> fallback = (CompletionStage<T>)this.defaults.getAsync();
+      return primary.exceptionallyCompose(t -> absence(t) ? fallback : CompletableFuture.failedStage(t));
+    }
+    // The fallback is not started until the primary has completed and indicated absence.
+    return primary.exceptionallyCompose(t -> absence(t) ?
+                                        (CompletionStage<T>)this.defaults.getAsync() :
+                                        CompletableFuture.failedStage(t));
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  @SuppressWarnings("unchecked")
+  static final <T> AsyncOptionalSupplier<T> of(final AsyncOptionalSupplier<? extends T> supplier,
+                                               final AsyncOptionalSupplier<? extends T> defaults,
+                                               final boolean speculative) {
+    final Determinism sd = Objects.requireNonNull(supplier, "supplier").determinism();
+    final Determinism dd = Objects.requireNonNull(defaults, "defaults").determinism();
+    // When either outcome is known in advance, there is nothing to default or to speculate about.
+    if (sd == Determinism.PRESENT || dd == Determinism.ABSENT) {
+      return (AsyncOptionalSupplier<T>)supplier;
+    } else if (sd == Determinism.ABSENT) {
+      return (AsyncOptionalSupplier<T>)defaults;
+    }
+    return new DefaultingAsyncOptionalSupplier<>(supplier, defaults, speculative, sd.or(dd));
+  }
+
+}
@@ -0,0 +1,174 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import java.util.function.BooleanSupplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An {@link OptionalBooleanSupplier} that tries one {@link BooleanSupplier} first, before falling back to another one,
+ * while properly implementing the {@link #determinism()} method.
+ *
+ * <p>If both {@link BooleanSupplier}s are deterministic, the outcome of the first probe is remembered, in a single
+ * {@code byte} field, and supplied thereafter without consulting either of them.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see OptionalBooleanSupplier#of(BooleanSupplier, BooleanSupplier)
+ */
+final class DefaultingOptionalBooleanSupplier implements OptionalBooleanSupplier {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final byte UNRESOLVED = 0;
+
+  private static final byte ABSENT = 1;
+
+  private static final byte FALSE = 2;
+
+  private static final byte TRUE = 3;
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalBooleanSupplier supplier;
+
+  private final OptionalBooleanSupplier defaults;
+
+  // The determinism computed at construction time.
+  private final Determinism determinism;
+
+  // UNRESOLVED until a DETERMINISTIC outcome has settled; then ABSENT, FALSE or TRUE.  A single byte is written and
+  // read atomically, so it may be read racily.  A racing reader that sees UNRESOLVED merely re-resolves.
+  private byte resolution;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private DefaultingOptionalBooleanSupplier(final BooleanSupplier supplier, final BooleanSupplier defaults) {
+    super();
+    OptionalBooleanSupplier s = OptionalBooleanSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+    OptionalBooleanSupplier d = OptionalBooleanSupplier.of(Objects.requireNonNull(defaults, "defaults"));
+    final Determinism sd = s.determinism();
+    final Determinism dd = d.determinism();
+    final Determinism determinism;
+    switch (sd) {
+    case ABSENT:
+      // Only the defaults matter.
+      s = d;
+      determinism = dd;
+      break;
+    case PRESENT:
+      // The defaults will never be consulted.
+      d = s;
+      determinism = Determinism.PRESENT;
+      break;
+    case DETERMINISTIC:
+      determinism = dd.deterministic() ? Determinism.DETERMINISTIC : Determinism.NON_DETERMINISTIC;
+      break;
+    default:
+      determinism = Determinism.NON_DETERMINISTIC;
+      break;
+    }
+    this.supplier = s;
+    this.defaults = d;
+    this.determinism = determinism;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override // OptionalBooleanSupplier
+  public final Determinism determinism() {
+    switch (this.resolution) {
+    case UNRESOLVED:
+      return this.determinism;
+    case ABSENT:
+      return Determinism.ABSENT;
+    default:
+      return Determinism.PRESENT;
+    }
+  }
+
+  @Override // OptionalBooleanSupplier
+  public final boolean getAsBoolean() {
+    final byte resolution = this.resolve();
+    if (resolution == ABSENT) {
+      throw Absence.noSuchElementException();
+    }
+    return resolution == TRUE;
+  }
+
+  @Override // OptionalBooleanSupplier
+  public final boolean orElse(final boolean other) {
+    final byte resolution = this.resolve();
+    return resolution == ABSENT ? other : resolution == TRUE;
+  }
+
+  @Override // OptionalBooleanSupplier
+  public final Optional<Boolean> optional() {
+    final byte resolution = this.resolve();
+    return resolution == ABSENT ? Optional.empty() : FixedBooleanValueSupplier.of(resolution == TRUE).optional();
+  }
+
+  // Returns ABSENT, FALSE or TRUE, consulting the suppliers unless a DETERMINISTIC outcome has already settled.
+  private final byte resolve() {
+    byte resolution = this.resolution;
+    if (resolution != UNRESOLVED) {
+      return resolution;
+    }
+    final Determinism determinism = this.determinism;
+    if (determinism == Determinism.ABSENT) {
+      return ABSENT;
+    }
+    Optional<Boolean> optional = this.supplier.optional();
+    if (optional.isEmpty() && this.defaults != this.supplier) {
+      optional = this.defaults.optional();
+    }
+    resolution = optional.isEmpty() ? ABSENT : optional.get() ? TRUE : FALSE;
+    if (determinism == Determinism.DETERMINISTIC) {
+      // We were told that whatever the suppliers do they will forever do.  Now we know what they do.  Remember it.
+      this.resolution = resolution;
+    }
+    return resolution;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  static final DefaultingOptionalBooleanSupplier of(final BooleanSupplier supplier, final BooleanSupplier defaults) {
+    return new DefaultingOptionalBooleanSupplier(supplier, defaults);
+  }
+
+}
@@ -0,0 +1,150 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.Objects;
+import java.util.OptionalDouble;
+
+import java.util.function.DoubleSupplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An {@link OptionalDoubleSupplier} that tries one {@link DoubleSupplier} first, before falling back to another one,
+ * while properly implementing the {@link #determinism()} method.
+ *
+ * <p>If both {@link DoubleSupplier}s are deterministic, the outcome of the first probe is remembered and supplied
+ * thereafter without consulting either of them.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see OptionalDoubleSupplier#of(DoubleSupplier, DoubleSupplier)
+ */
+final class DefaultingOptionalDoubleSupplier implements OptionalDoubleSupplier {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalDoubleSupplier supplier;
+
+  private final OptionalDoubleSupplier defaults;
+
+  // The determinism computed at construction time.
+  private final Determinism determinism;
+
+  // null until a DETERMINISTIC outcome has settled; then an immutable OptionalDouble that is read, racily but safely
+  // thanks to its final fields, on every subsequent call.  A racing reader that sees null merely re-resolves.
+  private OptionalDouble resolution;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private DefaultingOptionalDoubleSupplier(final DoubleSupplier supplier, final DoubleSupplier defaults) {
+    super();
+    OptionalDoubleSupplier s = OptionalDoubleSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+    OptionalDoubleSupplier d = OptionalDoubleSupplier.of(Objects.requireNonNull(defaults, "defaults"));
+    final Determinism sd = s.determinism();
+    final Determinism dd = d.determinism();
+    final Determinism determinism;
+    switch (sd) {
+    case ABSENT:
+      // Only the defaults matter.
+      s = d;
+      determinism = dd;
+      break;
+    case PRESENT:
+      // The defaults will never be consulted.
+      d = s;
+      determinism = Determinism.PRESENT;
+      break;
+    case DETERMINISTIC:
+      determinism = dd.deterministic() ? Determinism.DETERMINISTIC : Determinism.NON_DETERMINISTIC;
+      break;
+    default:
+      determinism = Determinism.NON_DETERMINISTIC;
+      break;
+    }
+    this.supplier = s;
+    this.defaults = d;
+    this.determinism = determinism;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override // OptionalDoubleSupplier
+  public final Determinism determinism() {
+    final OptionalDouble r = this.resolution;
+    if (r == null) {
+      return this.determinism;
+    }
+    return r.isPresent() ? Determinism.PRESENT : Determinism.ABSENT;
+  }
+
+  @Override // OptionalDoubleSupplier
+  public final double getAsDouble() {
+    final OptionalDouble optional = this.optional();
+    if (optional.isEmpty()) {
+      throw Absence.noSuchElementException();
+    }
+    return optional.getAsDouble();
+  }
+
+  @Override // OptionalDoubleSupplier
+  public final double orElse(final double other) {
+    final OptionalDouble optional = this.optional();
+    return optional.isPresent() ? optional.getAsDouble() : other;
+  }
+
+  @Override // OptionalDoubleSupplier
+  public final OptionalDouble optional() {
+    OptionalDouble optional = this.resolution;
+    if (optional != null) {
+      return optional;
+    }
+    final Determinism determinism = this.determinism;
+    if (determinism == Determinism.ABSENT) {
+      return OptionalDouble.empty();
+    }
+    optional = this.supplier.optional();
+    if (optional.isEmpty() && this.defaults != this.supplier) {
+      optional = this.defaults.optional();
+    }
+    if (determinism == Determinism.DETERMINISTIC) {
+      // We were told that whatever the suppliers do they will forever do.  Now we know what they do.  Remember it.
+      this.resolution = optional;
+    }
+    return optional;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  static final DefaultingOptionalDoubleSupplier of(final DoubleSupplier supplier, final DoubleSupplier defaults) {
+    return new DefaultingOptionalDoubleSupplier(supplier, defaults);
+  }
+
+}
@@ -0,0 +1,150 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+
+import java.util.function.LongSupplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An {@link OptionalLongSupplier} that tries one {@link LongSupplier} first, before falling back to another one, while
+ * properly implementing the {@link #determinism()} method.
+ *
+ * <p>If both {@link LongSupplier}s are deterministic, the outcome of the first probe is remembered and supplied
+ * thereafter without consulting either of them.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see OptionalLongSupplier#of(LongSupplier, LongSupplier)
+ */
+final class DefaultingOptionalLongSupplier implements OptionalLongSupplier {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalLongSupplier supplier;
+
+  private final OptionalLongSupplier defaults;
+
+  // The determinism computed at construction time.
+  private final Determinism determinism;
+
+  // null until a DETERMINISTIC outcome has settled; then an immutable OptionalLong that is read, racily but safely
+  // thanks to its final fields, on every subsequent call.  A racing reader that sees null merely re-resolves.
+  private OptionalLong resolution;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private DefaultingOptionalLongSupplier(final LongSupplier supplier, final LongSupplier defaults) {
+    super();
+    OptionalLongSupplier s = OptionalLongSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+    OptionalLongSupplier d = OptionalLongSupplier.of(Objects.requireNonNull(defaults, "defaults"));
+    final Determinism sd = s.determinism();
+    final Determinism dd = d.determinism();
+    final Determinism determinism;
+    switch (sd) {
+    case ABSENT:
+      // Only the defaults matter.
+      s = d;
+      determinism = dd;
+      break;
+    case PRESENT:
+      // The defaults will never be consulted.
+      d = s;
+      determinism = Determinism.PRESENT;
+      break;
+    case DETERMINISTIC:
+      determinism = dd.deterministic() ? Determinism.DETERMINISTIC : Determinism.NON_DETERMINISTIC;
+      break;
+    default:
+      determinism = Determinism.NON_DETERMINISTIC;
+      break;
+    }
+    this.supplier = s;
+    this.defaults = d;
+    this.determinism = determinism;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override // OptionalLongSupplier
+  public final Determinism determinism() {
+    final OptionalLong r = this.resolution;
+    if (r == null) {
+      return this.determinism;
+    }
+    return r.isPresent() ? Determinism.PRESENT : Determinism.ABSENT;
+  }
+
+  @Override // OptionalLongSupplier
+  public final long getAsLong() {
+    final OptionalLong optional = this.optional();
+    if (optional.isEmpty()) {
+      throw Absence.noSuchElementException();
+    }
+    return optional.getAsLong();
+  }
+
+  @Override // OptionalLongSupplier
+  public final long orElse(final long other) {
+    final OptionalLong optional = this.optional();
+    return optional.isPresent() ? optional.getAsLong() : other;
+  }
+
+  @Override // OptionalLongSupplier
+  public final OptionalLong optional() {
+    OptionalLong optional = this.resolution;
+    if (optional != null) {
+      return optional;
+    }
+    final Determinism determinism = this.determinism;
+    if (determinism == Determinism.ABSENT) {
+      return OptionalLong.empty();
+    }
+    optional = this.supplier.optional();
+    if (optional.isEmpty() && this.defaults != this.supplier) {
+      optional = this.defaults.optional();
+    }
+    if (determinism == Determinism.DETERMINISTIC) {
+      // We were told that whatever the suppliers do they will forever do.  Now we know what they do.  Remember it.
+      this.resolution = optional;
+    }
+    return optional;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  static final DefaultingOptionalLongSupplier of(final LongSupplier supplier, final LongSupplier defaults) {
+    return new DefaultingOptionalLongSupplier(supplier, defaults);
+  }
+
+}
@@ -30,11 +30,16 @@ import java.util.function.Supplier;
  */
 final class DefaultingOptionalSupplier<T> implements OptionalSupplier<T> {
 
-  private final Supplier<? extends T> defaults;
+  private final OptionalSupplier<T> defaults;
 
-  private final Supplier<? extends T> supplier;
+  private final OptionalSupplier<T> supplier;
 
-  private volatile Determinism determinism;
+  // The determinism computed at construction time.
+  private final Determinism determinism;
+
+  // null until a DETERMINISTIC or PRESENT outcome has settled; then an immutable Resolution that is read, racily but
+  // safely thanks to its final fields, on every subsequent call.  A racing reader that sees null merely re-resolves.
+  private Resolution<T> resolution;
 
   private DefaultingOptionalSupplier() {
     this(null, null);
@@ -73,13 +78,14 @@ final class DefaultingOptionalSupplier<T> implements OptionalSupplier<T> {
           } else {
             supplier = defaults;
             defaults = Absence.instance();
-            determinism = sd;
+            determinism = dd;
           }
         } else if (sd == Determinism.PRESENT) {
           defaults = Absence.instance();
           determinism = Determinism.PRESENT;
         } else if (sd == Determinism.DETERMINISTIC) {
-          if (dd == Determinism.DETERMINISTIC) {
+          // Defaults that are PRESENT or ABSENT are deterministic too.
+          if (dd.deterministic()) {
             determinism = Determinism.DETERMINISTIC;
           } else {
             determinism = Determinism.NON_DETERMINISTIC;
@@ -93,8 +99,8 @@ final class DefaultingOptionalSupplier<T> implements OptionalSupplier<T> {
     } else {
       determinism = Determinism.NON_DETERMINISTIC;
     }
-    this.supplier = supplier;
-    this.defaults = defaults;
+    this.supplier = OptionalSupplier.of(supplier);
+    this.defaults = OptionalSupplier.of(defaults);
     this.determinism = determinism;
   }
 
@@ -114,7 +120,8 @@ final class DefaultingOptionalSupplier<T> implements OptionalSupplier<T> {
    */
   @Override
   public final Determinism determinism() {
-    return this.determinism;
+    final Resolution<T> r = this.resolution;
+    return r == null ? this.determinism : r.determinism();
   }
 
   /**
@@ -146,45 +153,78 @@ final class DefaultingOptionalSupplier<T> implements OptionalSupplier<T> {
    */
   @Override
   public final T get() {
-    final Determinism d = this.determinism();
-    try {
-      final T value = this.supplier.get();
-      switch (d) {
-      case DETERMINISTIC:
-        // We were told whatever the supplier does it will forever do.
-        // We just didn't know what it would do.  Now we know what it
-        // will do: it will always return a value.  Adjust our
-        // determinism accordingly.
-        this.determinism = Determinism.PRESENT;
-        return value;
-      case PRESENT:
-      case NON_DETERMINISTIC:
-        return value;
-      case ABSENT:
-        throw new IllegalStateException();
-      default:
-        throw new AssertionError();
-      }
-    } catch (final NoSuchElementException | UnsupportedOperationException e) {
-      switch (d) {
-      case NON_DETERMINISTIC:
-        return this.defaults.get();
-      case DETERMINISTIC:
-        try {
-          return this.defaults.get();
-        } catch (final NoSuchElementException | UnsupportedOperationException e2) {
-          this.determinism = Determinism.ABSENT;
-          throw e2;
+    final T value = this.orElse(Absence.token());
+    if (Absence.isToken(value)) {
+      throw Absence.noSuchElementException();
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value that the {@link #get()} method would return,
+   * or, if the {@link #get()} method would indicate absence, returns
+   * the supplied {@code other} value, without throwing any exception
+   * to do so.
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the value in question, which may be {@code null}, or
+   * {@code other}
+   *
+   * @nullability This method may return {@code null} at any point.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple
+   * threads.
+   *
+   * @see #get()
+   */
+  @Override
+  public final T orElse(final T other) {
+    final Resolution<T> r = this.resolution;
+    if (r != null) {
+      return r.orElse(other);
+    }
+    T value;
+    switch (this.determinism) {
+    case ABSENT:
+      return other;
+    case NON_DETERMINISTIC:
+      value = this.supplier.orElse(Absence.token());
+      return Absence.isToken(value) ? this.defaults.orElse(other) : value;
+    case PRESENT:
+    case DETERMINISTIC:
+      value = this.supplier.orElse(Absence.token());
+      if (Absence.isToken(value)) {
+        value = this.defaults.orElse(Absence.token());
+        if (Absence.isToken(value)) {
+          // We were told whatever the suppliers do they will forever
+          // do.  Now we know what they will do: they will always
+          // indicate absence.  Remember that.
+          this.resolution = Resolution.absent();
+          return other;
         }
-      case ABSENT:
-      case PRESENT:
-        throw new IllegalStateException();
-      default:
-        throw new AssertionError();
       }
+      // We were told whatever the suppliers do they will forever do.
+      // Now we know what they will do: they will always return this
+      // value.  Remember it.
+      this.resolution = Resolution.present(value);
+      return value;
+    default:
+      throw new AssertionError();
     }
   }
 
+  // For FallbackOptionalSupplier, which flattens chains of DefaultingOptionalSuppliers.
+  final OptionalSupplier<T> supplier() {
+    return this.supplier;
+  }
+
+  // For FallbackOptionalSupplier, which flattens chains of DefaultingOptionalSuppliers.
+  final OptionalSupplier<T> defaults() {
+    return this.defaults;
+  }
 
   /*
    * Static methods.
@@ -0,0 +1,550 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import java.time.Duration;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * An {@link OptionalSupplier} that, like {@link CachingSupplier}, caches the value supplied by a delegate {@link
+ * Supplier}, but only for a configurable <em>time-to-live</em>, after which the value is recomputed.
+ *
+ * <p>An {@link ExpiringSupplier} may also be configured with a <em>refresh-after-write</em> interval shorter than its
+ * time-to-live.  Once a cached value is older than that interval, but not yet older than the time-to-live, the first
+ * caller to notice recomputes it while any concurrent callers continue to receive the existing value without
+ * waiting.</p>
+ *
+ * <p>An {@link ExpiringSupplier} may instead be configured with an {@link Executor}, in which case refreshing works in
+ * a <em>stale-while-revalidate</em> fashion: once a cached value is older than the refresh-after-write interval, a
+ * single background refresh is submitted to the {@link Executor} and <em>all</em> callers, including the one that
+ * noticed, continue to receive the existing value without waiting.  The time-to-live then acts as the maximum
+ * staleness: once a value is older than that, callers block until a new value has been computed.  If a background
+ * refresh indicates absence or fails, the existing value is kept until it expires, and the next caller to notice that a
+ * refresh is due submits another one.  A failure is reported to the {@linkplain Thread#getUncaughtExceptionHandler()
+ * uncaught exception handler} of the thread that performed the refresh; it is not thrown to any caller.</p>
+ *
+ * <p>At most one thread at a time invokes the delegate {@link Supplier}.  Threads that need a value when none has been
+ * computed, or when the cached value has expired, wait, without pinning any carrier thread, until it has been
+ * published.</p>
+ *
+ * <p>Time is read from a {@link LongSupplier} <em>ticker</em> that returns nanoseconds, {@link System#nanoTime()} by
+ * default.  A different ticker may be supplied for testing.  The hot path is one acquiring field read, one ticker read
+ * and one subtraction and comparison.</p>
+ *
+ * @param <T> the type of value this {@link ExpiringSupplier} {@linkplain #get() supplies}
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #ExpiringSupplier(Supplier, Duration, Duration, Executor, LongSupplier)
+ *
+ * @see #staleWhileRevalidate(Supplier, Duration, Duration)
+ *
+ * @see CachingSupplier
+ */
+public final class ExpiringSupplier<T> implements OptionalSupplier<T> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final VarHandle ENTRY;
+
+  private static final VarHandle REFRESHING;
+
+  private static final VarHandle CHANGE_LISTENERS;
+
+  static {
+    try {
+      ENTRY = MethodHandles.lookup().findVarHandle(ExpiringSupplier.class, "entry", Entry.class);
+      REFRESHING = MethodHandles.lookup().findVarHandle(ExpiringSupplier.class, "refreshing", boolean.class);
+      CHANGE_LISTENERS =
+        MethodHandles.lookup().findVarHandle(ExpiringSupplier.class, "changeListeners", ChangeListeners.class);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw (ExceptionInInitializerError)new ExceptionInInitializerError(e.getMessage()).initCause(e);
+    }
+  }
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalSupplier<T> delegate;
+
+  private final long timeToLive;
+
+  private final long refreshAfterWrite;
+
+  private final LongSupplier ticker;
+
+  private final Executor executor;
+
+  private final Lock lock;
+
+  // Accessed only via ENTRY.  null means "not computed, or absent".
+  private Entry<T> entry;
+
+  // Accessed only via REFRESHING.  true while a background refresh is pending or running.
+  private boolean refreshing;
+
+  // Accessed only via CHANGE_LISTENERS.  null until something first listens for changes.
+  private ChangeListeners changeListeners;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link ExpiringSupplier} that caches values for the supplied time-to-live and does not refresh them
+   * before that.
+   *
+   * @param supplier the {@link Supplier} that will compute values; must not be {@code null}; <strong>must be safe for
+   * concurrent use by multiple threads</strong>
+   *
+   * @param timeToLive how long a computed value may be returned before it must be recomputed; must not be {@code null};
+   * must be positive
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code timeToLive} is not positive
+   *
+   * @see #ExpiringSupplier(Supplier, Duration, Duration, LongSupplier)
+   */
+  public ExpiringSupplier(final Supplier<? extends T> supplier, final Duration timeToLive) {
+    this(supplier, timeToLive, timeToLive, System::nanoTime);
+  }
+
+  /**
+   * Creates a new {@link ExpiringSupplier}.
+   *
+   * @param supplier the {@link Supplier} that will compute values; must not be {@code null}; <strong>must be safe for
+   * concurrent use by multiple threads</strong>
+   *
+   * @param timeToLive how long a computed value may be returned before it must be recomputed; must not be {@code null};
+   * must be positive
+   *
+   * @param refreshAfterWrite how long a computed value may be returned before it should be refreshed; must not be
+   * {@code null}; must be positive and no greater than {@code timeToLive}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code timeToLive} or {@code refreshAfterWrite} is not positive, or if
+   * {@code refreshAfterWrite} is greater than {@code timeToLive}
+   *
+   * @see #ExpiringSupplier(Supplier, Duration, Duration, LongSupplier)
+   */
+  public ExpiringSupplier(final Supplier<? extends T> supplier,
+                          final Duration timeToLive,
+                          final Duration refreshAfterWrite) {
+    this(supplier, timeToLive, refreshAfterWrite, System::nanoTime);
+  }
+
+  /**
+   * Creates a new {@link ExpiringSupplier}.
+   *
+   * @param supplier the {@link Supplier} that will compute values; must not be {@code null}; <strong>must be safe for
+   * concurrent use by multiple threads</strong>
+   *
+   * @param timeToLive how long a computed value may be returned before it must be recomputed; must not be {@code null};
+   * must be positive
+   *
+   * @param refreshAfterWrite how long a computed value may be returned before it should be refreshed; must not be
+   * {@code null}; must be positive and no greater than {@code timeToLive}
+   *
+   * @param ticker a {@link LongSupplier} returning a monotonically increasing number of nanoseconds, such as {@link
+   * System#nanoTime()}; must not be {@code null}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code timeToLive} or {@code refreshAfterWrite} is not positive, or if
+   * {@code refreshAfterWrite} is greater than {@code timeToLive}
+   *
+   * @see #ExpiringSupplier(Supplier, Duration, Duration, Executor, LongSupplier)
+   */
+  public ExpiringSupplier(final Supplier<? extends T> supplier,
+                          final Duration timeToLive,
+                          final Duration refreshAfterWrite,
+                          final LongSupplier ticker) {
+    this(supplier, timeToLive, refreshAfterWrite, null, ticker);
+  }
+
+  /**
+   * Creates a new {@link ExpiringSupplier} that refreshes values in the background using the supplied {@link
+   * Executor}.
+   *
+   * @param supplier the {@link Supplier} that will compute values; must not be {@code null}; <strong>must be safe for
+   * concurrent use by multiple threads</strong>
+   *
+   * @param timeToLive the maximum staleness: how long a computed value may be returned before callers must wait for it
+   * to be recomputed; must not be {@code null}; must be positive
+   *
+   * @param refreshAfterWrite how long a computed value may be returned before a background refresh is submitted to the
+   * supplied {@code executor}; must not be {@code null}; must be positive and no greater than {@code timeToLive}
+   *
+   * @param executor the {@link Executor} that will perform background refreshes; must not be {@code null}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code timeToLive} or {@code refreshAfterWrite} is not positive, or if
+   * {@code refreshAfterWrite} is greater than {@code timeToLive}
+   *
+   * @see #ExpiringSupplier(Supplier, Duration, Duration, Executor, LongSupplier)
+   */
+  public ExpiringSupplier(final Supplier<? extends T> supplier,
+                          final Duration timeToLive,
+                          final Duration refreshAfterWrite,
+                          final Executor executor) {
+    this(supplier, timeToLive, refreshAfterWrite, Objects.requireNonNull(executor, "executor"), System::nanoTime);
+  }
+
+  /**
+   * Creates a new {@link ExpiringSupplier}.
+   *
+   * @param supplier the {@link Supplier} that will compute values; must not be {@code null}; <strong>must be safe for
+   * concurrent use by multiple threads</strong>
+   *
+   * @param timeToLive how long a computed value may be returned before callers must wait for it to be recomputed; must
+   * not be {@code null}; must be positive
+   *
+   * @param refreshAfterWrite how long a computed value may be returned before it should be refreshed; must not be
+   * {@code null}; must be positive and no greater than {@code timeToLive}
+   *
+   * @param executor the {@link Executor} that will perform background refreshes; may be {@code null} in which case
+   * refreshes will be performed by the first caller to notice that one is due, while concurrent callers continue to
+   * receive the existing value
+   *
+   * @param ticker a {@link LongSupplier} returning a monotonically increasing number of nanoseconds, such as {@link
+   * System#nanoTime()}; must not be {@code null}
+   *
+   * @exception NullPointerException if {@code supplier}, {@code timeToLive}, {@code refreshAfterWrite} or {@code
+   * ticker} is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code timeToLive} or {@code refreshAfterWrite} is not positive, or if
+   * {@code refreshAfterWrite} is greater than {@code timeToLive}
+   */
+  public ExpiringSupplier(final Supplier<? extends T> supplier,
+                          final Duration timeToLive,
+                          final Duration refreshAfterWrite,
+                          final Executor executor,
+                          final LongSupplier ticker) {
+    super();
+    this.delegate = OptionalSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+    this.timeToLive = timeToLive.toNanos();
+    if (this.timeToLive <= 0L) {
+      throw new IllegalArgumentException("timeToLive: " + timeToLive);
+    }
+    this.refreshAfterWrite = refreshAfterWrite.toNanos();
+    if (this.refreshAfterWrite <= 0L || this.refreshAfterWrite > this.timeToLive) {
+      throw new IllegalArgumentException("refreshAfterWrite: " + refreshAfterWrite);
+    }
+    this.ticker = Objects.requireNonNull(ticker, "ticker");
+    this.executor = executor;
+    this.lock = new ReentrantLock();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns {@link Determinism#NON_DETERMINISTIC} when invoked, since the values this {@link ExpiringSupplier} supplies
+   * change over time.
+   *
+   * @return {@link Determinism#NON_DETERMINISTIC} when invoked
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final Determinism determinism() {
+    return Determinism.NON_DETERMINISTIC;
+  }
+
+  /**
+   * Returns the currently cached value, computing or refreshing it first if necessary.
+   *
+   * <p>If the delegate {@link Supplier} indicates absence when a value is being computed or refreshed by a caller, any
+   * cached value is discarded and absence is indicated to the caller.  If it throws any other {@link RuntimeException}
+   * while a caller is refreshing a value that has not yet expired, the existing value is retained and the exception is
+   * thrown.  Background refreshes never discard a value before it expires.</p>
+   *
+   * @return the value, which may be {@code null}
+   *
+   * @exception NoSuchElementException if the delegate {@link Supplier} indicates absence
+   *
+   * @exception UnsupportedOperationException if the delegate {@link Supplier} indicates absence
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is neither idempotent nor deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final T get() {
+    return this.entry(false).value;
+  }
+
+  /**
+   * Returns the currently cached value, computing or refreshing it first if necessary, or, if the delegate {@link
+   * Supplier} indicates absence, returns the supplied {@code other} value, without throwing any exception to do so.
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the value, which may be {@code null}, or {@code other}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is neither idempotent nor deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #get()
+   */
+  @Override // OptionalSupplier<T>
+  public final T orElse(final T other) {
+    final Entry<T> e = this.entry(true);
+    return e == null ? other : e.value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private final Entry<T> entry(final boolean probe) {
+    Entry<T> e = (Entry<T>)ENTRY.getAcquire(this);
+    if (e != null) {
+      final long age = this.ticker.getAsLong() - e.written;
+      if (age < this.refreshAfterWrite) {
+        // Fresh.
+        return e;
+      } else if (age < this.timeToLive) {
+        // Stale but not expired.  Refresh, unless someone else already is, in which case return what we have.
+        if (this.executor != null) {
+          this.refreshInBackground(e);
+          return e;
+        } else if (!this.lock.tryLock()) {
+          return e;
+        }
+        try {
+          final Entry<T> current = (Entry<T>)ENTRY.getAcquire(this);
+          if (current == e) {
+            return this.compute(probe);
+          } else if (current != null) {
+            return current;
+          }
+        } finally {
+          this.lock.unlock();
+        }
+      }
+    }
+    // Not yet computed, or expired.  Wait for (or perform) the computation.
+    this.lock.lock();
+    try {
+      e = (Entry<T>)ENTRY.getAcquire(this);
+      if (e != null && this.ticker.getAsLong() - e.written < this.timeToLive) {
+        return e;
+      }
+      return this.compute(probe);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private final void refreshInBackground(final Entry<T> e) {
+    if (REFRESHING.compareAndSet(this, false, true)) {
+      try {
+        this.executor.execute(() -> this.refresh(e));
+      } catch (final RejectedExecutionException ree) {
+        REFRESHING.setRelease(this, false);
+      }
+    }
+  }
+
+  // Performs a background refresh of e, which was current when the refresh was submitted.
+  private final void refresh(final Entry<T> e) {
+    RuntimeException failure = null;
+    this.lock.lock();
+    try {
+      // Don't clobber a value computed (by a blocked caller) since this refresh was submitted.
+      if (ENTRY.getAcquire(this) == e) {
+        final T value = this.delegate.orElse(Absence.token());
+        // On absence, keep serving the stale value until it expires.
+        if (!Absence.isToken(value)) {
+          ENTRY.setRelease(this, new Entry<>(value, this.ticker.getAsLong()));
+          this.changed();
+        }
+      }
+    } catch (final RuntimeException x) {
+      // Keep serving the stale value until it expires.
+      failure = x;
+    } finally {
+      this.lock.unlock();
+      REFRESHING.setRelease(this, false);
+    }
+    if (failure != null) {
+      // Report the failure rather than letting it escape into (and possibly terminate a thread of) the executor.
+      final Thread t = Thread.currentThread();
+      t.getUncaughtExceptionHandler().uncaughtException(t, failure);
+    }
+  }
+
+  // Must be called while holding this.lock.
+  private final Entry<T> compute(final boolean probe) {
+    final T value;
+    if (probe) {
+      value = this.delegate.orElse(Absence.token());
+      if (Absence.isToken(value)) {
+        ENTRY.setRelease(this, null);
+        this.changed();
+        return null;
+      }
+    } else {
+      try {
+        value = this.delegate.get();
+      } catch (final NoSuchElementException | UnsupportedOperationException e) {
+        ENTRY.setRelease(this, null);
+        this.changed();
+        throw e;
+      }
+    }
+    final Entry<T> e = new Entry<>(value, this.ticker.getAsLong());
+    ENTRY.setRelease(this, e);
+    this.changed();
+    return e;
+  }
+
+  // Returns the number of nanoseconds until the cached value is next due to be refreshed or, if a refresh is already
+  // due, to expire, or a negative number if no value is cached or it has already expired.  For
+  // OptionalSupplierPublisher, which pushes refreshed values to subscribers without waiting for a caller.
+  @SuppressWarnings("unchecked")
+  final long nanosUntilDue() {
+    final Entry<T> e = (Entry<T>)ENTRY.getAcquire(this);
+    if (e == null) {
+      return -1L;
+    }
+    final long age = this.ticker.getAsLong() - e.written;
+    if (age < this.refreshAfterWrite) {
+      return this.refreshAfterWrite - age;
+    } else if (age < this.timeToLive) {
+      return this.timeToLive - age;
+    }
+    return -1L;
+  }
+
+  // Returns the ChangeListeners for this ExpiringSupplier, creating them if necessary.  For OptionalSupplierPublisher.
+  final ChangeListeners changeListeners() {
+    final ChangeListeners c = (ChangeListeners)CHANGE_LISTENERS.getAcquire(this);
+    if (c != null) {
+      return c;
+    }
+    final ChangeListeners n = new ChangeListeners();
+    final ChangeListeners witness = (ChangeListeners)CHANGE_LISTENERS.compareAndExchange(this, null, n);
+    return witness == null ? n : witness;
+  }
+
+  private final void changed() {
+    final ChangeListeners c = (ChangeListeners)CHANGE_LISTENERS.getAcquire(this);
+    if (c != null) {
+      c.changed();
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns a new {@link ExpiringSupplier} that refreshes values in the background, in a
+   * <em>stale-while-revalidate</em> fashion, using a default {@link Executor}.
+   *
+   * <p>On Java runtimes that support virtual threads, the default {@link Executor} runs each refresh in a new virtual
+   * thread.  Otherwise it is the {@linkplain java.util.concurrent.ForkJoinPool#commonPool() common pool}.</p>
+   *
+   * @param <T> the type of value the returned {@link ExpiringSupplier} will {@linkplain #get() supply}
+   *
+   * @param supplier the {@link Supplier} that will compute values; must not be {@code null}; <strong>must be safe for
+   * concurrent use by multiple threads</strong>
+   *
+   * @param timeToLive the maximum staleness: how long a computed value may be returned before callers must wait for it
+   * to be recomputed; must not be {@code null}; must be positive
+   *
+   * @param refreshAfterWrite how long a computed value may be returned before a background refresh is started; must not
+   * be {@code null}; must be positive and no greater than {@code timeToLive}
+   *
+   * @return a new {@link ExpiringSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if any argument is {@code null}
+   *
+   * @exception IllegalArgumentException if {@code timeToLive} or {@code refreshAfterWrite} is not positive, or if
+   * {@code refreshAfterWrite} is greater than {@code timeToLive}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #ExpiringSupplier(Supplier, Duration, Duration, Executor)
+   */
+  public static final <T> ExpiringSupplier<T> staleWhileRevalidate(final Supplier<? extends T> supplier,
+                                                                   final Duration timeToLive,
+                                                                   final Duration refreshAfterWrite) {
+    return new ExpiringSupplier<>(supplier, timeToLive, refreshAfterWrite, DefaultExecutor.instance());
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class Entry<T> {
+
+    private final T value;
+
+    private final long written;
+
+    private Entry(final T value, final long written) {
+      super();
+      this.value = value;
+      this.written = written;
+    }
+
+  }
+
+}
@@ -0,0 +1,280 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import java.util.function.Supplier;
+
+/**
+ * An {@link OptionalSupplier} that supplies the value supplied by the first of a sequence of {@link Supplier}s that
+ * does not indicate absence.
+ *
+ * <p>Unlike a chain of nested {@linkplain OptionalSupplier#of(Supplier, Supplier) defaulting suppliers}, a {@link
+ * FallbackOptionalSupplier} holds its members in a flat array and scans them in a loop, probing each with {@link
+ * OptionalSupplier#orElse(Object)} rather than catching exceptions.  At construction time, nested defaulting suppliers
+ * and {@link FallbackOptionalSupplier}s are flattened, members whose {@linkplain OptionalSupplier#determinism()
+ * determinism} is {@link Determinism#ABSENT} are dropped, and members following the first member whose determinism is
+ * {@link Determinism#PRESENT} are discarded, since they can never be consulted.</p>
+ *
+ * @param <T> the type of value this {@link FallbackOptionalSupplier} {@linkplain #get() supplies}
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #of(Supplier...)
+ *
+ * @see OptionalSupplier#of(Supplier, Supplier)
+ */
+public final class FallbackOptionalSupplier<T> implements OptionalSupplier<T> {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalSupplier<T>[] members;
+
+  // The determinism computed at construction time.
+  private final Determinism determinism;
+
+  // null until a DETERMINISTIC outcome has settled; then an immutable Resolution that is read, racily but safely thanks
+  // to its final fields, on every subsequent call.  A racing reader that sees null merely re-resolves.
+  private Resolution<T> resolution;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  @SuppressWarnings("unchecked")
+  private FallbackOptionalSupplier(final List<? extends Supplier<? extends T>> suppliers) {
+    super();
+    final List<OptionalSupplier<T>> members = new ArrayList<>(suppliers.size());
+    for (final Supplier<? extends T> supplier : suppliers) {
+      if (flatten(supplier, members)) {
+        break;
+      }
+    }
+    this.members = (OptionalSupplier<T>[])members.toArray(new OptionalSupplier<?>[0]);
+    Determinism determinism = this.members.length == 0 ? Determinism.ABSENT : Determinism.DETERMINISTIC;
+    for (final OptionalSupplier<T> member : this.members) {
+      if (!member.determinism().deterministic()) {
+        determinism = Determinism.NON_DETERMINISTIC;
+        break;
+      }
+    }
+    this.determinism = determinism;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the {@link Determinism} of this {@link FallbackOptionalSupplier}.
+   *
+   * <p>If this {@link FallbackOptionalSupplier} has no members, the return value is {@link Determinism#ABSENT}.  If all
+   * of its members are deterministic, the return value is {@link Determinism#DETERMINISTIC} until the first probe, and
+   * then either {@link Determinism#PRESENT} or {@link Determinism#ABSENT}, and the outcome of that probe is remembered
+   * and returned thereafter without consulting any member.  Otherwise the return value is {@link
+   * Determinism#NON_DETERMINISTIC}.</p>
+   *
+   * @return the {@link Determinism} of this {@link FallbackOptionalSupplier}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final Determinism determinism() {
+    final Resolution<T> r = this.resolution;
+    return r == null ? this.determinism : r.determinism();
+  }
+
+  /**
+   * Returns the value supplied by the first member that does not indicate absence.
+   *
+   * @return the value, which may be {@code null}
+   *
+   * @exception NoSuchElementException if every member indicates absence
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if every member is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final T get() {
+    final T value = this.orElse(Absence.token());
+    if (Absence.isToken(value)) {
+      throw Absence.noSuchElementException();
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value supplied by the first member that does not indicate absence, or, if every member indicates
+   * absence, the supplied {@code other} value, without throwing or catching any exception to do so unless a member
+   * does.
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the value, which may be {@code null}, or {@code other}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if every member is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final T orElse(final T other) {
+    final Resolution<T> r = this.resolution;
+    if (r != null) {
+      return r.orElse(other);
+    }
+    final Determinism determinism = this.determinism;
+    if (determinism == Determinism.ABSENT) {
+      return other;
+    }
+    for (final OptionalSupplier<T> member : this.members) {
+      final T value = member.orElse(Absence.token());
+      if (!Absence.isToken(value)) {
+        if (determinism == Determinism.DETERMINISTIC) {
+          // Every member will forever do what it just did, so this value will always be the outcome.  Remember it.
+          this.resolution = Resolution.present(value);
+        }
+        return value;
+      }
+    }
+    if (determinism == Determinism.DETERMINISTIC) {
+      this.resolution = Resolution.absent();
+    }
+    return other;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns an {@link OptionalSupplier} that supplies the value supplied by the first of the supplied {@link Supplier}s
+   * that does not indicate absence.
+   *
+   * <p>{@code null} elements are ignored.  If, after flattening, there are no members, {@link Absence#instance()} is
+   * returned.  If there is exactly one, it is returned as-is.</p>
+   *
+   * @param <T> the type of value the returned {@link OptionalSupplier} will {@linkplain #get() supply}
+   *
+   * @param suppliers the {@link Supplier}s, in order of precedence; must not be {@code null}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code suppliers} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is deterministic but not idempotent.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @SafeVarargs
+  public static final <T> OptionalSupplier<T> of(final Supplier<? extends T>... suppliers) {
+    final List<Supplier<? extends T>> list = new ArrayList<>(suppliers.length);
+    for (final Supplier<? extends T> supplier : suppliers) {
+      list.add(supplier);
+    }
+    return of(list);
+  }
+
+  /**
+   * Returns an {@link OptionalSupplier} that supplies the value supplied by the first of the supplied {@link Supplier}s
+   * that does not indicate absence.
+   *
+   * <p>{@code null} elements are ignored.  If, after flattening, there are no members, {@link Absence#instance()} is
+   * returned.  If there is exactly one, it is returned as-is.</p>
+   *
+   * @param <T> the type of value the returned {@link OptionalSupplier} will {@linkplain #get() supply}
+   *
+   * @param suppliers the {@link Supplier}s, in order of precedence; must not be {@code null}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code suppliers} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is deterministic but not idempotent.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final <T> OptionalSupplier<T> of(final List<? extends Supplier<? extends T>> suppliers) {
+    final FallbackOptionalSupplier<T> s = new FallbackOptionalSupplier<>(suppliers);
+    switch (s.members.length) {
+    case 0:
+      return Absence.instance();
+    case 1:
+      return s.members[0];
+    default:
+      return s;
+    }
+  }
+
+  // Adds the members represented by supplier to members, flattening as it goes, and returns true if no further
+  // suppliers can ever be consulted.  RacingOptionalSupplier flattens its members the same way.
+  @SuppressWarnings("unchecked")
+  static final <T> boolean flatten(final Supplier<? extends T> supplier, final List<OptionalSupplier<T>> members) {
+    if (supplier == null) {
+      return false;
+    } else if (supplier instanceof FallbackOptionalSupplier<? extends T> f) {
+      if (f.determinism() == Determinism.ABSENT) {
+        return false;
+      }
+      for (final OptionalSupplier<? extends T> member : f.members) {
+        if (flatten(member, members)) {
+          return true;
+        }
+      }
+      return false;
+    } else if (supplier instanceof DefaultingOptionalSupplier<? extends T> d) {
+      if (d.determinism() == Determinism.ABSENT) {
+        return false;
+      }
+      return flatten(d.supplier(), members) || flatten(d.defaults(), members);
+    }
+    final OptionalSupplier<T> s = OptionalSupplier.of(supplier);
+    switch (s.determinism()) {
+    case ABSENT:
+      return false;
+    case PRESENT:
+      members.add(s);
+      return true;
+    default:
+      members.add(s);
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,142 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.OptionalInt;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An {@link OptionalIntSupplier} that supplies a fixed {@code int} value without boxing it.
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see FixedValueSupplier
+ */
+public final class FixedIntValueSupplier implements OptionalIntSupplier {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final int value;
+
+  private final OptionalInt optional;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private FixedIntValueSupplier(final int value) {
+    super();
+    this.value = value;
+    this.optional = OptionalInt.of(value);
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns {@link Determinism#PRESENT} when invoked.
+   *
+   * @return {@link Determinism#PRESENT} when invoked
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalIntSupplier
+  public final Determinism determinism() {
+    return Determinism.PRESENT;
+  }
+
+  /**
+   * Returns the value supplied at construction time.
+   *
+   * @return the value supplied at construction time
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalIntSupplier
+  public final int getAsInt() {
+    return this.value;
+  }
+
+  /**
+   * Returns the value supplied at construction time, ignoring the supplied {@code other} value.
+   *
+   * @param other the alternate value; ignored
+   *
+   * @return the value supplied at construction time
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalIntSupplier
+  public final int orElse(final int other) {
+    return this.value;
+  }
+
+  /**
+   * Returns a non-empty {@link OptionalInt} containing the value supplied at construction time, without allocating.
+   *
+   * @return a non-empty {@link OptionalInt}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalIntSupplier
+  public final OptionalInt optional() {
+    return this.optional;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns a {@link FixedIntValueSupplier} supplying the supplied value.
+   *
+   * @param value the value
+   *
+   * @return a {@link FixedIntValueSupplier}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final FixedIntValueSupplier of(final int value) {
+    return new FixedIntValueSupplier(value);
+  }
+
+}
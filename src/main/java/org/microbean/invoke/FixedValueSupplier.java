@@ -16,16 +16,90 @@
  */
 package org.microbean.invoke;
 
+import java.lang.ref.WeakReference;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * An {@link OptionalSupplier} implementation that supplies a fixed
  * value.
  *
+ * <p>The {@link #of(Object)} method returns shared, canonical
+ * instances for {@code null}, {@link Boolean#TRUE}, {@link
+ * Boolean#FALSE}, the {@link Integer}s cached by {@link
+ * Integer#valueOf(int)}, the {@link String} literal {@code ""}, and
+ * the constants of enums defined by the bootstrap class loader or by
+ * this class's own class loader.  In every case the value supplied
+ * is identical to the value passed in.  The {@link
+ * #interned(Object)} method additionally shares instances for
+ * arbitrary equal values.</p>
+ *
  * @author <a href="https://about.me/lairdnelson"
  * target="_parent">Laird Nelson</a>
+ *
+ * @see #of(Object)
+ *
+ * @see #interned(Object)
  */
 public final class FixedValueSupplier<T> implements OptionalSupplier<T> {
 
 
+  /*
+   * Static fields.
+   */
+
+
+  private static final FixedValueSupplier<?> NULL = new FixedValueSupplier<>(null);
+
+  private static final FixedValueSupplier<?> TRUE = new FixedValueSupplier<>(Boolean.TRUE);
+
+  private static final FixedValueSupplier<?> FALSE = new FixedValueSupplier<>(Boolean.FALSE);
+
+  private static final FixedValueSupplier<?> EMPTY_STRING = new FixedValueSupplier<>("");
+
+  // The range of Integer.valueOf(int)'s cache that the JLS guarantees.
+  private static final int LOW = -128;
+
+  private static final int HIGH = 127;
+
+  private static final FixedValueSupplier<?>[] INTEGERS = new FixedValueSupplier<?>[HIGH - LOW + 1];
+
+  static {
+    for (int i = 0; i < INTEGERS.length; i++) {
+      INTEGERS[i] = new FixedValueSupplier<>(Integer.valueOf(i + LOW));
+    }
+  }
+
+  // Indexed by ordinal.  Only consulted for enums whose class loader outlives this class (see canonical(Object)), so
+  // that no FixedValueSupplier array here ever keeps another class loader's enum constants reachable.
+  private static final ClassValue<FixedValueSupplier<?>[]> ENUM_CONSTANTS = new ClassValue<>() {
+      @Override
+      protected final FixedValueSupplier<?>[] computeValue(final Class<?> c) {
+        final Object[] constants = c.getEnumConstants();
+        final FixedValueSupplier<?>[] suppliers = new FixedValueSupplier<?>[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+          suppliers[i] = new FixedValueSupplier<>(constants[i]);
+        }
+        return suppliers;
+      }
+    };
+
+  // Must be a power of two.
+  private static final int INTERNED_SIZE = 1024;
+
+  // A bounded, direct-mapped table: a value's slot is determined by
+  // its hash code, and a new value evicts whatever occupied its slot.
+  // Entries are weak, so an interned FixedValueSupplier, and the value
+  // it holds, can be collected once nothing else refers to it.
+  private static final AtomicReferenceArray<WeakReference<FixedValueSupplier<?>>> INTERNED =
+    new AtomicReferenceArray<>(INTERNED_SIZE);
+
+
+  /*
+   * Instance fields.
+   */
+
+
   private final T value;
 
 
@@ -89,6 +163,28 @@ public final class FixedValueSupplier<T> implements OptionalSupplier<T> {
     return this.value;
   }
 
+  /**
+   * Returns the value supplied {@linkplain
+   * #FixedValueSupplier(Object) at construction time}, which may be
+   * {@code null}, ignoring the supplied {@code other} value.
+   *
+   * @param other the alternate value; ignored
+   *
+   * @return the value supplied {@linkplain
+   * #FixedValueSupplier(Object) at construction time}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by
+   * multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final T orElse(final T other) {
+    return this.value;
+  }
+
 
   /*
    * Static methods.
@@ -99,6 +195,18 @@ public final class FixedValueSupplier<T> implements OptionalSupplier<T> {
    * Returns a {@link FixedValueSupplier} {@linkplain #get()
    * supplying} the supplied value.
    *
+   * <p>If the supplied value is {@code null}, {@link Boolean#TRUE},
+   * {@link Boolean#FALSE}, an {@link Integer} returned by {@link
+   * Integer#valueOf(int)} for a value between {@code -128} and {@code
+   * 127}, inclusive, the {@link String} literal {@code ""} itself, or
+   * a constant of an enum defined by the bootstrap class loader or by
+   * this class's own class loader, a shared, canonical {@link
+   * FixedValueSupplier} is returned.  Otherwise, including for an
+   * empty {@link String} other than the literal, a new {@link
+   * FixedValueSupplier} is returned.  Either way, the {@link #get()}
+   * method of the returned {@link FixedValueSupplier} returns the
+   * very object supplied.</p>
+   *
    * @param <T> the type of the value the returned {@link
    * FixedValueSupplier} will {@linkplain #get() supply}
    *
@@ -110,13 +218,110 @@ public final class FixedValueSupplier<T> implements OptionalSupplier<T> {
    *
    * @nullability This method never returns {@code null}.
    *
-   * @idempotency This method is idempotent and deterministic.
+   * @idempotency This method is deterministic, and idempotent for
+   * the values listed above.
    *
    * @threadsafety This method is safe for concurrent use by
    * multiple threads.
+   *
+   * @see #interned(Object)
    */
   public static final <T> FixedValueSupplier<T> of(final T value) {
-    return new FixedValueSupplier<>(value);
+    final FixedValueSupplier<T> canonical = canonical(value);
+    return canonical == null ? new FixedValueSupplier<>(value) : canonical;
+  }
+
+  /**
+   * Returns a {@link FixedValueSupplier} {@linkplain #get()
+   * supplying} the supplied value, or one supplying an equal value of
+   * the same class, sharing it with other callers where possible.
+   *
+   * <p>Values for which the {@link #of(Object)} method returns a
+   * canonical {@link FixedValueSupplier} are handled in the same way.
+   * Other values are looked up in a bounded, weakly-referencing table
+   * of recently interned {@link FixedValueSupplier}s; a miss replaces
+   * at most one entry.  Sharing is therefore likely, but not
+   * guaranteed, for equal values.</p>
+   *
+   * <p>This method is suitable only for immutable values whose {@link
+   * Object#equals(Object)} and {@link Object#hashCode()} methods are
+   * consistent, since the value that is {@linkplain #get() supplied}
+   * may be an equal one supplied by another caller.</p>
+   *
+   * @param <T> the type of the value the returned {@link
+   * FixedValueSupplier} will {@linkplain #get() supply}
+   *
+   * @param value the value; may be {@code null}
+   *
+   * @return a {@link FixedValueSupplier} {@linkplain #get()
+   * supplying} the supplied value or an equal one
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is deterministic but not necessarily
+   * idempotent.
+   *
+   * @threadsafety This method is safe for concurrent use by
+   * multiple threads.
+   *
+   * @see #of(Object)
+   */
+  @SuppressWarnings("unchecked")
+  public static final <T> FixedValueSupplier<T> interned(final T value) {
+    final FixedValueSupplier<T> canonical = canonical(value);
+    if (canonical != null) {
+      return canonical;
+    }
+    final int h = value.hashCode();
+    final int index = (h ^ (h >>> 16)) & (INTERNED_SIZE - 1);
+    final WeakReference<FixedValueSupplier<?>> r = INTERNED.getAcquire(index);
+    if (r != null) {
+      final FixedValueSupplier<?> s = r.get();
+      // The classes must match too, or an equal value of another
+      // class (a different List implementation, say) could be
+      // supplied where the caller expects its own.
+      if (s != null && s.value.getClass() == value.getClass() && value.equals(s.value)) {
+        return (FixedValueSupplier<T>)s;
+      }
+    }
+    final FixedValueSupplier<T> s = new FixedValueSupplier<>(value);
+    INTERNED.setRelease(index, new WeakReference<>(s));
+    return s;
+  }
+
+  // Returns the shared FixedValueSupplier for the supplied value, or
+  // null if there isn't one.
+  @SuppressWarnings("unchecked")
+  private static final <T> FixedValueSupplier<T> canonical(final T value) {
+    if (value == null) {
+      return (FixedValueSupplier<T>)NULL;
+    } else if (value instanceof Boolean) {
+      // Only the canonical Boolean instances; a caller that went out
+      // of its way to create another one gets it back.
+      if (value == Boolean.TRUE) {
+        return (FixedValueSupplier<T>)TRUE;
+      } else if (value == Boolean.FALSE) {
+        return (FixedValueSupplier<T>)FALSE;
+      }
+    } else if (value instanceof Integer i) {
+      final int v = i.intValue();
+      if (v >= LOW && v <= HIGH && value == Integer.valueOf(v)) {
+        return (FixedValueSupplier<T>)INTEGERS[v - LOW];
+      }
+    } else if (value instanceof String) {
+      // Only the literal itself; like Boolean, an equal String is the
+      // caller's own and is supplied as-is.
+      if (value == "") {
+        return (FixedValueSupplier<T>)EMPTY_STRING;
+      }
+    } else if (value instanceof Enum<?> e) {
+      final Class<?> c = e.getDeclaringClass();
+      final ClassLoader cl = c.getClassLoader();
+      if (cl == null || cl == FixedValueSupplier.class.getClassLoader()) {
+        return (FixedValueSupplier<T>)ENUM_CONSTANTS.get(c)[e.ordinal()];
+      }
+    }
+    return null;
   }
 
 }
@@ -0,0 +1,228 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import java.util.function.BooleanSupplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * A {@link BooleanSupplier} that, like an {@link OptionalSupplier}, may indicate absence, and that supplies {@code
+ * boolean} values without boxing them.
+ *
+ * <p>Implementations indicate absence by throwing a {@link NoSuchElementException} or an {@link
+ * UnsupportedOperationException} from the {@link #getAsBoolean()} method.  The {@link #optional()} method is the
+ * primitive on which the other default methods are built, and implementations are encouraged to override it so that it
+ * neither throws nor catches any exception, nor allocates any object, on the hot path.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see OptionalSupplier
+ *
+ * @see #optional()
+ */
+@FunctionalInterface
+public interface OptionalBooleanSupplier extends BooleanSupplier {
+
+  /**
+   * Returns a {@link Determinism} denoting the presence of values returned by this {@link OptionalBooleanSupplier}'s
+   * {@link #getAsBoolean()} method, with the same semantics as {@link OptionalSupplier#determinism()}.
+   *
+   * <p>The default implementation of this method returns {@link Determinism#NON_DETERMINISTIC}.</p>
+   *
+   * @return a {@link Determinism}; never {@code null}
+   *
+   * @nullability Implementations of this method must not return {@code null}.
+   *
+   * @idempotency Implementations of this method must be idempotent and deterministic.
+   *
+   * @threadsafety Implementations of this method must be safe for concurrent use by multiple threads.
+   *
+   * @see OptionalSupplier#determinism()
+   */
+  public default Determinism determinism() {
+    return Determinism.NON_DETERMINISTIC;
+  }
+
+  /**
+   * Returns a value, which may be the same as or different from the value returned by a prior invocation of this
+   * method.
+   *
+   * @return a value
+   *
+   * @exception NoSuchElementException if this method indicates absence
+   *
+   * @exception UnsupportedOperationException if this method indicates absence
+   *
+   * @idempotency No guarantees are made about either the idempotency or determinism of this method.
+   *
+   * @threadsafety Implementations of this method must be safe for concurrent use by multiple threads.
+   */
+  @Override // BooleanSupplier
+  public boolean getAsBoolean();
+
+  /**
+   * Returns the result of invoking the {@link #getAsBoolean()} method, or, if it indicates absence, the supplied {@code
+   * other} value.
+   *
+   * <p>The default implementation of this method is built on the {@link #optional()} method.</p>
+   *
+   * @param other the alternate value
+   *
+   * @return the value, or {@code other}
+   *
+   * @idempotency No guarantees are made about either the idempotency or determinism of this method.
+   *
+   * @threadsafety This method is, and overrides must be, safe for concurrent use by multiple threads.
+   */
+  public default boolean orElse(final boolean other) {
+    final Optional<Boolean> optional = this.optional();
+    return optional.isPresent() ? optional.get() : other;
+  }
+
+  /**
+   * Returns an {@link Optional} representing the result of invoking the {@link #getAsBoolean()} method.
+   *
+   * <p>The default implementation of this method returns an empty {@link Optional} without invoking the {@link
+   * #getAsBoolean()} method if the {@link #determinism()} method returns {@link Determinism#ABSENT}, and otherwise
+   * catches the {@link NoSuchElementException}s and {@link UnsupportedOperationException}s that the {@link
+   * #getAsBoolean()} method throws, which may be expensive.  Overrides are therefore encouraged.</p>
+   *
+   * @return an {@link Optional}; never {@code null}
+   *
+   * @nullability This method does not, and overrides must not, return {@code null}.
+   *
+   * @idempotency No guarantees are made about either the idempotency or determinism of this method.
+   *
+   * @threadsafety This method is, and overrides must be, safe for concurrent use by multiple threads.
+   */
+  public default Optional<Boolean> optional() {
+    if (this.determinism() == Determinism.ABSENT) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Boolean.valueOf(this.getAsBoolean()));
+    } catch (final NoSuchElementException | UnsupportedOperationException e) {
+      return Optional.empty();
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns an {@link OptionalBooleanSupplier} whose {@link #determinism()} method will return the supplied {@link
+   * Determinism} and whose {@link #getAsBoolean()} method will return the result of invoking the {@link
+   * BooleanSupplier#getAsBoolean()} method on the supplied {@code supplier}.
+   *
+   * <p>If the supplied {@link Determinism} is {@link Determinism#DETERMINISTIC} or {@link Determinism#PRESENT}, then,
+   * since the outcome of the supplied {@code supplier} is by contract fixed, it is invoked at most once per racing
+   * thread and its value, or its absence, is remembered.  If the supplied {@code supplier} is already an {@link
+   * OptionalBooleanSupplier} that is at least as deterministic as the supplied {@link Determinism}, it is returned
+   * as-is.</p>
+   *
+   * @param determinism the {@link Determinism} to use; must not be {@code null}
+   *
+   * @param supplier the {@link BooleanSupplier}; must not be {@code null}
+   *
+   * @return an {@link OptionalBooleanSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see OptionalSupplier#of(Determinism, java.util.function.Supplier)
+   */
+  public static OptionalBooleanSupplier of(final Determinism determinism, final BooleanSupplier supplier) {
+    return OptionalBooleanSupplierAdapter.of(determinism, supplier);
+  }
+
+  /**
+   * Returns an {@link OptionalBooleanSupplier} that always supplies the supplied value.
+   *
+   * @param value the value
+   *
+   * @return an {@link OptionalBooleanSupplier}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see FixedBooleanValueSupplier#of(boolean)
+   */
+  public static OptionalBooleanSupplier of(final boolean value) {
+    return FixedBooleanValueSupplier.of(value);
+  }
+
+  /**
+   * Returns an {@link OptionalBooleanSupplier} representing the supplied {@link BooleanSupplier}.
+   *
+   * @param supplier the {@link BooleanSupplier}; must not be {@code null}
+   *
+   * @return the supplied {@code supplier}, if it is already an {@link OptionalBooleanSupplier}, or an {@link
+   * OptionalBooleanSupplier} that delegates to it; never {@code null}
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static OptionalBooleanSupplier of(final BooleanSupplier supplier) {
+    if (supplier instanceof OptionalBooleanSupplier s) {
+      return s;
+    }
+    return supplier::getAsBoolean;
+  }
+
+  /**
+   * Returns an {@link OptionalBooleanSupplier} that supplies the value supplied by the supplied {@code supplier}, or,
+   * if it indicates absence, the value supplied by the supplied {@code defaults}, with a properly implemented {@link
+   * #determinism()} method.
+   *
+   * @param supplier the primary {@link BooleanSupplier}; must not be {@code null}
+   *
+   * @param defaults the fallback {@link BooleanSupplier}; must not be {@code null}
+   *
+   * @return an {@link OptionalBooleanSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see OptionalSupplier#of(java.util.function.Supplier, java.util.function.Supplier)
+   */
+  public static OptionalBooleanSupplier of(final BooleanSupplier supplier, final BooleanSupplier defaults) {
+    return DefaultingOptionalBooleanSupplier.of(supplier, defaults);
+  }
+
+}
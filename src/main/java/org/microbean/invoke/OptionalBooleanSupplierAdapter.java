@@ -0,0 +1,152 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import java.util.function.BooleanSupplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An {@link OptionalBooleanSupplier} that adapts a {@link BooleanSupplier} to a declared {@link Determinism}.
+ *
+ * <p>If the declared {@link Determinism} is {@link Determinism#DETERMINISTIC} or {@link Determinism#PRESENT}, then,
+ * since the outcome of the {@link BooleanSupplier} is by contract fixed, the outcome of the first probe is remembered,
+ * in a single {@code byte} field, and supplied thereafter without consulting it.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see OptionalBooleanSupplier#of(Determinism, BooleanSupplier)
+ */
+final class OptionalBooleanSupplierAdapter implements OptionalBooleanSupplier {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final byte UNRESOLVED = 0;
+
+  private static final byte ABSENT = 1;
+
+  private static final byte FALSE = 2;
+
+  private static final byte TRUE = 3;
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Determinism determinism;
+
+  private final OptionalBooleanSupplier supplier;
+
+  // UNRESOLVED until the outcome has settled; then ABSENT, FALSE or TRUE.  A single byte is written and read
+  // atomically, so it may be read racily.  A racing reader that sees UNRESOLVED merely probes again.
+  private byte resolution;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private OptionalBooleanSupplierAdapter(final Determinism determinism, final BooleanSupplier supplier) {
+    super();
+    this.determinism = determinism;
+    this.supplier = OptionalBooleanSupplier.of(supplier);
+    if (determinism == Determinism.ABSENT) {
+      this.resolution = ABSENT;
+    }
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override // OptionalBooleanSupplier
+  public final Determinism determinism() {
+    switch (this.resolution) {
+    case UNRESOLVED:
+      return this.determinism;
+    case ABSENT:
+      return Determinism.ABSENT;
+    default:
+      return Determinism.PRESENT;
+    }
+  }
+
+  @Override // OptionalBooleanSupplier
+  public final boolean getAsBoolean() {
+    final byte resolution = this.resolve();
+    if (resolution == ABSENT) {
+      throw Absence.noSuchElementException();
+    }
+    return resolution == TRUE;
+  }
+
+  @Override // OptionalBooleanSupplier
+  public final boolean orElse(final boolean other) {
+    final byte resolution = this.resolve();
+    return resolution == ABSENT ? other : resolution == TRUE;
+  }
+
+  @Override // OptionalBooleanSupplier
+  public final Optional<Boolean> optional() {
+    final byte resolution = this.resolve();
+    return resolution == ABSENT ? Optional.empty() : FixedBooleanValueSupplier.of(resolution == TRUE).optional();
+  }
+
+  // Returns ABSENT, FALSE or TRUE, probing the supplier unless the outcome has already settled.
+  private final byte resolve() {
+    byte resolution = this.resolution;
+    if (resolution == UNRESOLVED) {
+      final Optional<Boolean> optional = this.supplier.optional();
+      resolution = optional.isEmpty() ? ABSENT : optional.get() ? TRUE : FALSE;
+      this.resolution = resolution;
+    }
+    return resolution;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  static final OptionalBooleanSupplier of(final Determinism determinism, final BooleanSupplier supplier) {
+    Objects.requireNonNull(determinism, "determinism");
+    Objects.requireNonNull(supplier, "supplier");
+    if (supplier instanceof OptionalBooleanSupplier s) {
+      final Determinism d = s.determinism();
+      if (determinism == d ||
+          determinism == Determinism.NON_DETERMINISTIC ||
+          determinism == Determinism.DETERMINISTIC && d.deterministic()) {
+        // Already at least as deterministic as requested.
+        return s;
+      }
+    } else if (determinism == Determinism.NON_DETERMINISTIC) {
+      return OptionalBooleanSupplier.of(supplier);
+    }
+    return new OptionalBooleanSupplierAdapter(determinism, supplier);
+  }
+
+}
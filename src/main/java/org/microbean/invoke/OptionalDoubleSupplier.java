@@ -0,0 +1,228 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalDouble;
+
+import java.util.function.DoubleSupplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * A {@link DoubleSupplier} that, like an {@link OptionalSupplier}, may indicate absence, and that supplies {@code
+ * double} values without boxing them.
+ *
+ * <p>Implementations indicate absence by throwing a {@link NoSuchElementException} or an {@link
+ * UnsupportedOperationException} from the {@link #getAsDouble()} method.  The {@link #optional()} method is the
+ * primitive on which the other default methods are built, and implementations are encouraged to override it so that it
+ * neither throws nor catches any exception, nor allocates any object, on the hot path.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see OptionalSupplier
+ *
+ * @see #optional()
+ */
+@FunctionalInterface
+public interface OptionalDoubleSupplier extends DoubleSupplier {
+
+  /**
+   * Returns a {@link Determinism} denoting the presence of values returned by this {@link OptionalDoubleSupplier}'s
+   * {@link #getAsDouble()} method, with the same semantics as {@link OptionalSupplier#determinism()}.
+   *
+   * <p>The default implementation of this method returns {@link Determinism#NON_DETERMINISTIC}.</p>
+   *
+   * @return a {@link Determinism}; never {@code null}
+   *
+   * @nullability Implementations of this method must not return {@code null}.
+   *
+   * @idempotency Implementations of this method must be idempotent and deterministic.
+   *
+   * @threadsafety Implementations of this method must be safe for concurrent use by multiple threads.
+   *
+   * @see OptionalSupplier#determinism()
+   */
+  public default Determinism determinism() {
+    return Determinism.NON_DETERMINISTIC;
+  }
+
+  /**
+   * Returns a value, which may be the same as or different from the value returned by a prior invocation of this
+   * method.
+   *
+   * @return a value
+   *
+   * @exception NoSuchElementException if this method indicates absence
+   *
+   * @exception UnsupportedOperationException if this method indicates absence
+   *
+   * @idempotency No guarantees are made about either the idempotency or determinism of this method.
+   *
+   * @threadsafety Implementations of this method must be safe for concurrent use by multiple threads.
+   */
+  @Override // DoubleSupplier
+  public double getAsDouble();
+
+  /**
+   * Returns the result of invoking the {@link #getAsDouble()} method, or, if it indicates absence, the supplied {@code
+   * other} value.
+   *
+   * <p>The default implementation of this method is built on the {@link #optional()} method.</p>
+   *
+   * @param other the alternate value
+   *
+   * @return the value, or {@code other}
+   *
+   * @idempotency No guarantees are made about either the idempotency or determinism of this method.
+   *
+   * @threadsafety This method is, and overrides must be, safe for concurrent use by multiple threads.
+   */
+  public default double orElse(final double other) {
+    final OptionalDouble optional = this.optional();
+    return optional.isPresent() ? optional.getAsDouble() : other;
+  }
+
+  /**
+   * Returns an {@link OptionalDouble} representing the result of invoking the {@link #getAsDouble()} method.
+   *
+   * <p>The default implementation of this method returns an empty {@link OptionalDouble} without invoking the {@link
+   * #getAsDouble()} method if the {@link #determinism()} method returns {@link Determinism#ABSENT}, and otherwise
+   * catches the {@link NoSuchElementException}s and {@link UnsupportedOperationException}s that the {@link
+   * #getAsDouble()} method throws, which may be expensive.  Overrides are therefore encouraged.</p>
+   *
+   * @return an {@link OptionalDouble}; never {@code null}
+   *
+   * @nullability This method does not, and overrides must not, return {@code null}.
+   *
+   * @idempotency No guarantees are made about either the idempotency or determinism of this method.
+   *
+   * @threadsafety This method is, and overrides must be, safe for concurrent use by multiple threads.
+   */
+  public default OptionalDouble optional() {
+    if (this.determinism() == Determinism.ABSENT) {
+      return OptionalDouble.empty();
+    }
+    try {
+      return OptionalDouble.of(this.getAsDouble());
+    } catch (final NoSuchElementException | UnsupportedOperationException e) {
+      return OptionalDouble.empty();
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns an {@link OptionalDoubleSupplier} whose {@link #determinism()} method will return the supplied {@link
+   * Determinism} and whose {@link #getAsDouble()} method will return the result of invoking the {@link
+   * DoubleSupplier#getAsDouble()} method on the supplied {@code supplier}.
+   *
+   * <p>If the supplied {@link Determinism} is {@link Determinism#DETERMINISTIC} or {@link Determinism#PRESENT}, then,
+   * since the outcome of the supplied {@code supplier} is by contract fixed, it is invoked at most once per racing
+   * thread and its value, or its absence, is remembered.  If the supplied {@code supplier} is already an {@link
+   * OptionalDoubleSupplier} that is at least as deterministic as the supplied {@link Determinism}, it is returned
+   * as-is.</p>
+   *
+   * @param determinism the {@link Determinism} to use; must not be {@code null}
+   *
+   * @param supplier the {@link DoubleSupplier}; must not be {@code null}
+   *
+   * @return an {@link OptionalDoubleSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see OptionalSupplier#of(Determinism, java.util.function.Supplier)
+   */
+  public static OptionalDoubleSupplier of(final Determinism determinism, final DoubleSupplier supplier) {
+    return OptionalDoubleSupplierAdapter.of(determinism, supplier);
+  }
+
+  /**
+   * Returns an {@link OptionalDoubleSupplier} that always supplies the supplied value.
+   *
+   * @param value the value
+   *
+   * @return an {@link OptionalDoubleSupplier}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see FixedDoubleValueSupplier#of(double)
+   */
+  public static OptionalDoubleSupplier of(final double value) {
+    return FixedDoubleValueSupplier.of(value);
+  }
+
+  /**
+   * Returns an {@link OptionalDoubleSupplier} representing the supplied {@link DoubleSupplier}.
+   *
+   * @param supplier the {@link DoubleSupplier}; must not be {@code null}
+   *
+   * @return the supplied {@code supplier}, if it is already an {@link OptionalDoubleSupplier}, or an {@link
+   * OptionalDoubleSupplier} that delegates to it; never {@code null}
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static OptionalDoubleSupplier of(final DoubleSupplier supplier) {
+    if (supplier instanceof OptionalDoubleSupplier s) {
+      return s;
+    }
+    return supplier::getAsDouble;
+  }
+
+  /**
+   * Returns an {@link OptionalDoubleSupplier} that supplies the value supplied by the supplied {@code supplier}, or, if
+   * it indicates absence, the value supplied by the supplied {@code defaults}, with a properly implemented {@link
+   * #determinism()} method.
+   *
+   * @param supplier the primary {@link DoubleSupplier}; must not be {@code null}
+   *
+   * @param defaults the fallback {@link DoubleSupplier}; must not be {@code null}
+   *
+   * @return an {@link OptionalDoubleSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see OptionalSupplier#of(java.util.function.Supplier, java.util.function.Supplier)
+   */
+  public static OptionalDoubleSupplier of(final DoubleSupplier supplier, final DoubleSupplier defaults) {
+    return DefaultingOptionalDoubleSupplier.of(supplier, defaults);
+  }
+
+}
@@ -0,0 +1,228 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+
+import java.util.function.IntSupplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An {@link IntSupplier} that, like an {@link OptionalSupplier}, may indicate absence, and that supplies {@code int}
+ * values without boxing them.
+ *
+ * <p>Implementations indicate absence by throwing a {@link NoSuchElementException} or an {@link
+ * UnsupportedOperationException} from the {@link #getAsInt()} method.  The {@link #optional()} method is the primitive
+ * on which the other default methods are built, and implementations are encouraged to override it so that it neither
+ * throws nor catches any exception, nor allocates any object, on the hot path.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see OptionalSupplier
+ *
+ * @see #optional()
+ */
+@FunctionalInterface
+public interface OptionalIntSupplier extends IntSupplier {
+
+  /**
+   * Returns a {@link Determinism} denoting the presence of values returned by this {@link OptionalIntSupplier}'s
+   * {@link #getAsInt()} method, with the same semantics as {@link OptionalSupplier#determinism()}.
+   *
+   * <p>The default implementation of this method returns {@link Determinism#NON_DETERMINISTIC}.</p>
+   *
+   * @return a {@link Determinism}; never {@code null}
+   *
+   * @nullability Implementations of this method must not return {@code null}.
+   *
+   * @idempotency Implementations of this method must be idempotent and deterministic.
+   *
+   * @threadsafety Implementations of this method must be safe for concurrent use by multiple threads.
+   *
+   * @see OptionalSupplier#determinism()
+   */
+  public default Determinism determinism() {
+    return Determinism.NON_DETERMINISTIC;
+  }
+
+  /**
+   * Returns a value, which may be the same as or different from the value returned by a prior invocation of this
+   * method.
+   *
+   * @return a value
+   *
+   * @exception NoSuchElementException if this method indicates absence
+   *
+   * @exception UnsupportedOperationException if this method indicates absence
+   *
+   * @idempotency No guarantees are made about either the idempotency or determinism of this method.
+   *
+   * @threadsafety Implementations of this method must be safe for concurrent use by multiple threads.
+   */
+  @Override // IntSupplier
+  public int getAsInt();
+
+  /**
+   * Returns the result of invoking the {@link #getAsInt()} method, or, if it indicates absence, the supplied {@code
+   * other} value.
+   *
+   * <p>The default implementation of this method is built on the {@link #optional()} method.</p>
+   *
+   * @param other the alternate value
+   *
+   * @return the value, or {@code other}
+   *
+   * @idempotency No guarantees are made about either the idempotency or determinism of this method.
+   *
+   * @threadsafety This method is, and overrides must be, safe for concurrent use by multiple threads.
+   */
+  public default int orElse(final int other) {
+    final OptionalInt optional = this.optional();
+    return optional.isPresent() ? optional.getAsInt() : other;
+  }
+
+  /**
+   * Returns an {@link OptionalInt} representing the result of invoking the {@link #getAsInt()} method.
+   *
+   * <p>The default implementation of this method returns an empty {@link OptionalInt} without invoking the {@link
+   * #getAsInt()} method if the {@link #determinism()} method returns {@link Determinism#ABSENT}, and otherwise catches
+   * the {@link NoSuchElementException}s and {@link UnsupportedOperationException}s that the {@link #getAsInt()} method
+   * throws, which may be expensive.  Overrides are therefore encouraged.</p>
+   *
+   * @return an {@link OptionalInt}; never {@code null}
+   *
+   * @nullability This method does not, and overrides must not, return {@code null}.
+   *
+   * @idempotency No guarantees are made about either the idempotency or determinism of this method.
+   *
+   * @threadsafety This method is, and overrides must be, safe for concurrent use by multiple threads.
+   */
+  public default OptionalInt optional() {
+    if (this.determinism() == Determinism.ABSENT) {
+      return OptionalInt.empty();
+    }
+    try {
+      return OptionalInt.of(this.getAsInt());
+    } catch (final NoSuchElementException | UnsupportedOperationException e) {
+      return OptionalInt.empty();
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns an {@link OptionalIntSupplier} whose {@link #determinism()} method will return the supplied {@link
+   * Determinism} and whose {@link #getAsInt()} method will return the result of invoking the {@link
+   * IntSupplier#getAsInt()} method on the supplied {@code supplier}.
+   *
+   * <p>If the supplied {@link Determinism} is {@link Determinism#DETERMINISTIC} or {@link Determinism#PRESENT}, then,
+   * since the outcome of the supplied {@code supplier} is by contract fixed, it is invoked at most once per racing
+   * thread and its value, or its absence, is remembered.  If the supplied {@code supplier} is already an {@link
+   * OptionalIntSupplier} that is at least as deterministic as the supplied {@link Determinism}, it is returned
+   * as-is.</p>
+   *
+   * @param determinism the {@link Determinism} to use; must not be {@code null}
+   *
+   * @param supplier the {@link IntSupplier}; must not be {@code null}
+   *
+   * @return an {@link OptionalIntSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see OptionalSupplier#of(Determinism, java.util.function.Supplier)
+   */
+  public static OptionalIntSupplier of(final Determinism determinism, final IntSupplier supplier) {
+    return OptionalIntSupplierAdapter.of(determinism, supplier);
+  }
+
+  /**
+   * Returns an {@link OptionalIntSupplier} that always supplies the supplied value.
+   *
+   * @param value the value
+   *
+   * @return an {@link OptionalIntSupplier}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see FixedIntValueSupplier#of(int)
+   */
+  public static OptionalIntSupplier of(final int value) {
+    return FixedIntValueSupplier.of(value);
+  }
+
+  /**
+   * Returns an {@link OptionalIntSupplier} representing the supplied {@link IntSupplier}.
+   *
+   * @param supplier the {@link IntSupplier}; must not be {@code null}
+   *
+   * @return the supplied {@code supplier}, if it is already an {@link OptionalIntSupplier}, or an {@link
+   * OptionalIntSupplier} that delegates to it; never {@code null}
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static OptionalIntSupplier of(final IntSupplier supplier) {
+    if (supplier instanceof OptionalIntSupplier s) {
+      return s;
+    }
+    return supplier::getAsInt;
+  }
+
+  /**
+   * Returns an {@link OptionalIntSupplier} that supplies the value supplied by the supplied {@code supplier}, or, if it
+   * indicates absence, the value supplied by the supplied {@code defaults}, with a properly implemented {@link
+   * #determinism()} method.
+   *
+   * @param supplier the primary {@link IntSupplier}; must not be {@code null}
+   *
+   * @param defaults the fallback {@link IntSupplier}; must not be {@code null}
+   *
+   * @return an {@link OptionalIntSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see OptionalSupplier#of(java.util.function.Supplier, java.util.function.Supplier)
+   */
+  public static OptionalIntSupplier of(final IntSupplier supplier, final IntSupplier defaults) {
+    return DefaultingOptionalIntSupplier.of(supplier, defaults);
+  }
+
+}
@@ -0,0 +1,128 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.Objects;
+import java.util.OptionalInt;
+
+import java.util.function.IntSupplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An {@link OptionalIntSupplier} that adapts a {@link IntSupplier} to a declared {@link Determinism}.
+ *
+ * <p>If the declared {@link Determinism} is {@link Determinism#DETERMINISTIC} or {@link Determinism#PRESENT}, then,
+ * since the outcome of the {@link IntSupplier} is by contract fixed, the outcome of the first probe is remembered and
+ * supplied thereafter without consulting it.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see OptionalIntSupplier#of(Determinism, IntSupplier)
+ */
+final class OptionalIntSupplierAdapter implements OptionalIntSupplier {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Determinism determinism;
+
+  private final OptionalIntSupplier supplier;
+
+  // null until the outcome has settled; then an immutable OptionalInt that is read, racily but safely thanks to its
+  // final fields, on every subsequent call.  A racing reader that sees null merely probes again.
+  private OptionalInt resolution;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private OptionalIntSupplierAdapter(final Determinism determinism, final IntSupplier supplier) {
+    super();
+    this.determinism = determinism;
+    this.supplier = OptionalIntSupplier.of(supplier);
+    if (determinism == Determinism.ABSENT) {
+      this.resolution = OptionalInt.empty();
+    }
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override // OptionalIntSupplier
+  public final Determinism determinism() {
+    final OptionalInt r = this.resolution;
+    if (r == null) {
+      return this.determinism;
+    }
+    return r.isPresent() ? Determinism.PRESENT : Determinism.ABSENT;
+  }
+
+  @Override // OptionalIntSupplier
+  public final int getAsInt() {
+    final OptionalInt optional = this.optional();
+    if (optional.isEmpty()) {
+      throw Absence.noSuchElementException();
+    }
+    return optional.getAsInt();
+  }
+
+  @Override // OptionalIntSupplier
+  public final int orElse(final int other) {
+    final OptionalInt optional = this.optional();
+    return optional.isPresent() ? optional.getAsInt() : other;
+  }
+
+  @Override // OptionalIntSupplier
+  public final OptionalInt optional() {
+    OptionalInt optional = this.resolution;
+    if (optional == null) {
+      optional = this.supplier.optional();
+      this.resolution = optional;
+    }
+    return optional;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  static final OptionalIntSupplier of(final Determinism determinism, final IntSupplier supplier) {
+    Objects.requireNonNull(determinism, "determinism");
+    Objects.requireNonNull(supplier, "supplier");
+    if (supplier instanceof OptionalIntSupplier s) {
+      final Determinism d = s.determinism();
+      if (determinism == d ||
+          determinism == Determinism.NON_DETERMINISTIC ||
+          determinism == Determinism.DETERMINISTIC && d.deterministic()) {
+        // Already at least as deterministic as requested.
+        return s;
+      }
+    } else if (determinism == Determinism.NON_DETERMINISTIC) {
+      return OptionalIntSupplier.of(supplier);
+    }
+    return new OptionalIntSupplierAdapter(determinism, supplier);
+  }
+
+}
@@ -19,6 +19,7 @@ import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 import java.util.stream.Stream;
@@ -90,12 +91,89 @@ public interface OptionalSupplier<T> extends Supplier<T> {
       try {
         return handler.apply(e);
       } catch (final RuntimeException r) {
-        r.addSuppressed(e);
+        if (r != e) {
+          r.addSuppressed(e);
+        }
         throw r;
       }
     }
   }
 
+  /**
+   * Returns an {@link OptionalSupplier} that supplies the value
+   * supplied by this {@link OptionalSupplier} if the supplied {@link
+   * Predicate} accepts it, and indicates absence otherwise.
+   *
+   * <p>The returned {@link OptionalSupplier} is lazy: neither this
+   * {@link OptionalSupplier} nor the supplied {@link Predicate} is
+   * invoked until a value is requested from it.  If this {@link
+   * OptionalSupplier} is {@link Determinism#PRESENT}, the returned
+   * {@link OptionalSupplier} is {@link Determinism#DETERMINISTIC};
+   * otherwise it has this {@link OptionalSupplier}'s {@link
+   * Determinism}.  Consecutive invocations of this method and of the
+   * {@link #map(Function)}, {@link #flatMap(Function)} and {@link
+   * #or(Supplier)} methods are fused into a single {@link
+   * OptionalSupplier}.</p>
+   *
+   * @param predicate the {@link Predicate}; must not be {@code null};
+   * must be deterministic if this {@link OptionalSupplier} is not
+   * {@link Determinism#NON_DETERMINISTIC}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code predicate} is {@code
+   * null}
+   *
+   * @nullability This method and its (discouraged) overrides never
+   * return {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is, and its (discouraged) overrides
+   * must be, safe for concurrent use by multiple threads.
+   */
+  public default OptionalSupplier<T> filter(final Predicate<? super T> predicate) {
+    return PipelineOptionalSupplier.of(this, PipelineOptionalSupplier.Stage.filter(predicate));
+  }
+
+  /**
+   * Returns an {@link OptionalSupplier} that supplies the value
+   * supplied by the {@link Supplier} that the supplied {@code mapper}
+   * returns for the value supplied by this {@link OptionalSupplier},
+   * and indicates absence if either this {@link OptionalSupplier} or
+   * that {@link Supplier} does.
+   *
+   * <p>The returned {@link OptionalSupplier} is lazy.  Because
+   * nothing is known about the {@link Supplier}s the {@code mapper}
+   * will return, it is {@link Determinism#NON_DETERMINISTIC} unless
+   * this {@link OptionalSupplier} is {@link Determinism#ABSENT}.
+   * Consecutive invocations of this method and of the {@link
+   * #map(Function)}, {@link #filter(Predicate)} and {@link
+   * #or(Supplier)} methods are fused into a single {@link
+   * OptionalSupplier}.</p>
+   *
+   * @param <U> the type of value the returned {@link
+   * OptionalSupplier} will {@linkplain #get() supply}
+   *
+   * @param mapper the mapping {@link Function}; must not be {@code
+   * null}; must not return {@code null}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code mapper} is {@code null}
+   *
+   * @nullability This method and its (discouraged) overrides never
+   * return {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is, and its (discouraged) overrides
+   * must be, safe for concurrent use by multiple threads.
+   */
+  public default <U> OptionalSupplier<U> flatMap(final Function<? super T, ? extends Supplier<? extends U>> mapper) {
+    return PipelineOptionalSupplier.of(this, PipelineOptionalSupplier.Stage.flatMap(mapper));
+  }
+
   /**
    * Returns a value, which may be {@code null}.
    *
@@ -211,7 +289,9 @@ public interface OptionalSupplier<T> extends Supplier<T> {
       try {
         return handler.apply(null, e);
       } catch (final RuntimeException r) {
-        r.addSuppressed(e);
+        if (r != e) {
+          r.addSuppressed(e);
+        }
         throw r;
       }
     }
@@ -243,13 +323,10 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @see #get()
    */
   public default void ifPresent(final Consumer<? super T> action) {
-    final T value;
-    try {
-      value = this.get();
-    } catch (final NoSuchElementException | UnsupportedOperationException e) {
-      return;
+    final T value = this.orElse(Absence.token());
+    if (!Absence.isToken(value)) {
+      action.accept(value);
     }
-    action.accept(value);
   }
 
   /**
@@ -282,19 +359,53 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @see #get()
    */
   public default void ifPresentOrElse(final Consumer<? super T> presentAction, final Runnable absentAction) {
-    final T value;
-    try {
-      value = this.get();
-    } catch (final NoSuchElementException | UnsupportedOperationException e) {
-      try {
-        absentAction.run();
-        return;
-      } catch (final RuntimeException r) {
-        r.addSuppressed(e);
-        throw r;
-      }
+    final T value = this.orElse(Absence.token());
+    if (Absence.isToken(value)) {
+      absentAction.run();
+    } else {
+      presentAction.accept(value);
     }
-    presentAction.accept(value);
+  }
+
+  /**
+   * Returns an {@link OptionalSupplier} that supplies the result of
+   * applying the supplied {@code mapper} to the value supplied by
+   * this {@link OptionalSupplier}, and indicates absence if this
+   * {@link OptionalSupplier} does.
+   *
+   * <p>Unlike {@link Optional#map(Function)}, a {@code mapper} that
+   * returns {@code null} yields a present {@code null} value.</p>
+   *
+   * <p>The returned {@link OptionalSupplier} is lazy and has this
+   * {@link OptionalSupplier}'s {@link Determinism}.  If that is
+   * {@link Determinism#PRESENT} or {@link Determinism#DETERMINISTIC},
+   * the {@code mapper} is, racing threads aside, applied only once.
+   * Consecutive invocations of this method and of the {@link
+   * #filter(Predicate)}, {@link #flatMap(Function)} and {@link
+   * #or(Supplier)} methods are fused into a single {@link
+   * OptionalSupplier}.</p>
+   *
+   * @param <U> the type of value the returned {@link
+   * OptionalSupplier} will {@linkplain #get() supply}
+   *
+   * @param mapper the mapping {@link Function}; must not be {@code
+   * null}; must be deterministic if this {@link OptionalSupplier} is
+   * not {@link Determinism#NON_DETERMINISTIC}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code mapper} is {@code null}
+   *
+   * @nullability This method and its (discouraged) overrides never
+   * return {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is, and its (discouraged) overrides
+   * must be, safe for concurrent use by multiple threads.
+   */
+  public default <U> OptionalSupplier<U> map(final Function<? super T, ? extends U> mapper) {
+    return PipelineOptionalSupplier.of(this, PipelineOptionalSupplier.Stage.map(mapper));
   }
 
   /**
@@ -333,7 +444,8 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @see #get()
    */
   public default Optional<T> optional() {
-    return this.optional(OptionalSupplier::returnNull);
+    final T value = this.orElse(Absence.token());
+    return Absence.isToken(value) ? Optional.empty() : Optional.ofNullable(value);
   }
 
   /**
@@ -404,6 +516,51 @@ public interface OptionalSupplier<T> extends Supplier<T> {
     return Optional.ofNullable(this.exceptionally(handler));
   }
 
+  /**
+   * Returns an {@link OptionalSupplier} that supplies the value
+   * supplied by this {@link OptionalSupplier}, or, if this {@link
+   * OptionalSupplier} indicates absence, the value supplied by the
+   * supplied {@link Supplier}.
+   *
+   * <p>The returned {@link OptionalSupplier} is lazy.  Its {@link
+   * Determinism} is derived from both this {@link OptionalSupplier}'s
+   * and, if it is an {@link OptionalSupplier}, the supplied {@link
+   * Supplier}'s: if this {@link OptionalSupplier} is {@link
+   * Determinism#PRESENT} or {@link Determinism#ABSENT}, it is that of
+   * the one that will actually be consulted; if this {@link
+   * OptionalSupplier} is {@link Determinism#NON_DETERMINISTIC}, so is
+   * it; if this {@link OptionalSupplier} is {@link
+   * Determinism#DETERMINISTIC}, it is {@link Determinism#PRESENT} if
+   * the supplied {@link Supplier} is, {@link
+   * Determinism#DETERMINISTIC} if the supplied {@link Supplier} is
+   * deterministic, and {@link Determinism#NON_DETERMINISTIC}
+   * otherwise.  Consecutive invocations of this method and of the
+   * {@link #map(Function)}, {@link #filter(Predicate)} and {@link
+   * #flatMap(Function)} methods are fused into a single {@link
+   * OptionalSupplier}.</p>
+   *
+   * @param supplier the alternate {@link Supplier}; must not be
+   * {@code null}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code supplier} is {@code
+   * null}
+   *
+   * @nullability This method and its (discouraged) overrides never
+   * return {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is, and its (discouraged) overrides
+   * must be, safe for concurrent use by multiple threads.
+   *
+   * @see #of(Supplier, Supplier)
+   */
+  public default OptionalSupplier<T> or(final Supplier<? extends T> supplier) {
+    return PipelineOptionalSupplier.of(this, PipelineOptionalSupplier.Stage.or(supplier));
+  }
+
   /**
    * Returns the result of invoking the {@link #get()} method, which
    * may be {@code null}, or, if the {@link #get()} method indicates
@@ -411,6 +568,21 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * or an {@link UnsupportedOperationException}, returns the supplied
    * alternate value, which may be {@code null}.
    *
+   * <p>This method is the primitive upon which the default
+   * implementations of the {@link #ifPresent(Consumer)}, {@link
+   * #ifPresentOrElse(Consumer, Runnable)}, {@link #optional()},
+   * {@link #orElseGet(Supplier)} and {@link #stream()} methods are
+   * built.  Those implementations supply a private token as the
+   * {@code other} value and detect absence by its identity.  The
+   * default implementation of this method detects absence by
+   * catching exceptions thrown by the {@link #get()} method, which
+   * may be expensive, unless the {@link #determinism()} method
+   * returns {@link Determinism#ABSENT}, in which case the {@link
+   * #get()} method is not invoked at all.  Overrides are therefore
+   * encouraged, and must indicate absence by returning the supplied
+   * {@code other} value itself, ideally without throwing or catching
+   * any exception.</p>
+   *
    * @param other the alternate value; may be {@code null}
    *
    * @return the result of invoking the {@link #get()} method, which
@@ -419,18 +591,21 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * or an {@link UnsupportedOperationException}, returns the supplied
    * alternate value, which may be {@code null}
    *
-   * @nullability This method and its (discouraged) overrides may
+   * @nullability This method and its (encouraged) overrides may
    * return {@code null}.
    *
    * @idempotency No guarantees are made about idempotency or
    * determinism.
    *
-   * @threadsafety This method is, and its (discouraged) overrides
+   * @threadsafety This method is, and its (encouraged) overrides
    * must be, safe for concurrent use by multiple threads.
    *
    * @see #get()
    */
   public default T orElse(final T other) {
+    if (this.determinism() == Determinism.ABSENT) {
+      return other;
+    }
     try {
       return this.get();
     } catch (final NoSuchElementException | UnsupportedOperationException e) {
@@ -473,27 +648,24 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @see #get()
    */
   public default T orElseGet(final Supplier<? extends T> supplier) {
-    try {
-      return this.get();
-    } catch (final NoSuchElementException | UnsupportedOperationException e) {
-      try {
-        return supplier.get();
-      } catch (final RuntimeException r) {
-        r.addSuppressed(e);
-        throw r;
-      }
-    }
+    final T value = this.orElse(Absence.token());
+    return Absence.isToken(value) ? supplier.get() : value;
   }
 
   /**
    * Returns the result of invoking the {@link #get()} method, which
    * may be {@code null}.
    *
+   * <p>If the {@link #determinism()} method returns {@link
+   * Determinism#ABSENT}, the {@link #get()} method is not invoked and
+   * a {@link NoSuchElementException} is thrown immediately.</p>
+   *
    * @return the result of invoking the {@link #get()} method, which
    * may be {@code null}
    *
    * @exception NoSuchElementException if value absence was indicated
-   * by the {@link #get()} method
+   * by the {@link #get()} method or by the {@link #determinism()}
+   * method
    *
    * @nullability This method and its (discouraged) overrides may
    * return {@code null}.
@@ -507,6 +679,9 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @see #orElseThrow(Supplier)
    */
   public default T orElseThrow() {
+    if (this.determinism() == Determinism.ABSENT) {
+      throw Absence.noSuchElementException();
+    }
     try {
       return this.get();
     } catch (final UnsupportedOperationException e) {
@@ -522,6 +697,11 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * value of an invocation of the supplied {@link Supplier}'s {@link
    * Supplier#get() get()} method.
    *
+   * <p>If the {@link #determinism()} method returns {@link
+   * Determinism#ABSENT}, the {@link #get()} method is not invoked and
+   * the supplied {@link Supplier}'s {@link Supplier#get() get()}
+   * method is invoked immediately.</p>
+   *
    * @param <X> the type of {@link Throwable} the supplied {@code
    * throwableSupplier} {@linkplain Supplier#get() supplies}
    *
@@ -554,14 +734,19 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @see #get()
    */
   public default <X extends Throwable> T orElseThrow(final Supplier<? extends X> throwableSupplier) throws X {
+    if (this.determinism() == Determinism.ABSENT) {
+      throw throwableSupplier.get();
+    }
     try {
       return this.get();
     } catch (final NoSuchElementException | UnsupportedOperationException e) {
       final X throwable = throwableSupplier.get();
-      if (throwable.getCause() == null) {
-        throwable.initCause(e);
-      } else {
-        throwable.addSuppressed(e);
+      if (throwable != e) {
+        if (throwable.getCause() == null) {
+          throwable.initCause(e);
+        } else {
+          throwable.addSuppressed(e);
+        }
       }
       throw throwable;
     }
@@ -674,11 +859,8 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @see #get()
    */
   public default Stream<T> stream() {
-    try {
-      return Stream.of(this.get());
-    } catch (final NoSuchElementException | UnsupportedOperationException e) {
-      return Stream.empty();
-    }
+    final T value = this.orElse(Absence.token());
+    return Absence.isToken(value) ? Stream.empty() : Stream.of(value);
   }
 
 
@@ -687,20 +869,23 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    */
 
 
-  private static <T> T returnNull(final RuntimeException e) {
-    if (e instanceof NoSuchElementException || e instanceof UnsupportedOperationException) {
-      return null;
-    } else {
-      throw e;
-    }
-  }
-
   /**
-   * Returns a new {@link OptionalSupplier} whose {@link #determinism()}
+   * Returns an {@link OptionalSupplier} whose {@link #determinism()}
    * method will return the supplied {@link Determinism} and whose {@link
    * #get()} method will return the result of invoking the {@link
    * Supplier#get()} method on the supplied {@code supplier}.
    *
+   * <p>If the supplied {@link Determinism} is {@link
+   * Determinism#DETERMINISTIC} or {@link Determinism#PRESENT}, then,
+   * since the outcome of the supplied {@code supplier} is by contract
+   * fixed, it is invoked at most once per racing thread and its value,
+   * or its absence, is remembered.</p>
+   *
+   * <p>If the supplied {@code supplier} is already an {@link
+   * OptionalSupplier} whose {@link #determinism()} is compatible with
+   * the supplied {@link Determinism}, it is returned as-is rather than
+   * wrapped again.</p>
+   *
    * @param <T> the type of value the returned {@link
    * OptionalSupplier} will {@linkplain #get() supply}
    *
@@ -709,7 +894,7 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @param supplier the {@link Supplier} whose {@link #get()} method
    * will be called; must not be {@code null}
    *
-   * @return a new {@link OptionalSupplier} whose {@link #determinism()}
+   * @return an {@link OptionalSupplier} whose {@link #determinism()}
    * method will return the supplied {@link Determinism} and whose {@link
    * #get()} method will return the result of invoking the {@link
    * Supplier#get()} method on the supplied {@code supplier}
@@ -717,6 +902,10 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @exception NullPointerException if {@code determinism} or {@code
    * supplier} is {@code null}
    *
+   * @exception IllegalArgumentException if {@code supplier} is an
+   * {@link OptionalSupplier} whose {@link #determinism()} is
+   * incompatible with the supplied {@link Determinism}
+   *
    * @nullability This method never returns {@code null}.
    *
    * @idempotency This method is not idempotent but is deterministic.
@@ -724,7 +913,17 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @threadsafety This method is safe for concurrent use by multiple
    * threads.
    */
+  @SuppressWarnings("unchecked")
   public static <T> OptionalSupplier<T> of(final Determinism determinism, final Supplier<? extends T> supplier) {
+    if (supplier instanceof OptionalSupplier<? extends T> os) {
+      final Determinism d = os.determinism();
+      if (determinism == d ||
+          determinism == Determinism.NON_DETERMINISTIC ||
+          determinism == Determinism.DETERMINISTIC && d.deterministic()) {
+        // Already wrapped, or already at least as deterministic as requested.
+        return (OptionalSupplier<T>)os;
+      }
+    }
     return new OptionalSupplierAdapter<>(determinism, supplier);
   }
 
@@ -793,6 +992,11 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * OptionalSupplier} will have its {@link #determinism()} method
    * appropriately implemented.</p>
    *
+   * <p>If either of the supplied {@link Supplier} instances is itself
+   * the result of an invocation of this method, or a {@link
+   * FallbackOptionalSupplier}, the resulting chain is flattened into a
+   * single {@link FallbackOptionalSupplier}.</p>
+   *
    * @param <T> the type of object the returned {@link
    * OptionalSupplier} will {@linkplain #get() supply}
    *
@@ -802,7 +1006,9 @@ public interface OptionalSupplier<T> extends Supplier<T> {
    * @param defaults the fallback {@link Supplier} to try; may be
    * {@code null}
    *
-   * @return a {@link DefaultingOptionalSupplier}
+   * @return an {@link OptionalSupplier}; never {@code null}
+   *
+   * @see FallbackOptionalSupplier#of(Supplier...)
    *
    * @nullability This method never returns {@code null}.
    *
@@ -820,32 +1026,44 @@ public interface OptionalSupplier<T> extends Supplier<T> {
       }
     } else if (defaults == null) {
       return of(supplier);
+    } else if (supplier instanceof DefaultingOptionalSupplier
+               || supplier instanceof FallbackOptionalSupplier
+               || defaults instanceof DefaultingOptionalSupplier
+               || defaults instanceof FallbackOptionalSupplier) {
+      return FallbackOptionalSupplier.of(supplier, defaults);
     } else {
       return DefaultingOptionalSupplier.of(supplier, defaults);
     }
   }
 
   /**
-   * Returns a new {@link OptionalSupplier} whose {@link #determinism()}
+   * Returns an {@link OptionalSupplier} whose {@link #determinism()}
    * method will return {@link Determinism#PRESENT} and whose {@link
    * #get()} method will return the supplied {@code value}.
    *
+   * <p>For common values, such as {@code null}, {@link Boolean}s,
+   * small {@link Integer}s and enum constants, the returned {@link
+   * OptionalSupplier} is a shared instance.</p>
+   *
    * @param <T> the type of value the returned {@link
    * OptionalSupplier} will {@linkplain #get() supply}
    *
-   * @param value the value the new {@link OptionalSupplier} will
-   * return from its {@link #get()} method; may be {@code null}
+   * @param value the value the {@link OptionalSupplier} will return
+   * from its {@link #get()} method; may be {@code null}
    *
-   * @return a new {@link OptionalSupplier} whose {@link #determinism()}
+   * @return an {@link OptionalSupplier} whose {@link #determinism()}
    * method will return {@link Determinism#PRESENT} and whose {@link
    * #get()} method will return the supplied {@code value}
    *
    * @nullability This method never returns {@code null}.
    *
-   * @idempotency This method is not idempotent but is deterministic.
+   * @idempotency This method is deterministic, and idempotent for
+   * common values.
    *
    * @threadsafety This method is safe for concurrent use by multiple
    * threads.
+   *
+   * @see FixedValueSupplier#of(Object)
    */
   public static <T> OptionalSupplier<T> of(final T value) {
     return FixedValueSupplier.of(value);
@@ -913,6 +1131,22 @@ public interface OptionalSupplier<T> extends Supplier<T> {
       return this.deterministic;
     }
 
+    // Returns the Determinism of something that yields this Determinism's outcome, or, if that is absence, the outcome
+    // of something whose Determinism is the supplied alternate.
+    final Determinism or(final Determinism alternate) {
+      switch (this) {
+      case PRESENT:
+        return this;
+      case ABSENT:
+        return alternate;
+      case DETERMINISTIC:
+        return alternate == PRESENT ? PRESENT : alternate.deterministic() ? this : NON_DETERMINISTIC;
+      default:
+        // Whatever the alternate is, whether it is consulted at all changes from call to call, and so does the outcome.
+        return NON_DETERMINISTIC;
+      }
+    }
+
   }
 
 }
@@ -16,6 +16,7 @@
  */
 package org.microbean.invoke;
 
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
 import java.util.function.Supplier;
@@ -26,6 +27,13 @@ final class OptionalSupplierAdapter<T> implements OptionalSupplier<T> {
 
   private final Supplier<? extends T> supplier;
 
+  // Whether the outcome of the supplier, which is not itself an OptionalSupplier, is fixed by contract and so may be
+  // remembered.
+  private final boolean memoize;
+
+  // null until a memoized outcome has settled.  Immutable, so it is read through a plain field.
+  private Resolution<T> resolution;
+
   OptionalSupplierAdapter() {
     this(Determinism.ABSENT, Absence.instance());
   }
@@ -51,6 +59,9 @@ final class OptionalSupplierAdapter<T> implements OptionalSupplier<T> {
       this.determinism = Objects.requireNonNull(determinism, "determinism");
       this.supplier = supplier;
     }
+    this.memoize =
+      (this.determinism == Determinism.DETERMINISTIC || this.determinism == Determinism.PRESENT) &&
+      !(this.supplier instanceof OptionalSupplier);
   }
 
   @Override
@@ -60,7 +71,49 @@ final class OptionalSupplierAdapter<T> implements OptionalSupplier<T> {
 
   @Override
   public final T get() {
-    return this.supplier.get();
+    if (!this.memoize) {
+      return this.supplier.get();
+    }
+    final Resolution<T> r = this.resolution;
+    if (r != null) {
+      return r.get();
+    }
+    final T value;
+    try {
+      value = this.supplier.get();
+    } catch (final NoSuchElementException | UnsupportedOperationException e) {
+      this.resolution = Resolution.absent();
+      throw e;
+    }
+    this.resolution = Resolution.present(value);
+    return value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public final T orElse(final T other) {
+    if (this.determinism == Determinism.ABSENT) {
+      return other;
+    } else if (this.supplier instanceof OptionalSupplier) {
+      return ((OptionalSupplier<T>)this.supplier).orElse(other);
+    }
+    final Resolution<T> r = this.resolution;
+    if (r != null) {
+      return r.orElse(other);
+    }
+    final T value;
+    try {
+      value = this.supplier.get();
+    } catch (final NoSuchElementException | UnsupportedOperationException e) {
+      if (this.memoize) {
+        this.resolution = Resolution.absent();
+      }
+      return other;
+    }
+    if (this.memoize) {
+      this.resolution = Resolution.present(value);
+    }
+    return value;
   }
 
 }
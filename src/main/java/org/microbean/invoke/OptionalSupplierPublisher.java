@@ -0,0 +1,375 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.Objects;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import java.util.function.Supplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * A {@link Flow.Publisher} view of an {@link OptionalSupplier} that pushes the values it supplies to {@link
+ * Flow.Subscriber}s as they change, so that they need not poll it.
+ *
+ * <p>Each {@link Flow.Subscriber} first receives the current value, if there is one, and thereafter receives a new
+ * value whenever a {@link CachingSupplier} is {@linkplain CachingSupplier#set(Object) set}, {@linkplain
+ * CachingSupplier#invalidate() invalidated} and recomputed, or whenever an {@link ExpiringSupplier} is refreshed.
+ * While a {@link Flow.Subscriber} is subscribed to an {@link ExpiringSupplier}, its value is also refreshed, and any
+ * new value pushed, as soon as it becomes due for refresh or expires, whether or not anything else requests it.
+ * Backpressure is honored: a {@link Flow.Subscriber} receives no more values than it has {@linkplain
+ * Flow.Subscription#request(long) requested}.  Changes are coalesced: however many happen while a {@link
+ * Flow.Subscriber} has no outstanding demand, or while a value is being delivered to it, it next receives only the
+ * latest value.  Absence is not signalled; a {@link Flow.Subscriber} simply receives nothing until a value is present
+ * again.</p>
+ *
+ * <p>A {@link CachingSupplier} or {@link ExpiringSupplier} is followed in this way whatever its current {@linkplain
+ * OptionalSupplier#determinism() determinism}, including when it already holds a value.  Other {@link
+ * OptionalSupplier}s cannot report changes.  For these, a {@link Flow.Subscriber} receives at most the one value there
+ * is, followed by {@link Flow.Subscriber#onComplete()}; if such an {@link OptionalSupplier}'s determinism is {@link
+ * Determinism#ABSENT}, the {@link Flow.Subscriber} is completed at once.</p>
+ *
+ * <p>Values are delivered using an {@link Executor}, never on the thread that caused the change.</p>
+ *
+ * @param <T> the type of value published
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #of(Supplier)
+ *
+ * @see #of(Supplier, Executor)
+ */
+public final class OptionalSupplierPublisher<T> implements Flow.Publisher<T> {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalSupplier<? extends T> supplier;
+
+  private final Executor executor;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private OptionalSupplierPublisher(final OptionalSupplier<? extends T> supplier, final Executor executor) {
+    super();
+    this.supplier = supplier;
+    this.executor = executor;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Subscribes the supplied {@link Flow.Subscriber} to changes in the values supplied by the {@link OptionalSupplier}
+   * this {@link OptionalSupplierPublisher} views.
+   *
+   * @param subscriber the {@link Flow.Subscriber}; must not be {@code null}
+   *
+   * @exception NullPointerException if {@code subscriber} is {@code null}
+   *
+   * @idempotency This method is neither idempotent nor deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // Flow.Publisher<T>
+  public final void subscribe(final Flow.Subscriber<? super T> subscriber) {
+    final OptionalSupplier<? extends T> s = this.supplier;
+    final ExpiringSupplier<? extends T> expiring;
+    final ChangeListeners changeListeners;
+    final Determinism determinism;
+    // A CachingSupplier or an ExpiringSupplier that currently holds a value still reports changes, so it is followed
+    // regardless of its current determinism.
+    if (s instanceof CachingSupplier<? extends T> cs) {
+      expiring = null;
+      changeListeners = cs.changeListeners();
+      determinism = Determinism.NON_DETERMINISTIC;
+    } else if (s instanceof ExpiringSupplier<? extends T> es) {
+      expiring = es;
+      changeListeners = es.changeListeners();
+      determinism = Determinism.NON_DETERMINISTIC;
+    } else {
+      expiring = null;
+      changeListeners = null;
+      determinism = s.determinism();
+    }
+    final Subscription<T> subscription =
+      new Subscription<>(Objects.requireNonNull(subscriber, "subscriber"), s, expiring, changeListeners, this.executor);
+    subscriber.onSubscribe(subscription);
+    if (determinism == Determinism.ABSENT) {
+      // Nothing will ever be published, and completion needs no demand.
+      subscription.complete();
+    } else {
+      subscription.start();
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns a new {@link OptionalSupplierPublisher} that views the supplied {@link Supplier} and delivers values using
+   * the {@linkplain DefaultExecutor#instance() default <code>Executor</code>}.
+   *
+   * @param <T> the type of value the returned {@link OptionalSupplierPublisher} will publish
+   *
+   * @param supplier the {@link Supplier}; must not be {@code null}
+   *
+   * @return a new {@link OptionalSupplierPublisher}; never {@code null}
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #of(Supplier, Executor)
+   */
+  public static final <T> OptionalSupplierPublisher<T> of(final Supplier<? extends T> supplier) {
+    return of(supplier, DefaultExecutor.instance());
+  }
+
+  /**
+   * Returns a new {@link OptionalSupplierPublisher} that views the supplied {@link Supplier} and delivers values using
+   * the supplied {@link Executor}.
+   *
+   * @param <T> the type of value the returned {@link OptionalSupplierPublisher} will publish
+   *
+   * @param supplier the {@link Supplier}; must not be {@code null}
+   *
+   * @param executor the {@link Executor}; must not be {@code null}
+   *
+   * @return a new {@link OptionalSupplierPublisher}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final <T> OptionalSupplierPublisher<T> of(final Supplier<? extends T> supplier,
+                                                         final Executor executor) {
+    return new OptionalSupplierPublisher<>(OptionalSupplier.of(Objects.requireNonNull(supplier, "supplier")),
+                                           Objects.requireNonNull(executor, "executor"));
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  private static final class Subscription<T> implements Flow.Subscription, Runnable {
+
+    // Stands in for "nothing delivered yet", since null is a legitimate value.
+    private static final Object NONE = new Object();
+
+    private final Flow.Subscriber<? super T> subscriber;
+
+    private final OptionalSupplier<? extends T> supplier;
+
+    // The supplier, if it is an ExpiringSupplier whose refreshes must be prompted; null otherwise.
+    private final ExpiringSupplier<? extends T> expiring;
+
+    // null if the supplier cannot report changes, in which case at most one value is delivered.
+    private final ChangeListeners changeListeners;
+
+    private final Executor executor;
+
+    // Registered with changeListeners; kept so that the very same instance can be removed.
+    private final Runnable listener;
+
+    // Outstanding demand, saturating at Long.MAX_VALUE.
+    private final AtomicLong demand;
+
+    // The number of times the drain loop has been asked to run; only the caller that moves it from 0 schedules it.
+    private final AtomicInteger work;
+
+    // true while a prompt for the expiring supplier's next refresh is scheduled.
+    private final AtomicBoolean prompting;
+
+    // Set whenever the supplied value may have changed since it was last delivered.  Many changes, one flag.
+    private volatile boolean dirty;
+
+    private volatile boolean done;
+
+    private volatile boolean completing;
+
+    private volatile Throwable error;
+
+    // Confined to the drain loop.
+    private Object last;
+
+    private Subscription(final Flow.Subscriber<? super T> subscriber,
+                         final OptionalSupplier<? extends T> supplier,
+                         final ExpiringSupplier<? extends T> expiring,
+                         final ChangeListeners changeListeners,
+                         final Executor executor) {
+      super();
+      this.subscriber = subscriber;
+      this.supplier = supplier;
+      this.expiring = expiring;
+      this.changeListeners = changeListeners;
+      this.executor = executor;
+      this.listener = this::changed;
+      this.demand = new AtomicLong();
+      this.work = new AtomicInteger();
+      this.prompting = new AtomicBoolean();
+      this.dirty = true;
+      this.last = NONE;
+    }
+
+    private final void start() {
+      if (this.changeListeners != null) {
+        this.changeListeners.add(this.listener);
+      }
+    }
+
+    private final void changed() {
+      this.dirty = true;
+      this.signal();
+    }
+
+    // Arranges for the drain loop to run again when the expiring supplier's value is next due, so that the refresh is
+    // performed, and its value pushed, without waiting for some other caller.  At most one prompt is pending at a time;
+    // each drain pass that finds none pending schedules the next.
+    private final void prompt() {
+      final long delay = this.expiring.nanosUntilDue();
+      if (delay >= 0L && !this.done && this.prompting.compareAndSet(false, true)) {
+        // Runs on the JDK's shared delay scheduler thread, which only hands off to this.executor.
+        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, Runnable::run)
+          .execute(() -> {
+              this.prompting.set(false);
+              this.changed();
+            });
+      }
+    }
+
+    private final void complete() {
+      this.completing = true;
+      this.signal();
+    }
+
+    @Override // Flow.Subscription
+    public final void request(final long n) {
+      if (n <= 0L) {
+        this.error = new IllegalArgumentException("n: " + n);
+      } else {
+        this.demand.getAndAccumulate(n, (d, m) -> d + m < 0L ? Long.MAX_VALUE : d + m);
+      }
+      this.signal();
+    }
+
+    @Override // Flow.Subscription
+    public final void cancel() {
+      this.done = true;
+      if (this.changeListeners != null) {
+        this.changeListeners.remove(this.listener);
+      }
+    }
+
+    private final void signal() {
+      if (!this.done && this.work.getAndIncrement() == 0) {
+        try {
+          this.executor.execute(this);
+        } catch (final RuntimeException e) {
+          this.cancel();
+          this.subscriber.onError(e);
+        }
+      }
+    }
+
+    // The drain loop.  Runs on the Executor, never concurrently with itself, so signals to the subscriber are
+    // serialized.
+    @Override // Runnable
+    public final void run() {
+      int missed = 1;
+      do {
+        this.drain();
+        missed = this.work.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+    private final void drain() {
+      while (!this.done) {
+        final Throwable error = this.error;
+        if (error != null) {
+          this.cancel();
+          this.subscriber.onError(error);
+          return;
+        } else if (this.completing) {
+          this.cancel();
+          this.subscriber.onComplete();
+          return;
+        } else if (!this.dirty || this.demand.get() == 0L) {
+          return;
+        }
+        this.dirty = false;
+        final T value;
+        try {
+          value = this.supplier.orElse(Absence.token());
+        } catch (final RuntimeException | Error e) {
+          this.error = e;
+          continue;
+        }
+        if (this.changeListeners == null) {
+          // The one and only outcome.
+          this.completing = true;
+        } else if (this.expiring != null) {
+          this.prompt();
+        }
+        if (Absence.isToken(value) || value == this.last) {
+          // Nothing to deliver, or nothing new: probing a refreshable supplier can itself report a change.
+          continue;
+        }
+        this.last = value;
+        this.demand.getAndUpdate(d -> d == Long.MAX_VALUE ? d : d - 1L);
+        try {
+          this.subscriber.onNext(value);
+        } catch (final RuntimeException e) {
+          // The Subscriber broke its contract; stop talking to it.
+          this.cancel();
+          return;
+        }
+      }
+    }
+
+  }
+
+}
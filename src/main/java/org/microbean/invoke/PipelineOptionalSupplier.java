@@ -0,0 +1,245 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * An {@link OptionalSupplier} that applies a fused sequence of {@link Stage}s, such as those created by the {@link
+ * OptionalSupplier#map(Function)}, {@link OptionalSupplier#filter(Predicate)}, {@link
+ * OptionalSupplier#flatMap(Function)} and {@link OptionalSupplier#or(Supplier)} methods, to the value supplied by a
+ * source {@link OptionalSupplier}.
+ *
+ * <p>Adding a stage to a {@link PipelineOptionalSupplier} yields a new {@link PipelineOptionalSupplier} with the same
+ * source and one more stage, rather than a wrapper around it.  Each stage carries the {@link Determinism} of the
+ * pipeline through.  If the resulting {@link Determinism} is {@link Determinism#PRESENT} or {@link
+ * Determinism#DETERMINISTIC}, the outcome is computed at most once per racing thread and then remembered.</p>
+ *
+ * @param <T> the type of value this {@link PipelineOptionalSupplier} {@linkplain #get() supplies}
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+final class PipelineOptionalSupplier<T> implements OptionalSupplier<T> {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalSupplier<?> source;
+
+  private final Stage[] stages;
+
+  private final Determinism determinism;
+
+  // null until a memoized outcome has settled.  Immutable, so it is read through a plain field.
+  private Resolution<T> resolution;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private PipelineOptionalSupplier(final OptionalSupplier<?> source,
+                                   final Stage[] stages,
+                                   final Determinism determinism) {
+    super();
+    this.source = source;
+    this.stages = stages;
+    this.determinism = determinism;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  @Override // OptionalSupplier<T>
+  public final Determinism determinism() {
+    final Resolution<T> r = this.resolution;
+    return r == null ? this.determinism : r.determinism();
+  }
+
+  @Override // OptionalSupplier<T>
+  public final T get() {
+    final T value = this.orElse(Absence.token());
+    if (Absence.isToken(value)) {
+      throw Absence.noSuchElementException();
+    }
+    return value;
+  }
+
+  @Override // OptionalSupplier<T>
+  @SuppressWarnings("unchecked")
+  public final T orElse(final T other) {
+    final Resolution<T> r = this.resolution;
+    if (r != null) {
+      return r.orElse(other);
+    }
+    Object value = this.source.orElse(Absence.token());
+    for (final Stage stage : this.stages) {
+      value = stage.apply(value);
+    }
+    if (this.determinism.deterministic()) {
+      this.resolution = Absence.isToken(value) ? Resolution.absent() : Resolution.present((T)value);
+    }
+    return Absence.isToken(value) ? other : (T)value;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns an {@link OptionalSupplier} that applies the supplied {@link Stage} to the value supplied by the supplied
+   * {@link OptionalSupplier}, fusing it with any stages the supplied {@link OptionalSupplier} already applies.
+   *
+   * @param <T> the type of value the returned {@link OptionalSupplier} will {@linkplain #get() supply}
+   *
+   * @param supplier the {@link OptionalSupplier}; must not be {@code null}
+   *
+   * @param stage the {@link Stage}; must not be {@code null}
+   *
+   * @return an {@link OptionalSupplier}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  static final <T> OptionalSupplier<T> of(final OptionalSupplier<?> supplier, final Stage stage) {
+    final OptionalSupplier<?> source;
+    final Stage[] stages;
+    if (supplier instanceof PipelineOptionalSupplier<?> p && p.resolution == null) {
+      source = p.source;
+      stages = Arrays.copyOf(p.stages, p.stages.length + 1);
+    } else {
+      // Includes settled pipelines, whose remembered outcome becomes the source.
+      source = supplier;
+      stages = new Stage[1];
+    }
+    stages[stages.length - 1] = stage;
+    final Determinism determinism = stage.determinism(supplier.determinism());
+    if (determinism == Determinism.ABSENT) {
+      return Absence.instance();
+    }
+    return new PipelineOptionalSupplier<>(source, stages, determinism);
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  /**
+   * A fusable step in a {@link PipelineOptionalSupplier}.
+   *
+   * <p>A {@link Stage} accepts a value or the {@linkplain Absence#token() absence token}, and returns a value or the
+   * absence token.</p>
+   *
+   * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+   */
+  abstract static class Stage {
+
+    private Stage() {
+      super();
+    }
+
+    abstract Object apply(final Object value);
+
+    abstract Determinism determinism(final Determinism input);
+
+    static final Stage map(final Function<?, ?> mapper) {
+      @SuppressWarnings("unchecked")
+      final Function<Object, ?> f = (Function<Object, ?>)Objects.requireNonNull(mapper, "mapper");
+      return new Stage() {
+        @Override
+        final Object apply(final Object value) {
+          return Absence.isToken(value) ? value : f.apply(value);
+        }
+
+        @Override
+        final Determinism determinism(final Determinism input) {
+          return input;
+        }
+      };
+    }
+
+    static final Stage filter(final Predicate<?> predicate) {
+      @SuppressWarnings("unchecked")
+      final Predicate<Object> p = (Predicate<Object>)Objects.requireNonNull(predicate, "predicate");
+      return new Stage() {
+        @Override
+        final Object apply(final Object value) {
+          return Absence.isToken(value) || p.test(value) ? value : Absence.token();
+        }
+
+        @Override
+        final Determinism determinism(final Determinism input) {
+          // A value that is always present may now be filtered out, but deterministically so.
+          return input == Determinism.PRESENT ? Determinism.DETERMINISTIC : input;
+        }
+      };
+    }
+
+    static final Stage flatMap(final Function<?, ? extends Supplier<?>> mapper) {
+      @SuppressWarnings("unchecked")
+      final Function<Object, ? extends Supplier<?>> f =
+        (Function<Object, ? extends Supplier<?>>)Objects.requireNonNull(mapper, "mapper");
+      return new Stage() {
+        @Override
+        final Object apply(final Object value) {
+          return Absence.isToken(value) ? value : OptionalSupplier.of(f.apply(value)).orElse(Absence.token());
+        }
+
+        @Override
+        final Determinism determinism(final Determinism input) {
+          // Nothing is known about the determinism of the Suppliers the mapper will return.
+          return input == Determinism.ABSENT ? input : Determinism.NON_DETERMINISTIC;
+        }
+      };
+    }
+
+    static final Stage or(final Supplier<?> supplier) {
+      final OptionalSupplier<?> s = OptionalSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+      return new Stage() {
+        @Override
+        final Object apply(final Object value) {
+          return Absence.isToken(value) ? s.orElse(Absence.token()) : value;
+        }
+
+        @Override
+        final Determinism determinism(final Determinism input) {
+          return input.or(s.determinism());
+        }
+      };
+    }
+
+  }
+
+}
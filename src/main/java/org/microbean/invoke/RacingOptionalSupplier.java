@@ -0,0 +1,413 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.function.Supplier;
+
+import static org.microbean.invoke.AsyncOptionalSupplierAdapter.absence;
+
+/**
+ * An {@link OptionalSupplier} and {@link AsyncOptionalSupplier} that, like {@link FallbackOptionalSupplier}, supplies
+ * the value supplied by the first of a priority-ordered list of members that does not indicate absence, but that
+ * consults all of its members concurrently instead of one after another.
+ *
+ * <p>This is suitable when members are independent, slow lookups, such as remote configuration sources, whose
+ * latencies would otherwise add up.  The value of a member is used as soon as every higher-priority member has
+ * indicated absence.  Once a member supplies a value, the work of all lower-priority members is {@linkplain
+ * FutureTask#cancel(boolean) cancelled}: work that has not started never will, and work that is running is left to
+ * finish, and its outcome ignored.  Running members are deliberately not interrupted, since a member such as a {@link
+ * CachingSupplier} would treat the resulting failure like any other, and might remember it.</p>
+ *
+ * <p>If every member is deterministic, the outcome of the first race to finish is remembered, and supplied thereafter
+ * without consulting any member.</p>
+ *
+ * <p>Members are flattened in the same way as those of a {@link FallbackOptionalSupplier}: those whose {@linkplain
+ * OptionalSupplier#determinism() determinism} is {@link Determinism#ABSENT} are dropped, and those following the first
+ * member whose determinism is {@link Determinism#PRESENT} are never consulted, and so are dropped too.</p>
+ *
+ * @param <T> the type of value this {@link RacingOptionalSupplier} {@linkplain #get() supplies}
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #of(List)
+ *
+ * @see #of(List, Executor)
+ *
+ * @see FallbackOptionalSupplier
+ */
+public final class RacingOptionalSupplier<T> implements AsyncOptionalSupplier<T>, OptionalSupplier<T> {
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalSupplier<T>[] members;
+
+  private final Executor executor;
+
+  // The determinism computed at construction time.
+  private final Determinism determinism;
+
+  // null until a race among DETERMINISTIC members has settled; then an immutable Resolution that is read, racily but
+  // safely thanks to its final fields, on every subsequent call.  A racing reader that sees null merely races again.
+  private Resolution<T> resolution;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  @SuppressWarnings("unchecked")
+  private RacingOptionalSupplier(final List<? extends Supplier<? extends T>> suppliers, final Executor executor) {
+    super();
+    this.executor = Objects.requireNonNull(executor, "executor");
+    final List<OptionalSupplier<T>> members = new ArrayList<>(suppliers.size());
+    for (final Supplier<? extends T> supplier : suppliers) {
+      if (FallbackOptionalSupplier.flatten(supplier, members)) {
+        break;
+      }
+    }
+    this.members = (OptionalSupplier<T>[])members.toArray(new OptionalSupplier<?>[0]);
+    Determinism determinism = Determinism.ABSENT;
+    for (final OptionalSupplier<T> member : this.members) {
+      determinism = determinism.or(member.determinism());
+    }
+    this.determinism = determinism;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns the {@link Determinism} of this {@link RacingOptionalSupplier}.
+   *
+   * <p>If this {@link RacingOptionalSupplier} has no members, the return value is {@link Determinism#ABSENT}.  If its
+   * first member is {@link Determinism#PRESENT}, so is it.  If all of its members are deterministic, the return value
+   * is {@link Determinism#DETERMINISTIC} until the first race has finished, and then either {@link Determinism#PRESENT}
+   * or {@link Determinism#ABSENT}.  Otherwise the return value is {@link Determinism#NON_DETERMINISTIC}.</p>
+   *
+   * @return the {@link Determinism} of this {@link RacingOptionalSupplier}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // AsyncOptionalSupplier<T>, OptionalSupplier<T>
+  public final Determinism determinism() {
+    final Resolution<T> r = this.resolution;
+    return r == null ? this.determinism : r.determinism();
+  }
+
+  /**
+   * Returns a {@link CompletionStage} that completes with the value supplied by the highest-priority member that does
+   * not indicate absence, as soon as it is known, or that completes exceptionally with a {@link
+   * NoSuchElementException} if every member indicates absence.
+   *
+   * <p>If a member fails in any other way before a higher-priority member has supplied a value, the returned {@link
+   * CompletionStage} completes exceptionally with that failure.  {@linkplain CompletableFuture#cancel(boolean)
+   * Cancelling} the returned {@link CompletionStage} cancels all outstanding work.</p>
+   *
+   * @return a {@link CompletionStage}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if every member is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // AsyncOptionalSupplier<T>
+  public final CompletionStage<T> getAsync() {
+    final Resolution<T> r = this.resolution;
+    if (r == null ? this.determinism == Determinism.ABSENT : r.determinism() == Determinism.ABSENT) {
+      return CompletableFuture.failedStage(Absence.noSuchElementException());
+    } else if (r != null) {
+      // A new stage each time, since callers may complete or cancel it.
+      return CompletableFuture.completedStage(r.get());
+    }
+    return new Race().start();
+  }
+
+  /**
+   * Returns the value supplied by the highest-priority member that does not indicate absence, blocking until it is
+   * known.
+   *
+   * @return the value, which may be {@code null}
+   *
+   * @exception NoSuchElementException if every member indicates absence
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if every member is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #getAsync()
+   */
+  @Override // OptionalSupplier<T>
+  public final T get() {
+    final T value = this.orElse(Absence.token());
+    if (Absence.isToken(value)) {
+      throw Absence.noSuchElementException();
+    }
+    return value;
+  }
+
+  /**
+   * Returns the value supplied by the highest-priority member that does not indicate absence, blocking until it is
+   * known, or, if every member indicates absence, the supplied {@code other} value.
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the value, which may be {@code null}, or {@code other}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if every member is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #getAsync()
+   */
+  @Override // OptionalSupplier<T>
+  public final T orElse(final T other) {
+    final Resolution<T> r = this.resolution;
+    if (r != null) {
+      return r.orElse(other);
+    } else if (this.determinism == Determinism.ABSENT) {
+      return other;
+    }
+    try {
+      return this.getAsync().toCompletableFuture().join();
+    } catch (final CompletionException e) {
+      if (absence(e)) {
+        return other;
+      }
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException re) {
+        throw re;
+      } else if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(cause.getMessage(), cause);
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns a new {@link RacingOptionalSupplier} that races the supplied {@link Supplier}s, running each member on its
+   * own virtual thread where virtual threads are available, and on its own daemon platform thread otherwise.
+   *
+   * @param <T> the type of value the returned {@link RacingOptionalSupplier} will {@linkplain #get() supply}
+   *
+   * @param suppliers the {@link Supplier}s, in order of priority; must not be {@code null}; {@code null} elements are
+   * ignored
+   *
+   * @return a new {@link RacingOptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code suppliers} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #of(List, Executor)
+   */
+  public static final <T> RacingOptionalSupplier<T> of(final List<? extends Supplier<? extends T>> suppliers) {
+    return of(suppliers, DefaultExecutor.threadPerTask());
+  }
+
+  /**
+   * Returns a new {@link RacingOptionalSupplier} that races the supplied {@link Supplier}s using the supplied {@link
+   * Executor}.
+   *
+   * @param <T> the type of value the returned {@link RacingOptionalSupplier} will {@linkplain #get() supply}
+   *
+   * @param suppliers the {@link Supplier}s, in order of priority; must not be {@code null}; {@code null} elements are
+   * ignored
+   *
+   * @param executor the {@link Executor} that will run each member; must not be {@code null}
+   *
+   * @return a new {@link RacingOptionalSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if either argument is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public static final <T> RacingOptionalSupplier<T> of(final List<? extends Supplier<? extends T>> suppliers,
+                                                       final Executor executor) {
+    return new RacingOptionalSupplier<>(suppliers, executor);
+  }
+
+
+  /*
+   * Inner and nested classes.
+   */
+
+
+  // A single race among this RacingOptionalSupplier's members.
+  private final class Race {
+
+    // Recorded for a member that has indicated absence.
+    private static final Object ABSENT = new Object();
+
+    // Recorded for a member that has supplied null.
+    private static final Object NULL = new Object();
+
+    private final FutureTask<?>[] tasks;
+
+    // Guarded by lock.  null means "not yet settled"; otherwise ABSENT, NULL, a Failure or a value.
+    private final Object[] outcomes;
+
+    private final Lock lock;
+
+    private final CompletableFuture<T> result;
+
+    // Guarded by lock.  The index of the highest-priority member whose outcome is still needed.
+    private int next;
+
+    private Race() {
+      super();
+      final OptionalSupplier<T>[] members = RacingOptionalSupplier.this.members;
+      this.tasks = new FutureTask<?>[members.length];
+      this.outcomes = new Object[members.length];
+      this.lock = new ReentrantLock();
+      this.result = new CompletableFuture<>();
+    }
+
+    private final CompletableFuture<T> start() {
+      final Executor executor = RacingOptionalSupplier.this.executor;
+      for (int i = 0; i < this.tasks.length; i++) {
+        final int index = i;
+        this.tasks[i] = new FutureTask<Void>(() -> this.run(index), null);
+      }
+      // However the race ends, including by cancellation of the result, nothing still running is needed any more.
+      this.result.whenComplete((v, t) -> this.cancel(0));
+      for (int i = 0; i < this.tasks.length; i++) {
+        try {
+          executor.execute(this.tasks[i]);
+        } catch (final RuntimeException e) {
+          this.settle(i, new Failure(e));
+        }
+      }
+      return this.result;
+    }
+
+    private final void run(final int index) {
+      Object outcome;
+      try {
+        final T value = RacingOptionalSupplier.this.members[index].orElse(Absence.token());
+        outcome = Absence.isToken(value) ? ABSENT : value == null ? NULL : value;
+      } catch (final Throwable e) {
+        outcome = new Failure(e);
+      }
+      this.settle(index, outcome);
+    }
+
+    @SuppressWarnings("unchecked")
+    private final void settle(final int index, final Object outcome) {
+      Object answer = null;
+      this.lock.lock();
+      try {
+        if (this.result.isDone() || index < this.next) {
+          return;
+        }
+        this.outcomes[index] = outcome;
+        if (outcome != ABSENT && !(outcome instanceof Failure)) {
+          // Lower-priority members can no longer win.
+          this.cancel(index + 1);
+        }
+        while (this.next < this.outcomes.length) {
+          final Object o = this.outcomes[this.next];
+          if (o == null) {
+            // Still waiting on a higher-priority member.
+            return;
+          } else if (o != ABSENT) {
+            answer = o;
+            break;
+          }
+          ++this.next;
+        }
+      } finally {
+        this.lock.unlock();
+      }
+      if (!(answer instanceof Failure) && RacingOptionalSupplier.this.determinism == Determinism.DETERMINISTIC) {
+        // A race among deterministic members settles what every subsequent race will yield.  Remember that before any
+        // dependent action can observe the result.
+        RacingOptionalSupplier.this.resolution =
+          answer == null ? Resolution.absent() : Resolution.present(answer == NULL ? null : (T)answer);
+      }
+      // Complete outside the lock, since completion runs dependent actions.
+      if (answer == null) {
+        this.result.completeExceptionally(Absence.noSuchElementException());
+      } else if (answer instanceof Failure f) {
+        this.result.completeExceptionally(f.cause);
+      } else {
+        this.result.complete(answer == NULL ? null : (T)answer);
+      }
+    }
+
+    // Cancels without interrupting; see the class documentation.
+    private final void cancel(final int from) {
+      for (int i = from; i < this.tasks.length; i++) {
+        this.tasks[i].cancel(false);
+      }
+    }
+
+  }
+
+  private static final class Failure {
+
+    private final Throwable cause;
+
+    private Failure(final Throwable cause) {
+      super();
+      this.cause = cause;
+    }
+
+  }
+
+}
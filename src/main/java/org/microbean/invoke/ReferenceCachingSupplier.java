@@ -0,0 +1,326 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An {@link OptionalSupplier} that, like {@link CachingSupplier}, caches the value supplied by a delegate {@link
+ * Supplier}, but holds it only through a {@link SoftReference} or a {@link WeakReference}, so that the garbage
+ * collector may reclaim it, and transparently recomputes it through the delegate {@link Supplier} when it is next
+ * needed.
+ *
+ * <p>This is suitable for large values that are expensive, but possible, to recompute, such as parsed schemas or
+ * compiled templates, held by long-lived objects.</p>
+ *
+ * <p>At most one thread at a time invokes the delegate {@link Supplier}.  Threads that need a value while it is being
+ * computed wait, without pinning any carrier thread, until it has been published.</p>
+ *
+ * @param <T> the type of value this {@link ReferenceCachingSupplier} {@linkplain #get() supplies}
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see #soft(Supplier)
+ *
+ * @see #weak(Supplier)
+ *
+ * @see #computations()
+ *
+ * @see #reclamations()
+ */
+public final class ReferenceCachingSupplier<T> implements OptionalSupplier<T> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  // Stands in for a computed null value, which cannot usefully be referenced.  Because this is strongly reachable from
+  // this class it is never reclaimed.
+  private static final Object NULL = new Object();
+
+  // The Reference through which every ReferenceCachingSupplier holds NULL.  It is never cleared.
+  private static final Reference<Object> NULL_REFERENCE = new WeakReference<>(NULL);
+
+  private static final VarHandle REFERENCE;
+
+  static {
+    try {
+      REFERENCE = MethodHandles.lookup().findVarHandle(ReferenceCachingSupplier.class, "reference", Reference.class);
+    } catch (final NoSuchFieldException | IllegalAccessException e) {
+      throw (ExceptionInInitializerError)new ExceptionInInitializerError(e.getMessage()).initCause(e);
+    }
+  }
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final OptionalSupplier<T> delegate;
+
+  private final Function<Object, ? extends Reference<Object>> referenceFactory;
+
+  private final Lock lock;
+
+  private final LongAdder computations;
+
+  private final LongAdder reclamations;
+
+  // Accessed only via REFERENCE.  null means "not yet computed".
+  private Reference<Object> reference;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  // Package-private so that tests may supply a referenceFactory whose References they can clear.
+  ReferenceCachingSupplier(final Supplier<? extends T> supplier,
+                           final Function<Object, ? extends Reference<Object>> referenceFactory) {
+    super();
+    this.delegate = OptionalSupplier.of(Objects.requireNonNull(supplier, "supplier"));
+    this.referenceFactory = Objects.requireNonNull(referenceFactory, "referenceFactory");
+    this.lock = new ReentrantLock();
+    this.computations = new LongAdder();
+    this.reclamations = new LongAdder();
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns {@link Determinism#ABSENT} if the delegate {@link Supplier} supplied at construction time is known always
+   * to indicate absence, and {@link Determinism#NON_DETERMINISTIC} in all other cases.
+   *
+   * <p>A reclaimed value is recomputed, and the recomputation may yield a different instance, a different value, or
+   * absence.  Moreover, composite {@link OptionalSupplier}s remember the outcomes of deterministic suppliers by holding
+   * strong references to them, which would keep a value that this {@link ReferenceCachingSupplier} holds only weakly or
+   * softly from ever being reclaimed.  This method therefore never returns {@link Determinism#DETERMINISTIC} or {@link
+   * Determinism#PRESENT}.</p>
+   *
+   * @return {@link Determinism#ABSENT} or {@link Determinism#NON_DETERMINISTIC}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final Determinism determinism() {
+    return this.delegate.determinism() == Determinism.ABSENT ? Determinism.ABSENT : Determinism.NON_DETERMINISTIC;
+  }
+
+  /**
+   * Returns the cached value, computing it first, using the delegate {@link Supplier} supplied at construction time, if
+   * it has not yet been computed or if it has been reclaimed by the garbage collector.
+   *
+   * @return the value, which may be {@code null}
+   *
+   * @exception NoSuchElementException if the delegate {@link Supplier} indicates absence
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link Supplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // OptionalSupplier<T>
+  public final T get() {
+    Object value = this.cached();
+    if (value == null) {
+      value = this.load(false);
+    }
+    return unwrap(value);
+  }
+
+  /**
+   * Returns the cached value, computing it first if necessary, in the same manner as the {@link #get()} method, or, if
+   * the delegate {@link Supplier} indicates absence, returns the supplied {@code other} value, without throwing any
+   * exception to do so.
+   *
+   * <p>Absence is not cached.</p>
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the value, which may be {@code null}, or {@code other}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic if the delegate {@link Supplier} is.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see #get()
+   */
+  @Override // OptionalSupplier<T>
+  public final T orElse(final T other) {
+    Object value = this.cached();
+    if (value == null) {
+      value = this.load(true);
+      if (value == null) {
+        return other;
+      }
+    }
+    return unwrap(value);
+  }
+
+  /**
+   * Returns the number of times the delegate {@link Supplier} has been asked to compute a value.
+   *
+   * @return the number of times the delegate {@link Supplier} has been asked to compute a value
+   *
+   * @idempotency This method is idempotent but not deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public final long computations() {
+    return this.computations.sum();
+  }
+
+  /**
+   * Returns the number of times a cached value was found to have been reclaimed by the garbage collector.
+   *
+   * @return the number of times a cached value was found to have been reclaimed by the garbage collector
+   *
+   * @idempotency This method is idempotent but not deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  public final long reclamations() {
+    return this.reclamations.sum();
+  }
+
+  // Returns the cached (wrapped) value, or null if there is none.
+  @SuppressWarnings("unchecked")
+  private final Object cached() {
+    final Reference<Object> r = (Reference<Object>)REFERENCE.getAcquire(this);
+    return r == null ? null : r.get();
+  }
+
+  @SuppressWarnings("unchecked")
+  private final Object load(final boolean probe) {
+    this.lock.lock();
+    try {
+      final Reference<Object> r = (Reference<Object>)REFERENCE.getAcquire(this);
+      if (r != null) {
+        final Object cached = r.get();
+        if (cached != null) {
+          return cached;
+        }
+        // Only the thread that discards a cleared Reference counts the reclamation.
+        this.reclamations.increment();
+        REFERENCE.setRelease(this, null);
+      }
+      this.computations.increment();
+      final T value = probe ? this.delegate.orElse(Absence.token()) : this.delegate.get();
+      if (Absence.isToken(value)) {
+        return null;
+      }
+      if (value == null) {
+        REFERENCE.setRelease(this, NULL_REFERENCE);
+        return NULL;
+      }
+      REFERENCE.setRelease(this, this.referenceFactory.apply(value));
+      return value;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns a new {@link ReferenceCachingSupplier} that holds the value computed by the supplied {@link Supplier}
+   * through a {@link SoftReference}.
+   *
+   * @param <T> the type of value the returned {@link ReferenceCachingSupplier} will {@linkplain #get() supply}
+   *
+   * @param supplier the {@link Supplier} that will compute values; must not be {@code null}; <strong>must be safe for
+   * concurrent use by multiple threads and must be side-effect free</strong>
+   *
+   * @return a new {@link ReferenceCachingSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see SoftReference
+   */
+  public static final <T> ReferenceCachingSupplier<T> soft(final Supplier<? extends T> supplier) {
+    return new ReferenceCachingSupplier<>(supplier, SoftReference::new);
+  }
+
+  /**
+   * Returns a new {@link ReferenceCachingSupplier} that holds the value computed by the supplied {@link Supplier}
+   * through a {@link WeakReference}.
+   *
+   * @param <T> the type of value the returned {@link ReferenceCachingSupplier} will {@linkplain #get() supply}
+   *
+   * @param supplier the {@link Supplier} that will compute values; must not be {@code null}; <strong>must be safe for
+   * concurrent use by multiple threads and must be side-effect free</strong>
+   *
+   * @return a new {@link ReferenceCachingSupplier}; never {@code null}
+   *
+   * @exception NullPointerException if {@code supplier} is {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   *
+   * @see WeakReference
+   */
+  public static final <T> ReferenceCachingSupplier<T> weak(final Supplier<? extends T> supplier) {
+    return new ReferenceCachingSupplier<>(supplier, WeakReference::new);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static final <T> T unwrap(final Object value) {
+    return value == NULL ? null : (T)value;
+  }
+
+}
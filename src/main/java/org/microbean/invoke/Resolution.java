@@ -0,0 +1,163 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+/**
+ * The settled outcome of a deterministic {@link OptionalSupplier}: either a value, which may be {@code null}, or
+ * permanent absence.
+ *
+ * <p>Instances are immutable, and all of their fields are {@code final}, so they may be published through a plain,
+ * non-{@code volatile} field and read without synchronization.</p>
+ *
+ * @param <T> the type of value
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ */
+final class Resolution<T> {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final Resolution<?> ABSENT = new Resolution<>(Determinism.ABSENT, null);
+
+
+  /*
+   * Instance fields.
+   */
+
+
+  private final Determinism determinism;
+
+  private final T value;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  private Resolution(final Determinism determinism, final T value) {
+    super();
+    this.determinism = determinism;
+    this.value = value;
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns {@link Determinism#PRESENT} or {@link Determinism#ABSENT}.
+   *
+   * @return {@link Determinism#PRESENT} or {@link Determinism#ABSENT}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  final Determinism determinism() {
+    return this.determinism;
+  }
+
+  /**
+   * Returns the value, or throws a {@link java.util.NoSuchElementException} if this {@link Resolution} represents
+   * absence.
+   *
+   * @return the value, which may be {@code null}
+   *
+   * @exception java.util.NoSuchElementException if this {@link Resolution} represents absence
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  final T get() {
+    if (this.determinism == Determinism.ABSENT) {
+      throw Absence.noSuchElementException();
+    }
+    return this.value;
+  }
+
+  /**
+   * Returns the value, or {@code other} if this {@link Resolution} represents absence.
+   *
+   * @param other the alternate value; may be {@code null}
+   *
+   * @return the value, which may be {@code null}, or {@code other}
+   *
+   * @nullability This method may return {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  final T orElse(final T other) {
+    return this.determinism == Determinism.ABSENT ? other : this.value;
+  }
+
+
+  /*
+   * Static methods.
+   */
+
+
+  /**
+   * Returns the {@link Resolution} representing permanent absence.
+   *
+   * @param <T> the type of value
+   *
+   * @return the {@link Resolution} representing permanent absence; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @SuppressWarnings("unchecked")
+  static final <T> Resolution<T> absent() {
+    return (Resolution<T>)ABSENT;
+  }
+
+  /**
+   * Returns a new {@link Resolution} representing the permanent presence of the supplied value.
+   *
+   * @param <T> the type of value
+   *
+   * @param value the value; may be {@code null}
+   *
+   * @return a new {@link Resolution}; never {@code null}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is not idempotent but is deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  static final <T> Resolution<T> present(final T value) {
+    return new Resolution<>(Determinism.PRESENT, value);
+  }
+
+}
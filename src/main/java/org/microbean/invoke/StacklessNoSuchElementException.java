@@ -0,0 +1,90 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link NoSuchElementException} that has no stack trace and no cause, a new instance of which is thrown to indicate
+ * absence when the {@code org.microbean.invoke.Absence.stackless} system property is set to {@code true}.
+ *
+ * <p>Creating an instance does not walk the stack, so it costs little more than an allocation.  Instances are never
+ * shared: because {@link Throwable#addSuppressed(Throwable)} is {@code final}, suppression cannot be disabled for this
+ * class, and a shared instance would accumulate the suppressed exceptions of every caller that handled it.</p>
+ *
+ * @author <a href="https://about.me/lairdnelson" target="_parent">Laird Nelson</a>
+ *
+ * @see Absence#noSuchElementException()
+ */
+final class StacklessNoSuchElementException extends NoSuchElementException {
+
+
+  /*
+   * Static fields.
+   */
+
+
+  private static final long serialVersionUID = 1L;
+
+
+  /*
+   * Constructors.
+   */
+
+
+  /**
+   * Creates a new {@link StacklessNoSuchElementException}.
+   */
+  StacklessNoSuchElementException() {
+    // Supplying a null cause here means any subsequent call to initCause(Throwable) will fail.
+    super("absent", null);
+  }
+
+
+  /*
+   * Instance methods.
+   */
+
+
+  /**
+   * Returns this {@link StacklessNoSuchElementException} without filling in any stack trace.
+   *
+   * @return this {@link StacklessNoSuchElementException}
+   *
+   * @nullability This method never returns {@code null}.
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // Throwable
+  public final Throwable fillInStackTrace() {
+    return this;
+  }
+
+  /**
+   * Does nothing when invoked, thus keeping this {@link StacklessNoSuchElementException} free of any stack trace.
+   *
+   * @param stackTrace ignored
+   *
+   * @idempotency This method is idempotent and deterministic.
+   *
+   * @threadsafety This method is safe for concurrent use by multiple threads.
+   */
+  @Override // Throwable
+  public final void setStackTrace(final StackTraceElement[] stackTrace) {
+
+  }
+
+}
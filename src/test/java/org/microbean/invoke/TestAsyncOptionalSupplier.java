@@ -0,0 +1,114 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestAsyncOptionalSupplier {
+
+  private TestAsyncOptionalSupplier() {
+    super();
+  }
+
+  @Test
+  final void testAdapters() {
+    assertSame(AsyncOptionalSupplier.absent(), AsyncOptionalSupplier.of(Absence.instance()));
+    assertSame(Determinism.ABSENT, AsyncOptionalSupplier.absent().determinism());
+    assertThrows(NoSuchElementException.class, AsyncOptionalSupplier.absent().toOptionalSupplier()::get);
+
+    final CachingSupplier<String> cs = new CachingSupplier<>("cached");
+    // A cached value is handed back without involving the Executor.
+    final AsyncOptionalSupplier<String> a = AsyncOptionalSupplier.of(cs, r -> { throw new AssertionError(); });
+    assertSame(Determinism.PRESENT, a.determinism());
+    assertEquals("cached", a.getAsync().toCompletableFuture().join());
+
+    final AtomicInteger calls = new AtomicInteger();
+    final CachingSupplier<Integer> back = AsyncOptionalSupplier.of(calls::incrementAndGet).toCachingSupplier();
+    assertEquals(1, back.get());
+    assertEquals(1, back.get());
+  }
+
+  @Test
+  final void testFallbackStartsOnlyAfterPrimaryIsAbsent() {
+    final CompletableFuture<String> primary = new CompletableFuture<>();
+    final AtomicInteger fallbackCalls = new AtomicInteger();
+    final AsyncOptionalSupplier<String> s = AsyncOptionalSupplier.of(() -> primary, () -> {
+        fallbackCalls.incrementAndGet();
+        return CompletableFuture.completedStage("fallback");
+      });
+    final CompletableFuture<String> result = s.getAsync().toCompletableFuture();
+    assertFalse(result.isDone());
+    assertEquals(0, fallbackCalls.get());
+    primary.completeExceptionally(new NoSuchElementException());
+    assertEquals("fallback", result.join());
+    assertEquals(1, fallbackCalls.get());
+  }
+
+  @Test
+  final void testSpeculativeStartsBoth() throws InterruptedException {
+    final CountDownLatch started = new CountDownLatch(2);
+    final CompletableFuture<String> primary = new CompletableFuture<>();
+    final AsyncOptionalSupplier<String> s = AsyncOptionalSupplier.speculative(() -> {
+        started.countDown();
+        return primary;
+      }, () -> {
+        started.countDown();
+        return CompletableFuture.completedStage("fallback");
+      });
+    final CompletableFuture<String> result = s.getAsync().toCompletableFuture();
+    assertEquals(0L, started.getCount());
+    assertFalse(result.isDone());
+    primary.complete("primary");
+    assertEquals("primary", result.join());
+  }
+
+  @Test
+  final void testNonDeterministicPrimaryIsNotTreatedAsPresent() {
+    final AtomicInteger counter = new AtomicInteger();
+    final AsyncOptionalSupplier<Integer> s =
+      AsyncOptionalSupplier.of(AsyncOptionalSupplier.of(counter::incrementAndGet), AsyncOptionalSupplier.of(0));
+    assertSame(Determinism.NON_DETERMINISTIC, s.determinism());
+    final OptionalSupplier<Integer> blocking = s.toOptionalSupplier();
+    assertEquals(1, blocking.get());
+    assertEquals(2, blocking.get());
+  }
+
+  @Test
+  final void testFailuresAreNotAbsence() {
+    final AsyncOptionalSupplier<String> s =
+      AsyncOptionalSupplier.of(AsyncOptionalSupplier.<String>of(() -> { throw new IllegalArgumentException(); }),
+                               AsyncOptionalSupplier.of("x"));
+    final CompletionException e =
+      assertThrows(CompletionException.class, () -> s.getAsync().toCompletableFuture().join());
+    assertTrue(e.getCause() instanceof IllegalArgumentException);
+    assertThrows(IllegalArgumentException.class, s.toOptionalSupplier()::get);
+  }
+
+}
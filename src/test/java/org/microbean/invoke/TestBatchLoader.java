@@ -0,0 +1,140 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class TestBatchLoader {
+
+  private TestBatchLoader() {
+    super();
+  }
+
+  @Test
+  final void testBulkLoad() {
+    final List<Set<String>> calls = new ArrayList<>();
+    final BatchLoader<String, String> loader = new BatchLoader<>(keys -> {
+        calls.add(keys);
+        final Map<String, String> values = new HashMap<>();
+        for (final String key : keys) {
+          if (!key.startsWith("missing")) {
+            values.put(key, key.toUpperCase());
+          }
+        }
+        return values;
+      });
+    final CachingSupplier<String> a = loader.register("a");
+    final CachingSupplier<String> b = loader.register("b");
+    final CachingSupplier<String> missing = loader.register("missing");
+    assertEquals(0, calls.size());
+    assertEquals("B", b.get());
+    assertEquals(List.of(Set.of("a", "b", "missing")), calls);
+    assertEquals("A", a.get());
+    assertEquals(OptionalSupplier.Determinism.NON_DETERMINISTIC, a.determinism());
+    assertEquals(1, calls.size());
+
+    // Absent keys are retried, together with anything registered since.
+    final CachingSupplier<String> c = loader.register("c");
+    assertSame("other", missing.orElse("other"));
+    assertEquals(Set.of("c", "missing"), calls.get(1));
+    assertEquals("C", c.get());
+    assertThrows(NoSuchElementException.class, missing::get);
+    assertEquals(Set.of("missing"), calls.get(2));
+    assertEquals(3, calls.size());
+
+    // Invalidation causes a fresh load.
+    a.invalidate();
+    assertEquals("A", a.get());
+    assertEquals(Set.of("a"), calls.get(3));
+  }
+
+  @Test
+  final void testConcurrentRequestsShareOneBulkLoad() throws Exception {
+    final int threads = 8;
+    final AtomicInteger calls = new AtomicInteger();
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final BatchLoader<Integer, Integer> loader = new BatchLoader<>(keys -> {
+        calls.incrementAndGet();
+        loading.countDown();
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        final Map<Integer, Integer> values = new HashMap<>();
+        for (final Integer key : keys) {
+          values.put(key, key * 10);
+        }
+        return values;
+      });
+    final List<CachingSupplier<Integer>> suppliers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      suppliers.add(loader.register(i));
+    }
+    final ExecutorService es = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<Integer>> futures = new ArrayList<>();
+      futures.add(es.submit(suppliers.get(0)::get));
+      loading.await();
+      for (int i = 1; i < threads; i++) {
+        futures.add(es.submit(suppliers.get(i)::get));
+        futures.add(es.submit(suppliers.get(i)::get));
+      }
+      release.countDown();
+      for (int i = 0; i < futures.size(); i++) {
+        assertEquals(((i + 1) / 2) * 10, futures.get(i).get());
+      }
+    } finally {
+      es.shutdown();
+    }
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  final void testFailureIsRetried() {
+    final int[] attempts = new int[1];
+    final BatchLoader<String, String> loader = new BatchLoader<>(keys -> {
+        if (attempts[0]++ == 0) {
+          throw new IllegalStateException();
+        }
+        return Map.of("a", "A", "b", "B");
+      });
+    final CachingSupplier<String> a = loader.register("a");
+    final CachingSupplier<String> b = loader.register("b");
+    assertThrows(IllegalStateException.class, a::get);
+    assertEquals("B", b.get());
+    assertEquals("A", a.get());
+    assertEquals(2, attempts[0]);
+  }
+
+}
@@ -0,0 +1,81 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestBulkResolution {
+
+  private TestBulkResolution() {
+    super();
+  }
+
+  @Test
+  final void testResolve() {
+    final List<Supplier<Integer>> suppliers = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      final int value = i;
+      suppliers.add(() -> {
+          if (value % 3 == 0) {
+            throw new NoSuchElementException();
+          }
+          return value % 7 == 0 ? null : value;
+        });
+    }
+    for (final Executor executor : List.<Executor>of(DefaultExecutor.threadPerTask(), new ForkJoinPool(4))) {
+      final BulkResolution<Integer> r = BulkResolution.resolve(suppliers, executor);
+      assertEquals(1000, r.size());
+      assertFalse(r.isPresent(0));
+      assertEquals(-1, r.orElse(3, -1));
+      assertThrows(NoSuchElementException.class, () -> r.get(6));
+      assertTrue(r.isPresent(7));
+      assertNull(r.get(7));
+      assertEquals(1, r.get(1));
+      assertEquals(998, r.get(998));
+    }
+  }
+
+  @Test
+  final void testKnownOutcomesAreResolvedInline() {
+    final Executor refusing = r -> {
+      throw new AssertionError();
+    };
+    final BulkResolution<String> r =
+      BulkResolution.resolve(List.of(OptionalSupplier.of("a"), Absence.instance()), refusing);
+    assertEquals("a", r.get(0));
+    assertFalse(r.isPresent(1));
+  }
+
+  @Test
+  final void testFailuresAreRethrown() {
+    final List<Supplier<String>> suppliers = List.of(() -> "a", () -> { throw new IllegalArgumentException(); });
+    assertThrows(IllegalArgumentException.class, () -> BulkResolution.resolve(suppliers));
+  }
+
+}
@@ -0,0 +1,242 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestCachingFunction {
+
+  private TestCachingFunction() {
+    super();
+  }
+
+  @Test
+  final void testMemoization() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CachingFunction<String, Object> f = new CachingFunction<>(k -> {
+        invocations.incrementAndGet();
+        return "null".equals(k) ? null : k + "!";
+      }, 10);
+    assertEquals("a!", f.apply("a"));
+    assertEquals("a!", f.apply("a"));
+    assertNull(f.apply("null"));
+    assertNull(f.orElse("null", "other"));
+    assertEquals(2, invocations.get());
+    f.invalidate("a");
+    assertEquals("a!", f.apply("a"));
+    assertEquals(3, invocations.get());
+  }
+
+  @Test
+  final void testAbsenceIsNotCached() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CachingFunction<String, String> f = new CachingFunction<>(k -> {
+        invocations.incrementAndGet();
+        throw new NoSuchElementException(k);
+      }, 10);
+    assertSame("other", f.orElse("a", "other"));
+    assertThrows(NoSuchElementException.class, () -> f.apply("a"));
+    assertEquals(2, invocations.get());
+    assertEquals(0, f.estimatedSize());
+  }
+
+  @Test
+  final void testSingleFlightPerKey() throws Exception {
+    final ConcurrentHashMap<Integer, AtomicInteger> invocations = new ConcurrentHashMap<>();
+    final CountDownLatch arrived = new CountDownLatch(16);
+    final CachingFunction<Integer, Integer> f = new CachingFunction<>(k -> {
+        invocations.computeIfAbsent(k, x -> new AtomicInteger()).incrementAndGet();
+        // Don't finish until every caller has arrived.
+        try {
+          arrived.await(5L, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return k * 2;
+    }, 100);
+    final ExecutorService es = Executors.newFixedThreadPool(16);
+    try {
+      final List<Future<Integer>> futures = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        final int key = i % 4;
+        futures.add(es.submit(() -> {
+              arrived.countDown();
+              return f.apply(key);
+            }));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        assertEquals((i % 4) * 2, futures.get(i).get());
+      }
+    } finally {
+      es.shutdown();
+    }
+    assertEquals(4, invocations.size());
+    invocations.values().forEach(count -> assertEquals(1, count.get()));
+  }
+
+  @Test
+  final void testWaitersDoNotShareFailureInstance() throws Exception {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CountDownLatch loading = new CountDownLatch(1);
+    final CountDownLatch arrived = new CountDownLatch(3);
+    final RuntimeException failure = new IllegalArgumentException("failure");
+    final CachingFunction<Key, String> f = new CachingFunction<>(k -> {
+        invocations.incrementAndGet();
+        loading.countDown();
+        // Don't finish until every waiter has arrived.
+        try {
+          arrived.await(5L, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        throw failure;
+    }, 10);
+    final List<Throwable> thrown = new CopyOnWriteArrayList<>();
+    final Thread loader = new Thread(() -> {
+        try {
+          f.apply(new Key(arrived));
+        } catch (final RuntimeException e) {
+          thrown.add(e);
+        }
+    });
+    loader.start();
+    loading.await();
+    final List<Thread> waiters = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      final Thread t = new Thread(() -> {
+          try {
+            f.apply(new Key(arrived));
+          } catch (final RuntimeException e) {
+            thrown.add(e);
+          }
+      });
+      waiters.add(t);
+      t.start();
+    }
+    loader.join(5000L);
+    for (final Thread t : waiters) {
+      t.join(5000L);
+    }
+    assertEquals(1, invocations.get());
+    assertEquals(4, thrown.size());
+    int originals = 0;
+    for (final Throwable e : thrown) {
+      if (e == failure) {
+        originals++;
+      } else {
+        assertTrue(e instanceof IllegalStateException);
+        assertSame(failure, e.getCause());
+      }
+    }
+    assertEquals(1, originals);
+  }
+
+  @Test
+  final void testRecursiveLoadIsDetected() {
+    final AtomicReference<CachingFunction<String, String>> f = new AtomicReference<>();
+    f.set(new CachingFunction<>(k -> f.get().apply(k), 10));
+    assertThrows(IllegalStateException.class, () -> f.get().apply("a"));
+  }
+
+  @Test
+  final void testFrequentKeySurvivesScan() {
+    final AtomicInteger hotInvocations = new AtomicInteger();
+    final CachingFunction<Integer, Integer> f = new CachingFunction<>(k -> {
+        if (k == 0) {
+          hotInvocations.incrementAndGet();
+        }
+        return k;
+      }, 10);
+    for (int i = 0; i < 20; i++) {
+      f.apply(0);
+      f.apply(i + 1);
+    }
+    for (int i = 100; i < 1100; i++) {
+      f.apply(i);
+      assertTrue(f.estimatedSize() <= 10);
+    }
+    f.apply(0);
+    assertEquals(1, hotInvocations.get());
+  }
+
+  @Test
+  final void testBufferedReadsProtectFrequentKey() {
+    final AtomicInteger hotInvocations = new AtomicInteger();
+    final CachingFunction<Integer, Integer> f = new CachingFunction<>(k -> {
+        if (k == 0) {
+          hotInvocations.incrementAndGet();
+        }
+        return k;
+      }, 10);
+    f.apply(0);
+    f.apply(1);
+    f.apply(2);
+    // Many more reads than a read buffer holds, with no intervening loads to drain it.
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(0, f.apply(0));
+    }
+    for (int i = 3; i < 1000; i++) {
+      f.apply(i);
+    }
+    f.apply(0);
+    assertEquals(1, hotInvocations.get());
+  }
+
+  // A key whose equals(Object) method counts down a CountDownLatch.  A CachingFunction's map compares a distinct but
+  // equal key with the key of a node only once it has found that node, so once the latch has reached zero, every
+  // thread that supplied such a key is certain to wait for that node's load.
+  private static final class Key {
+
+    private final CountDownLatch comparisons;
+
+    private Key(final CountDownLatch comparisons) {
+      super();
+      this.comparisons = comparisons;
+    }
+
+    @Override
+    public final int hashCode() {
+      return 0;
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+      this.comparisons.countDown();
+      return other instanceof Key;
+    }
+
+  }
+
+}
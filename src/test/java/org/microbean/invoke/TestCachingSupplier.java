@@ -0,0 +1,342 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestCachingSupplier {
+
+  private TestCachingSupplier() {
+    super();
+  }
+
+  @Test
+  final void testSingleFlight() throws Exception {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CountDownLatch arrived = new CountDownLatch(16);
+    final CachingSupplier<String> cs = new CachingSupplier<>(() -> {
+        invocations.incrementAndGet();
+        // Don't finish until every caller has arrived.
+        try {
+          arrived.await(5L, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return "value";
+    }, new ArrivalLock(arrived), false);
+    final ExecutorService es = Executors.newFixedThreadPool(16);
+    try {
+      final List<Future<String>> futures = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        futures.add(es.submit(() -> cs.get()));
+      }
+      for (final Future<String> f : futures) {
+        assertEquals("value", f.get(5L, TimeUnit.SECONDS));
+      }
+    } finally {
+      es.shutdownNow();
+    }
+    assertEquals(1, invocations.get());
+  }
+
+  @Test
+  final void testSingleFlightWaitersShareAbsence() throws Exception {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CountDownLatch computing = new CountDownLatch(1);
+    // The leader and four waiters.
+    final CountDownLatch arrived = new CountDownLatch(5);
+    final CachingSupplier<String> cs = new CachingSupplier<>(() -> {
+        invocations.incrementAndGet();
+        computing.countDown();
+        // Don't finish until every caller has arrived.
+        try {
+          arrived.await(5L, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        throw new NoSuchElementException();
+    }, new ArrivalLock(arrived), false);
+    final List<String> results = new CopyOnWriteArrayList<>();
+    final List<Thread> threads = new ArrayList<>();
+    final Thread leader = new Thread(() -> {
+        results.add(cs.orElse("leader"));
+    });
+    leader.start();
+    computing.await();
+    for (int i = 0; i < 4; i++) {
+      final Thread t = new Thread(() -> {
+          results.add(cs.orElse("waiter"));
+      });
+      t.start();
+      threads.add(t);
+    }
+    leader.join(5000L);
+    for (final Thread t : threads) {
+      t.join(5000L);
+    }
+    assertEquals(5, results.size());
+    assertEquals(4, results.stream().filter("waiter"::equals).count());
+    assertEquals(1, invocations.get());
+  }
+
+  @Test
+  final void testSingleFlightWaitersShareFailure() throws Exception {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CountDownLatch computing = new CountDownLatch(1);
+    // The leader and four waiters.
+    final CountDownLatch arrived = new CountDownLatch(5);
+    final IllegalArgumentException failure = new IllegalArgumentException("failed");
+    final CachingSupplier<String> cs = new CachingSupplier<>(() -> {
+        invocations.incrementAndGet();
+        computing.countDown();
+        // Don't finish until every caller has arrived.
+        try {
+          arrived.await(5L, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        throw failure;
+    }, new ArrivalLock(arrived), false);
+    final List<Throwable> thrown = new CopyOnWriteArrayList<>();
+    final Runnable r = () -> {
+      try {
+        cs.get();
+      } catch (final RuntimeException e) {
+        thrown.add(e);
+      }
+    };
+    final Thread leader = new Thread(r);
+    leader.start();
+    computing.await();
+    final List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      final Thread t = new Thread(r);
+      t.start();
+      threads.add(t);
+    }
+    leader.join(5000L);
+    for (final Thread t : threads) {
+      t.join(5000L);
+    }
+    assertEquals(1, invocations.get());
+    assertEquals(5, thrown.size());
+    int originals = 0;
+    for (final Throwable e : thrown) {
+      if (e == failure) {
+        originals++;
+      } else {
+        assertTrue(e instanceof IllegalStateException);
+        assertSame(failure, e.getCause());
+      }
+    }
+    assertEquals(1, originals);
+    assertEquals(0, failure.getSuppressed().length);
+    // A later request, which did not wait for that attempt, invokes the supplier again.
+    assertThrows(IllegalArgumentException.class, cs::get);
+    assertEquals(2, invocations.get());
+  }
+
+  @Test
+  final void testSingleFlightRetriesAfterAbsence() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CachingSupplier<String> cs = new CachingSupplier<>(() -> {
+        if (invocations.incrementAndGet() == 1) {
+          throw new NoSuchElementException();
+        }
+        return "value";
+    }, true);
+    assertEquals("other", cs.orElse("other"));
+    assertEquals("value", cs.get());
+    assertEquals("value", cs.get());
+    assertEquals(2, invocations.get());
+    assertTrue(cs.determinism().deterministic());
+  }
+
+  @Test
+  final void testNegativeCachingWithBackoff() {
+    final AtomicLong now = new AtomicLong();
+    final AtomicInteger invocations = new AtomicInteger();
+    final IllegalStateException failure = new IllegalStateException();
+    final CachingSupplier<String> cs = new CachingSupplier<>(() -> {
+        if (invocations.incrementAndGet() < 3) {
+          throw failure;
+        }
+        return "value";
+    }, false, Duration.ofNanos(10L), Duration.ofNanos(15L), now::get);
+    assertEquals(OptionalSupplier.Determinism.NON_DETERMINISTIC, cs.determinism());
+    assertSame(failure, assertThrows(IllegalStateException.class, cs::get));
+    // Within the first (10ns) backoff window, the delegate is not invoked, and each caller gets its own exception.
+    now.set(9L);
+    final IllegalStateException replayed = assertThrows(IllegalStateException.class, cs::get);
+    assertSame(failure, replayed.getCause());
+    assertNotSame(replayed, assertThrows(IllegalStateException.class, cs::get));
+    assertEquals("other", cs.orElse("other"));
+    assertEquals(1, invocations.get());
+    now.set(10L);
+    assertThrows(IllegalStateException.class, cs::get);
+    assertEquals(2, invocations.get());
+    // The second backoff window is doubled, but capped at 15ns.
+    now.set(24L);
+    assertEquals("other", cs.orElse("other"));
+    assertEquals(2, invocations.get());
+    now.set(25L);
+    assertEquals("value", cs.get());
+    assertEquals(3, invocations.get());
+    assertEquals(OptionalSupplier.Determinism.PRESENT, cs.determinism());
+  }
+
+  @Test
+  final void testCachedAbsenceIsNeverShared() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CachingSupplier<String> cs = new CachingSupplier<>(() -> {
+        invocations.incrementAndGet();
+        throw new NoSuchElementException();
+    }, false, Duration.ofNanos(10L), Duration.ofNanos(10L), () -> 0L);
+    final NoSuchElementException first = assertThrows(NoSuchElementException.class, cs::get);
+    first.addSuppressed(new IllegalStateException());
+    final NoSuchElementException second = assertThrows(NoSuchElementException.class, cs::get);
+    assertNotSame(first, second);
+    assertEquals(0, second.getSuppressed().length);
+    assertEquals(1, invocations.get());
+  }
+
+  @Test
+  final void testInvalidate() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CachingSupplier<Integer> cs = CachingSupplier.invalidatable(invocations::incrementAndGet);
+    assertEquals(OptionalSupplier.Determinism.NON_DETERMINISTIC, cs.determinism());
+    assertEquals(1, cs.get());
+    assertEquals(1, cs.get());
+    assertEquals(OptionalSupplier.Determinism.NON_DETERMINISTIC, cs.determinism());
+    assertEquals(1L, cs.invalidate());
+    assertEquals(OptionalSupplier.Determinism.NON_DETERMINISTIC, cs.determinism());
+    assertEquals(2, cs.get());
+    final CachingSupplier<Integer> other = CachingSupplier.invalidatable(invocations::incrementAndGet);
+    assertEquals(3, other.get());
+    CachingSupplier.invalidateAll(List.of(cs, other));
+    assertEquals(2L, cs.generation());
+    assertEquals(1L, other.generation());
+    assertTrue(cs.set(42));
+    assertEquals(42, cs.get());
+    assertEquals(4, other.get());
+  }
+
+  @Test
+  final void testInvalidateRequiresAnInvalidatableCachingSupplier() {
+    final CachingSupplier<Integer> cs = new CachingSupplier<>(() -> 1);
+    assertEquals(1, cs.get());
+    assertEquals(OptionalSupplier.Determinism.PRESENT, cs.determinism());
+    assertThrows(IllegalStateException.class, cs::invalidate);
+    assertThrows(IllegalStateException.class, () -> CachingSupplier.invalidateAll(List.of(cs)));
+    assertEquals(0L, cs.generation());
+    assertEquals(OptionalSupplier.Determinism.PRESENT, cs.determinism());
+  }
+
+  @Test
+  final void testCompositesSeeInvalidatedValues() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CachingSupplier<Integer> cs = CachingSupplier.invalidatable(invocations::incrementAndGet);
+    final OptionalSupplier<Integer> defaulting = OptionalSupplier.of(cs, () -> -1);
+    final OptionalSupplier<Integer> mapped = cs.map(i -> i * 10);
+    assertEquals(1, defaulting.get());
+    assertEquals(10, mapped.get());
+    cs.invalidate();
+    assertEquals(2, defaulting.get());
+    assertEquals(20, mapped.get());
+    cs.invalidate();
+    assertTrue(cs.set(42));
+    assertEquals(42, defaulting.get());
+    assertEquals(420, mapped.get());
+  }
+
+  @Test
+  final void testStaleComputationIsNotPublished() throws Exception {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CountDownLatch computing = new CountDownLatch(1);
+    final CountDownLatch invalidated = new CountDownLatch(1);
+    final CachingSupplier<Integer> cs = CachingSupplier.invalidatable(() -> {
+        final int i = invocations.incrementAndGet();
+        if (i == 1) {
+          computing.countDown();
+          try {
+            invalidated.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        return i;
+    });
+    final ExecutorService es = Executors.newSingleThreadExecutor();
+    try {
+      final Future<Integer> stale = es.submit(cs::get);
+      computing.await();
+      cs.invalidate();
+      invalidated.countDown();
+      // The computation that began before the invalidation still answers its own caller...
+      assertEquals(1, stale.get());
+      // ...but its value was not published.
+      assertEquals(2, cs.get());
+      assertEquals(2, cs.get());
+    } finally {
+      es.shutdown();
+    }
+  }
+
+  // A ReentrantLock that counts down a CountDownLatch whenever a thread arrives to acquire it.  A single-flight
+  // CachingSupplier notes how many attempts have finished before it acquires its Lock, so once the latch has reached
+  // zero, every caller is certain to share the outcome of the attempt in flight.
+  private static final class ArrivalLock extends ReentrantLock {
+
+    private static final long serialVersionUID = 1L;
+
+    private final CountDownLatch arrivals;
+
+    private ArrivalLock(final CountDownLatch arrivals) {
+      super();
+      this.arrivals = arrivals;
+    }
+
+    @Override
+    public final void lock() {
+      this.arrivals.countDown();
+      super.lock();
+    }
+
+  }
+
+}
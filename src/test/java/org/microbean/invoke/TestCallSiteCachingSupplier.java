@@ -0,0 +1,77 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class TestCallSiteCachingSupplier {
+
+  private static final AtomicInteger COMPUTATIONS = new AtomicInteger();
+
+  private TestCallSiteCachingSupplier() {
+    super();
+  }
+
+  @Test
+  final void testCaching() throws Throwable {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CallSiteCachingSupplier<Object> s = new CallSiteCachingSupplier<>(() -> {
+        return invocations.incrementAndGet() == 1 ? OptionalSupplier.of().get() : "value";
+      });
+    assertEquals(OptionalSupplier.Determinism.DETERMINISTIC, s.determinism());
+    assertSame("other", s.orElse("other"));
+    assertEquals("value", s.get());
+    assertEquals("value", s.orElse("other"));
+    assertEquals("value", (Object)s.dynamicInvoker().invokeExact());
+    assertEquals(OptionalSupplier.Determinism.PRESENT, s.determinism());
+    assertEquals(2, invocations.get());
+  }
+
+  @Test
+  final void testAbsence() {
+    final CallSiteCachingSupplier<Object> s = new CallSiteCachingSupplier<>(Absence.instance());
+    assertThrows(NoSuchElementException.class, s::get);
+    assertThrows(NoSuchElementException.class, () -> { final Object o = (Object)s.dynamicInvoker().invokeExact(); });
+  }
+
+  @Test
+  final void testBootstrap() throws Throwable {
+    final CallSite cs =
+      BootstrapMethods.findCachingStaticCallSite(MethodHandles.lookup(),
+                                                 "compute",
+                                                 MethodType.methodType(String.class),
+                                                 TestCallSiteCachingSupplier.class);
+    assertEquals("computed", (String)cs.dynamicInvoker().invokeExact());
+    assertEquals("computed", (String)cs.dynamicInvoker().invokeExact());
+    assertEquals(1, COMPUTATIONS.get());
+  }
+
+  private static final String compute() {
+    COMPUTATIONS.incrementAndGet();
+    return "computed";
+  }
+
+}
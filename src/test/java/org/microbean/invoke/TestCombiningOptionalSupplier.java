@@ -0,0 +1,123 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class TestCombiningOptionalSupplier {
+
+  private TestCombiningOptionalSupplier() {
+    super();
+  }
+
+  @Test
+  final void testPresentInputsAreCombinedOnce() {
+    final AtomicInteger calls = new AtomicInteger();
+    final OptionalSupplier<String> s =
+      CombiningOptionalSupplier.of(OptionalSupplier.of("localhost"),
+                                   OptionalSupplier.of(8080),
+                                   OptionalSupplier.of(Boolean.TRUE),
+                                   (host, port, tls) -> {
+                                     calls.incrementAndGet();
+                                     return (tls ? "https://" : "http://") + host + ":" + port;
+                                   });
+    assertSame(Determinism.PRESENT, s.determinism());
+    assertEquals("https://localhost:8080", s.get());
+    assertEquals("https://localhost:8080", s.get());
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  final void testAbsentInputShortCircuits() {
+    final Supplier<String> unreachable = () -> {
+      throw new AssertionError();
+    };
+    assertSame(Absence.instance(),
+               CombiningOptionalSupplier.of(unreachable, Absence.<String>instance(), (a, b) -> a + b));
+  }
+
+  @Test
+  final void testInputThatSettlesAbsentShortCircuits() {
+    final AtomicInteger calls = new AtomicInteger();
+    final OptionalSupplier<String> settling =
+      FallbackOptionalSupplier.of(new CachingSupplier<String>(Absence.instance()), new CachingSupplier<String>());
+    final OptionalSupplier<String> s =
+      CombiningOptionalSupplier.of(() -> calls.incrementAndGet(), settling, (i, t) -> i + t);
+    assertEquals(Determinism.NON_DETERMINISTIC, s.determinism());
+    // The second input settles as ABSENT.
+    assertEquals("other", settling.orElse("other"));
+    assertEquals(Determinism.ABSENT, settling.determinism());
+    assertEquals("other", s.orElse("other"));
+    assertThrows(NoSuchElementException.class, s::get);
+    assertEquals(0, calls.get());
+    assertEquals(Determinism.ABSENT, s.determinism());
+  }
+
+  @Test
+  final void testNonDeterministicInputs() {
+    final AtomicInteger counter = new AtomicInteger();
+    final Supplier<Integer> flaky = () -> {
+      if (counter.incrementAndGet() % 2 == 0) {
+        throw new NoSuchElementException();
+      }
+      return counter.get();
+    };
+    final OptionalSupplier<Object> s =
+      CombiningOptionalSupplier.of(v -> v[0] + "/" + v[1], OptionalSupplier.of("a"), flaky);
+    assertSame(Determinism.NON_DETERMINISTIC, s.determinism());
+    assertEquals("a/1", s.get());
+    assertThrows(NoSuchElementException.class, s::get);
+    assertEquals("a/3", s.orElse("fallback"));
+    assertEquals("fallback", s.orElse("fallback"));
+  }
+
+  @Test
+  final void testSixInputs() {
+    final OptionalSupplier<Integer> s =
+      CombiningOptionalSupplier.of(() -> 1, () -> 2, () -> 3, () -> 4, () -> 5, () -> 6,
+                                   (a, b, c, d, e, f) -> a + b + c + d + e + f);
+    assertSame(Determinism.NON_DETERMINISTIC, s.determinism());
+    assertEquals(21, s.get());
+  }
+
+  @Test
+  final void testConsultationStopsAtFirstAbsentInput() {
+    final AtomicInteger calls = new AtomicInteger();
+    final Supplier<Integer> counted = () -> {
+      calls.incrementAndGet();
+      return 1;
+    };
+    final Supplier<Integer> absent = () -> {
+      throw new NoSuchElementException();
+    };
+    assertEquals(-1, CombiningOptionalSupplier.of(counted, absent, counted, counted, (a, b, c, d) -> a).orElse(-1));
+    assertEquals(1, calls.get());
+    assertEquals(-1, CombiningOptionalSupplier.of(counted, counted, counted, counted, absent,
+                                                  (a, b, c, d, e) -> a).orElse(-1));
+    assertEquals(5, calls.get());
+  }
+
+}
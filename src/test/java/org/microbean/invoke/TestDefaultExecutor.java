@@ -0,0 +1,65 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+final class TestDefaultExecutor {
+
+  private TestDefaultExecutor() {
+    super();
+  }
+
+  @Test
+  final void testInstance() {
+    assertNotNull(DefaultExecutor.instance());
+    assertNotNull(DefaultExecutor.threadPerTask());
+  }
+
+  @Test
+  final void testMissingFactoryFallsBackToCommonPool() {
+    assertSame(ForkJoinPool.commonPool(), DefaultExecutor.executor(null));
+  }
+
+  @Test
+  final void testPreviewFactoryFallsBackToCommonPool() throws ReflectiveOperationException {
+    assertSame(ForkJoinPool.commonPool(), DefaultExecutor.executor(factory("preview")));
+    assertSame(ForkJoinPool.commonPool(), DefaultExecutor.executor(factory("unlinkable")));
+  }
+
+  private static final MethodHandle factory(final String name) throws ReflectiveOperationException {
+    return MethodHandles.lookup()
+      .findStatic(TestDefaultExecutor.class, name, MethodType.methodType(ExecutorService.class));
+  }
+
+  // Behaves like Executors#newVirtualThreadPerTaskExecutor() on Java 19 or 20 without --enable-preview.
+  private static final ExecutorService preview() {
+    throw new UnsupportedOperationException("Preview Features not enabled, need to run with --enable-preview");
+  }
+
+  private static final ExecutorService unlinkable() {
+    throw new NoClassDefFoundError("jdk/internal/misc/PreviewFeatures");
+  }
+
+}
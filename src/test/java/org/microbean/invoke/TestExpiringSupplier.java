@@ -0,0 +1,165 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.time.Duration;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class TestExpiringSupplier {
+
+  private TestExpiringSupplier() {
+    super();
+  }
+
+  @Test
+  final void testTimeToLive() {
+    final AtomicLong now = new AtomicLong();
+    final AtomicInteger invocations = new AtomicInteger();
+    final ExpiringSupplier<Integer> s =
+      new ExpiringSupplier<>(invocations::incrementAndGet, Duration.ofNanos(10L), Duration.ofNanos(10L), now::get);
+    assertEquals(1, s.get());
+    now.set(9L);
+    assertEquals(1, s.get());
+    now.set(10L);
+    assertEquals(2, s.get());
+    assertEquals(2, s.get());
+    assertEquals(2, invocations.get());
+  }
+
+  @Test
+  final void testRefreshAfterWrite() {
+    final AtomicLong now = new AtomicLong();
+    final AtomicInteger invocations = new AtomicInteger();
+    final ExpiringSupplier<Integer> s =
+      new ExpiringSupplier<>(invocations::incrementAndGet, Duration.ofNanos(100L), Duration.ofNanos(10L), now::get);
+    assertEquals(1, s.get());
+    now.set(50L);
+    assertEquals(2, s.get());
+    now.set(59L);
+    assertEquals(2, s.get());
+  }
+
+  @Test
+  final void testStaleWhileRevalidate() {
+    final AtomicLong now = new AtomicLong();
+    final AtomicInteger invocations = new AtomicInteger();
+    final Queue<Runnable> tasks = new ArrayDeque<>();
+    final ExpiringSupplier<Integer> s =
+      new ExpiringSupplier<>(invocations::incrementAndGet,
+                             Duration.ofNanos(100L),
+                             Duration.ofNanos(10L),
+                             tasks::add,
+                             now::get);
+    assertEquals(1, s.get());
+    now.set(50L);
+    // A refresh is due, but the stale value is served while it is pending.
+    assertEquals(1, s.get());
+    assertEquals(1, s.get());
+    assertEquals(1, tasks.size());
+    tasks.remove().run();
+    assertEquals(2, s.get());
+    // Past the maximum staleness, callers block and recompute.
+    now.set(500L);
+    assertEquals(3, s.get());
+    assertEquals(3, invocations.get());
+  }
+
+  @Test
+  final void testAbsenceDiscardsValue() {
+    final AtomicLong now = new AtomicLong();
+    final AtomicInteger invocations = new AtomicInteger();
+    final ExpiringSupplier<Integer> s = new ExpiringSupplier<>(() -> {
+        if (invocations.incrementAndGet() == 2) {
+          throw new NoSuchElementException();
+        }
+        return invocations.get();
+    }, Duration.ofNanos(10L), Duration.ofNanos(10L), now::get);
+    assertEquals(1, s.get());
+    now.set(10L);
+    assertThrows(NoSuchElementException.class, s::get);
+    assertEquals(3, s.orElse(-1));
+  }
+
+  @Test
+  final void testBackgroundAbsenceKeepsValue() {
+    final AtomicLong now = new AtomicLong();
+    final AtomicInteger invocations = new AtomicInteger();
+    final Queue<Runnable> tasks = new ArrayDeque<>();
+    final ExpiringSupplier<Integer> s = new ExpiringSupplier<>(() -> {
+        if (invocations.incrementAndGet() == 2) {
+          throw new NoSuchElementException();
+        }
+        return invocations.get();
+    }, Duration.ofNanos(100L), Duration.ofNanos(10L), tasks::add, now::get);
+    assertEquals(1, s.get());
+    now.set(50L);
+    assertEquals(1, s.get());
+    tasks.remove().run();
+    // The stale value is kept, and the next caller submits another refresh.
+    assertEquals(1, s.get());
+    tasks.remove().run();
+    assertEquals(3, s.get());
+  }
+
+  @Test
+  final void testBackgroundFailureIsReportedAndKeepsValue() {
+    final AtomicLong now = new AtomicLong();
+    final AtomicInteger invocations = new AtomicInteger();
+    final Queue<Runnable> tasks = new ArrayDeque<>();
+    final RuntimeException failure = new IllegalStateException();
+    final ExpiringSupplier<Integer> s = new ExpiringSupplier<>(() -> {
+        if (invocations.incrementAndGet() == 2) {
+          throw failure;
+        }
+        return invocations.get();
+    }, Duration.ofNanos(100L), Duration.ofNanos(10L), tasks::add, now::get);
+    assertEquals(1, s.get());
+    now.set(50L);
+    assertEquals(1, s.get());
+    final List<Throwable> reported = new ArrayList<>();
+    final Thread t = Thread.currentThread();
+    final Thread.UncaughtExceptionHandler h = t.getUncaughtExceptionHandler();
+    t.setUncaughtExceptionHandler((thread, e) -> reported.add(e));
+    try {
+      tasks.remove().run();
+    } finally {
+      t.setUncaughtExceptionHandler(h);
+    }
+    assertEquals(List.of(failure), reported);
+    assertEquals(1, s.get());
+    tasks.remove().run();
+    assertEquals(3, s.get());
+  }
+
+  @Test
+  final void testInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new ExpiringSupplier<>(() -> "", Duration.ZERO));
+    assertThrows(IllegalArgumentException.class,
+                 () -> new ExpiringSupplier<>(() -> "", Duration.ofSeconds(1L), Duration.ofSeconds(2L)));
+  }
+
+}
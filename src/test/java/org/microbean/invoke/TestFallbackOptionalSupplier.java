@@ -0,0 +1,111 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestFallbackOptionalSupplier {
+
+  private TestFallbackOptionalSupplier() {
+    super();
+  }
+
+  @Test
+  final void testNestedChainsAreFlattened() {
+    final StringBuilder calls = new StringBuilder();
+    final Supplier<String> systemProperty = () -> {
+      calls.append('p');
+      throw new NoSuchElementException();
+    };
+    final Supplier<String> environmentVariable = () -> {
+      calls.append('e');
+      throw new NoSuchElementException();
+    };
+    final Supplier<String> file = () -> {
+      calls.append('f');
+      return "file";
+    };
+    final OptionalSupplier<String> s =
+      OptionalSupplier.of(OptionalSupplier.of(OptionalSupplier.of(systemProperty, environmentVariable), file),
+                          OptionalSupplier.of("default"));
+    assertTrue(s instanceof FallbackOptionalSupplier);
+    assertEquals("file", s.get());
+    assertEquals("pef", calls.toString());
+  }
+
+  @Test
+  final void testAbsentMembersAreDroppedAndPresentMembersTruncate() {
+    final Supplier<String> unreachable = () -> {
+      throw new AssertionError();
+    };
+    final OptionalSupplier<String> s =
+      FallbackOptionalSupplier.of(Absence.instance(), null, OptionalSupplier.of("present"), unreachable);
+    // Only one member remains, so it is returned as-is.
+    assertSame(Determinism.PRESENT, s.determinism());
+    assertEquals("present", s.get());
+
+    final OptionalSupplier<String> none = FallbackOptionalSupplier.of(Absence.instance(), null);
+    assertSame(Absence.instance(), none);
+  }
+
+  @Test
+  final void testDeterminism() {
+    final OptionalSupplier<String> deterministic =
+      FallbackOptionalSupplier.of(new CachingSupplier<String>(Absence.instance()),
+                                  new CachingSupplier<>(() -> "value"));
+    assertEquals(Determinism.DETERMINISTIC, deterministic.determinism());
+    assertEquals("value", deterministic.orElse("other"));
+    assertEquals(Determinism.PRESENT, deterministic.determinism());
+
+    final OptionalSupplier<String> absent =
+      FallbackOptionalSupplier.of(new CachingSupplier<String>(Absence.instance()), new CachingSupplier<String>());
+    assertEquals("other", absent.orElse("other"));
+    assertEquals(Determinism.ABSENT, absent.determinism());
+    assertThrows(NoSuchElementException.class, absent::get);
+  }
+
+  @Test
+  final void testSettledOutcomeIsRemembered() {
+    final AtomicInteger calls = new AtomicInteger();
+    final OptionalSupplier<String> s =
+      FallbackOptionalSupplier.of(OptionalSupplier.of(Determinism.DETERMINISTIC, () -> {
+            calls.incrementAndGet();
+            throw new NoSuchElementException();
+          }),
+        OptionalSupplier.of(Determinism.DETERMINISTIC, () -> {
+            calls.incrementAndGet();
+            return "value";
+          }));
+    assertEquals("value", s.get());
+    assertEquals(2, calls.get());
+    assertEquals("value", s.get());
+    assertEquals("value", s.orElse("other"));
+    assertEquals(2, calls.get());
+    assertEquals(Determinism.PRESENT, s.determinism());
+  }
+
+}
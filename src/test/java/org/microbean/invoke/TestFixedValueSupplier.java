@@ -0,0 +1,70 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+final class TestFixedValueSupplier {
+
+  private TestFixedValueSupplier() {
+    super();
+  }
+
+  @Test
+  final void testCommonValuesAreCanonical() {
+    assertSame(FixedValueSupplier.of(null), FixedValueSupplier.of(null));
+    assertNull(FixedValueSupplier.of(null).get());
+    assertSame(FixedValueSupplier.of(Boolean.TRUE), OptionalSupplier.of(true));
+    assertSame(FixedValueSupplier.of(false), FixedValueSupplier.of(Boolean.FALSE));
+    assertSame(FixedValueSupplier.of(-128), FixedValueSupplier.of(-128));
+    assertSame(FixedValueSupplier.of(127), FixedValueSupplier.of(127));
+    assertEquals(127, FixedValueSupplier.of(127).get());
+    assertNotSame(FixedValueSupplier.of(128), FixedValueSupplier.of(128));
+    assertSame(FixedValueSupplier.of(""), FixedValueSupplier.of(""));
+    // An empty String other than the literal is the caller's own, and is supplied as-is.
+    final String empty = new String();
+    assertNotSame(FixedValueSupplier.of(""), FixedValueSupplier.of(empty));
+    assertSame(empty, FixedValueSupplier.of(empty).get());
+    assertSame(FixedValueSupplier.of(TimeUnit.SECONDS), FixedValueSupplier.of(TimeUnit.SECONDS));
+    assertSame(TimeUnit.SECONDS, FixedValueSupplier.of(TimeUnit.SECONDS).get());
+    assertNotSame(FixedValueSupplier.of(TimeUnit.SECONDS), FixedValueSupplier.of(TimeUnit.MINUTES));
+  }
+
+  @Test
+  final void testInterned() {
+    final String a = new String("config.key");
+    final String b = new String("config.key");
+    final FixedValueSupplier<String> s = FixedValueSupplier.interned(a);
+    assertSame(s, FixedValueSupplier.interned(b));
+    assertSame(a, s.get());
+    assertNotSame(FixedValueSupplier.of(a), FixedValueSupplier.of(b));
+    // Equal values of different classes are not conflated.
+    final List<Integer> arrayList = new ArrayList<>(List.of(1));
+    final List<Integer> linkedList = new LinkedList<>(List.of(1));
+    assertSame(arrayList, FixedValueSupplier.interned(arrayList).get());
+    assertSame(linkedList, FixedValueSupplier.interned(linkedList).get());
+  }
+
+}
@@ -0,0 +1,175 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import static org.microbean.invoke.OptionalSupplier.Determinism.ABSENT;
+import static org.microbean.invoke.OptionalSupplier.Determinism.DETERMINISTIC;
+import static org.microbean.invoke.OptionalSupplier.Determinism.PRESENT;
+
+final class TestOptionalSupplier {
+
+  private TestOptionalSupplier() {
+    super();
+  }
+
+  @Test
+  final void testOrElseOnAbsence() {
+    final OptionalSupplier<String> s = Absence.instance();
+    assertEquals("other", s.orElse("other"));
+    assertEquals("other", s.orElseGet(() -> "other"));
+    assertEquals(Optional.empty(), s.optional());
+    assertEquals(0L, s.stream().count());
+    final AtomicInteger absent = new AtomicInteger();
+    s.ifPresentOrElse(v -> { throw new AssertionError(); }, absent::incrementAndGet);
+    assertEquals(1, absent.get());
+    s.ifPresent(v -> { throw new AssertionError(); });
+  }
+
+  @Test
+  final void testOrElseOnFixedValue() {
+    assertEquals("value", FixedValueSupplier.of("value").orElse("other"));
+    assertNull(FixedValueSupplier.of(null).orElse("other"));
+    assertEquals(1L, FixedValueSupplier.of(null).stream().count());
+  }
+
+  @Test
+  final void testOrElseOnCachingSupplier() {
+    final CachingSupplier<String> cs = new CachingSupplier<>();
+    assertEquals("other", cs.orElse("other"));
+    assertEquals(DETERMINISTIC, cs.determinism());
+    assertTrue(cs.set("value"));
+    assertEquals("value", cs.orElse("other"));
+    assertEquals(PRESENT, cs.determinism());
+  }
+
+  @Test
+  final void testOrElseOnAdaptedSupplier() {
+    final Supplier<String> absent = TestOptionalSupplier::absent;
+    assertEquals("other", OptionalSupplier.of(absent).orElse("other"));
+    assertEquals(Optional.empty(), OptionalSupplier.of(absent).optional());
+  }
+
+  @Test
+  final void testDefaulting() {
+    final OptionalSupplier<String> absent = OptionalSupplier.of(DETERMINISTIC, TestOptionalSupplier::absent);
+    final OptionalSupplier<String> present = OptionalSupplier.of(DETERMINISTIC, () -> "value");
+
+    OptionalSupplier<String> s = OptionalSupplier.of(absent, present);
+    assertEquals(DETERMINISTIC, s.determinism());
+    assertEquals("value", s.get());
+    assertEquals(PRESENT, s.determinism());
+
+    s = OptionalSupplier.of(absent, absent);
+    assertEquals(DETERMINISTIC, s.determinism());
+    assertEquals("other", s.orElse("other"));
+    assertEquals(ABSENT, s.determinism());
+    assertThrows(NoSuchElementException.class, s::get);
+
+    assertThrows(NoSuchElementException.class, DefaultingOptionalSupplier.of()::get);
+  }
+
+  @Test
+  final void testDefaultingMemoizesResolution() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final OptionalSupplier<String> absent = OptionalSupplier.of(DETERMINISTIC, TestOptionalSupplier::absent);
+    final OptionalSupplier<String> counting = OptionalSupplier.of(DETERMINISTIC, () -> {
+        invocations.incrementAndGet();
+        return "value";
+      });
+    final OptionalSupplier<String> s = DefaultingOptionalSupplier.of(absent, counting);
+    assertEquals("value", s.get());
+    assertEquals("value", s.get());
+    assertEquals("value", s.orElse("other"));
+    assertEquals(PRESENT, s.determinism());
+    assertEquals(1, invocations.get());
+
+    // A permanently absent primary defers entirely to the defaults.
+    assertEquals("value", DefaultingOptionalSupplier.of(Absence.instance(), OptionalSupplier.of("value")).get());
+  }
+
+  @Test
+  final void testDeterministicSuppliersAreMemoized() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final OptionalSupplier<Integer> s = OptionalSupplier.of(DETERMINISTIC, invocations::incrementAndGet);
+    assertEquals(1, s.get());
+    assertEquals(1, s.get());
+    assertEquals(1, s.orElse(42));
+    assertEquals(1, invocations.get());
+
+    final OptionalSupplier<Integer> nonDeterministic = OptionalSupplier.of(invocations::incrementAndGet);
+    assertEquals(2, nonDeterministic.get());
+    assertEquals(3, nonDeterministic.get());
+
+    final AtomicInteger absences = new AtomicInteger();
+    final OptionalSupplier<String> absent = OptionalSupplier.of(DETERMINISTIC, () -> {
+        absences.incrementAndGet();
+        return absent();
+      });
+    assertEquals("other", absent.orElse("other"));
+    assertThrows(NoSuchElementException.class, absent::get);
+    assertEquals(1, absences.get());
+  }
+
+  @Test
+  final void testRewrappingCollapses() {
+    final OptionalSupplier<String> s = OptionalSupplier.of(DETERMINISTIC, () -> "value");
+    assertSame(s, OptionalSupplier.of(DETERMINISTIC, s));
+    assertSame(s, OptionalSupplier.of(s));
+    final OptionalSupplier<String> fixed = OptionalSupplier.of("value");
+    assertSame(fixed, OptionalSupplier.of(DETERMINISTIC, fixed));
+    assertThrows(IllegalArgumentException.class, () -> OptionalSupplier.of(ABSENT, fixed));
+  }
+
+  @Test
+  final void testAbsentDeterminismShortCircuits() {
+    final OptionalSupplier<String> s = new OptionalSupplier<>() {
+        @Override
+        public final Determinism determinism() {
+          return ABSENT;
+        }
+
+        @Override
+        public final String get() {
+          throw new AssertionError();
+        }
+      };
+    assertEquals("other", s.orElse("other"));
+    assertEquals("other", s.orElseGet(() -> "other"));
+    assertEquals(Optional.empty(), s.optional());
+    assertEquals(0L, s.stream().count());
+    s.ifPresent(v -> { throw new AssertionError(); });
+    assertThrows(NoSuchElementException.class, s::orElseThrow);
+    assertThrows(IllegalStateException.class, () -> s.orElseThrow(IllegalStateException::new));
+  }
+
+  private static final <T> T absent() {
+    throw new NoSuchElementException();
+  }
+
+}
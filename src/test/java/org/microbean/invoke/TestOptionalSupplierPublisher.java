@@ -0,0 +1,172 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestOptionalSupplierPublisher {
+
+  private TestOptionalSupplierPublisher() {
+    super();
+  }
+
+  @Test
+  final void testChangesArePushedWithBackpressureAndCoalesced() {
+    final AtomicInteger counter = new AtomicInteger();
+    final CachingSupplier<Integer> cs = CachingSupplier.invalidatable(counter::incrementAndGet);
+    final Recorder<Integer> r = new Recorder<>();
+    OptionalSupplierPublisher.of(cs, Runnable::run).subscribe(r);
+    assertTrue(r.values.isEmpty());
+    r.subscription.request(1L);
+    assertEquals(List.of(1), r.values);
+    // No demand: a burst of invalidations is not even recomputed.
+    cs.invalidate();
+    cs.invalidate();
+    cs.invalidate();
+    assertEquals(List.of(1), r.values);
+    assertEquals(1, counter.get());
+    r.subscription.request(Long.MAX_VALUE);
+    assertEquals(List.of(1, 2), r.values);
+    cs.invalidate();
+    assertEquals(List.of(1, 2, 3), r.values);
+    r.subscription.cancel();
+    cs.invalidate();
+    assertEquals(List.of(1, 2, 3), r.values);
+    assertFalse(r.completed);
+  }
+
+  @Test
+  final void testPopulatedCachingSupplierIsFollowed() {
+    final AtomicInteger counter = new AtomicInteger();
+    final CachingSupplier<Integer> cs = CachingSupplier.invalidatable(counter::incrementAndGet);
+    assertEquals(1, cs.get());
+    final Recorder<Integer> r = new Recorder<>();
+    OptionalSupplierPublisher.of(cs, Runnable::run).subscribe(r);
+    r.subscription.request(Long.MAX_VALUE);
+    assertEquals(List.of(1), r.values);
+    assertFalse(r.completed);
+    cs.invalidate();
+    assertEquals(List.of(1, 2), r.values);
+    assertFalse(r.completed);
+    r.subscription.cancel();
+  }
+
+  @Test
+  final void testPresentAndAbsentComplete() {
+    final Recorder<String> present = new Recorder<>();
+    OptionalSupplierPublisher.of(OptionalSupplier.of("x"), Runnable::run).subscribe(present);
+    assertFalse(present.completed);
+    present.subscription.request(5L);
+    assertEquals(List.of("x"), present.values);
+    assertTrue(present.completed);
+
+    final Recorder<String> absent = new Recorder<>();
+    OptionalSupplierPublisher.of(Absence.<String>instance(), Runnable::run).subscribe(absent);
+    assertTrue(absent.values.isEmpty());
+    assertTrue(absent.completed);
+  }
+
+  @Test
+  final void testNonPositiveRequestIsAnError() {
+    final Recorder<String> r = new Recorder<>();
+    OptionalSupplierPublisher.of(new CachingSupplier<>("x"), Runnable::run).subscribe(r);
+    r.subscription.request(0L);
+    assertTrue(r.error instanceof IllegalArgumentException);
+  }
+
+  @Test
+  final void testExpiringSupplierRefreshesArePushed() throws InterruptedException {
+    final AtomicInteger counter = new AtomicInteger();
+    final ExpiringSupplier<Integer> es =
+      new ExpiringSupplier<>(counter::incrementAndGet, Duration.ofMillis(20L), Duration.ofMillis(20L));
+    final BlockingQueue<Integer> values = new LinkedBlockingQueue<>();
+    final AtomicReference<Flow.Subscription> subscription = new AtomicReference<>();
+    OptionalSupplierPublisher.of(es, Runnable::run).subscribe(new Flow.Subscriber<Integer>() {
+        @Override
+        public final void onSubscribe(final Flow.Subscription s) {
+          subscription.set(s);
+        }
+        @Override
+        public final void onNext(final Integer value) {
+          values.add(value);
+        }
+        @Override
+        public final void onError(final Throwable error) {
+        }
+        @Override
+        public final void onComplete() {
+        }
+      });
+    subscription.get().request(Long.MAX_VALUE);
+    // Nothing but the publisher ever asks for a value.
+    assertEquals(1, values.poll(5L, TimeUnit.SECONDS));
+    assertEquals(2, values.poll(5L, TimeUnit.SECONDS));
+    assertEquals(3, values.poll(5L, TimeUnit.SECONDS));
+    subscription.get().cancel();
+  }
+
+  private static final class Recorder<T> implements Flow.Subscriber<T> {
+
+    private final List<T> values = new ArrayList<>();
+
+    private Flow.Subscription subscription;
+
+    private boolean completed;
+
+    private Throwable error;
+
+    private Recorder() {
+      super();
+    }
+
+    @Override
+    public final void onSubscribe(final Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public final void onNext(final T value) {
+      this.values.add(value);
+    }
+
+    @Override
+    public final void onError(final Throwable error) {
+      this.error = error;
+    }
+
+    @Override
+    public final void onComplete() {
+      this.completed = true;
+    }
+
+  }
+
+}
@@ -0,0 +1,101 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestPipelineOptionalSupplier {
+
+  private TestPipelineOptionalSupplier() {
+    super();
+  }
+
+  @Test
+  final void testStagesAreFusedAndPresentResultsComputedOnce() {
+    final AtomicInteger calls = new AtomicInteger();
+    final OptionalSupplier<Integer> s = OptionalSupplier.of("hello")
+      .map(x -> {
+          calls.incrementAndGet();
+          return x.length();
+        })
+      .map(x -> x * 2);
+    assertTrue(s instanceof PipelineOptionalSupplier);
+    assertSame(Determinism.PRESENT, s.determinism());
+    assertEquals(0, calls.get());
+    assertEquals(10, s.get());
+    assertEquals(10, s.get());
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  final void testFilter() {
+    final OptionalSupplier<String> s = OptionalSupplier.of("hello").filter(x -> x.startsWith("j"));
+    assertSame(Determinism.DETERMINISTIC, s.determinism());
+    assertEquals("other", s.orElse("other"));
+    assertThrows(NoSuchElementException.class, s::get);
+    // Once settled, the outcome is known to be absence.
+    assertSame(Determinism.ABSENT, s.determinism());
+    assertNull(OptionalSupplier.of("hello").map(x -> null).filter(x -> true).get());
+  }
+
+  @Test
+  final void testFlatMap() {
+    final OptionalSupplier<String> s = OptionalSupplier.of("a").flatMap(x -> OptionalSupplier.of(x + "b"));
+    assertSame(Determinism.NON_DETERMINISTIC, s.determinism());
+    assertEquals("ab", s.get());
+    assertSame(Absence.instance(), Absence.<String>instance().flatMap(x -> OptionalSupplier.of(x)));
+  }
+
+  @Test
+  final void testOr() {
+    final AtomicInteger calls = new AtomicInteger();
+    final OptionalSupplier<String> s = OptionalSupplier.<String>of(Determinism.DETERMINISTIC, () -> {
+        calls.incrementAndGet();
+        throw new NoSuchElementException();
+      })
+      .or(OptionalSupplier.of("fallback"));
+    assertSame(Determinism.PRESENT, s.determinism());
+    assertEquals("fallback", s.get());
+    assertEquals("fallback", s.get());
+    assertEquals(1, calls.get());
+    assertEquals("x", OptionalSupplier.of("x").or(() -> { throw new AssertionError(); }).get());
+  }
+
+  @Test
+  final void testOrOnNonDeterministicSourceIsNotMemoized() {
+    final AtomicInteger counter = new AtomicInteger();
+    final OptionalSupplier<Integer> s = OptionalSupplier.of(counter::incrementAndGet).or(OptionalSupplier.of(0));
+    assertSame(Determinism.NON_DETERMINISTIC, s.determinism());
+    assertEquals(1, s.get());
+    assertEquals(2, s.get());
+    final OptionalSupplier<Integer> m =
+      OptionalSupplier.of(counter::incrementAndGet).map(x -> x).or(OptionalSupplier.of(0));
+    assertSame(Determinism.NON_DETERMINISTIC, m.determinism());
+    assertEquals(3, m.get());
+    assertEquals(4, m.get());
+  }
+
+}
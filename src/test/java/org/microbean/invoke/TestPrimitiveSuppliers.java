@@ -0,0 +1,171 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestPrimitiveSuppliers {
+
+  private TestPrimitiveSuppliers() {
+    super();
+  }
+
+  @Test
+  final void testFixed() {
+    final OptionalIntSupplier s = OptionalIntSupplier.of(42);
+    assertEquals(Determinism.PRESENT, s.determinism());
+    assertEquals(42, s.getAsInt());
+    assertEquals(42, s.orElse(7));
+    assertSame(s.optional(), s.optional());
+    assertSame(FixedBooleanValueSupplier.of(true), OptionalBooleanSupplier.of(true));
+    assertTrue(OptionalBooleanSupplier.of(true).getAsBoolean());
+  }
+
+  @Test
+  final void testCaching() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CachingLongSupplier s = new CachingLongSupplier(() -> {
+        if (invocations.incrementAndGet() == 1) {
+          throw new NoSuchElementException();
+        }
+        return 42L;
+      });
+    assertEquals(Determinism.DETERMINISTIC, s.determinism());
+    assertEquals(7L, s.orElse(7L));
+    assertEquals(42L, s.getAsLong());
+    assertEquals(42L, s.getAsLong());
+    assertSame(s.optional(), s.optional());
+    assertEquals(Determinism.PRESENT, s.determinism());
+    assertEquals(2, invocations.get());
+  }
+
+  @Test
+  final void testDefaulting() {
+    final OptionalIntSupplier absent = () -> {
+      throw new NoSuchElementException();
+    };
+    final CachingIntSupplier deterministicAbsent = new CachingIntSupplier(absent);
+    final OptionalIntSupplier s = OptionalIntSupplier.of(deterministicAbsent, OptionalIntSupplier.of(3));
+    assertEquals(Determinism.DETERMINISTIC, s.determinism());
+    assertEquals(3, s.getAsInt());
+    assertEquals(Determinism.PRESENT, s.determinism());
+
+    final OptionalIntSupplier both = OptionalIntSupplier.of(absent, absent);
+    assertEquals(Determinism.NON_DETERMINISTIC, both.determinism());
+    assertEquals(OptionalInt.empty(), both.optional());
+    assertThrows(NoSuchElementException.class, both::getAsInt);
+    assertEquals(-1, both.orElse(-1));
+
+    final OptionalBooleanSupplier b = OptionalBooleanSupplier.of(OptionalBooleanSupplier.of(false), () -> true);
+    assertEquals(Determinism.PRESENT, b.determinism());
+    assertFalse(b.getAsBoolean());
+  }
+
+  @Test
+  final void testDefaultingRemembersSettledOutcome() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CachingIntSupplier absent = new CachingIntSupplier(() -> {
+        invocations.incrementAndGet();
+        throw new NoSuchElementException();
+      });
+    final OptionalIntSupplier s = OptionalIntSupplier.of(absent, new CachingIntSupplier(() -> {
+          invocations.incrementAndGet();
+          return 3;
+        }));
+    assertEquals(3, s.getAsInt());
+    assertEquals(2, invocations.get());
+    assertEquals(3, s.orElse(7));
+    assertSame(s.optional(), s.optional());
+    // The absent primary is not consulted again.
+    assertEquals(2, invocations.get());
+    assertEquals(Determinism.PRESENT, s.determinism());
+  }
+
+  @Test
+  final void testBoolean() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final CachingBooleanSupplier c = new CachingBooleanSupplier(() -> {
+        if (invocations.incrementAndGet() == 1) {
+          throw new NoSuchElementException();
+        }
+        return false;
+      });
+    assertEquals(Determinism.DETERMINISTIC, c.determinism());
+    assertTrue(c.orElse(true));
+    assertFalse(c.getAsBoolean());
+    assertFalse(c.orElse(true));
+    assertSame(c.optional(), c.optional());
+    assertEquals(Determinism.PRESENT, c.determinism());
+    assertEquals(2, invocations.get());
+
+    final OptionalBooleanSupplier absent = new CachingBooleanSupplier(() -> {
+        invocations.incrementAndGet();
+        throw new NoSuchElementException();
+      });
+    final OptionalBooleanSupplier d = OptionalBooleanSupplier.of(absent, absent);
+    assertEquals(Determinism.DETERMINISTIC, d.determinism());
+    assertTrue(d.orElse(true));
+    assertEquals(Determinism.ABSENT, d.determinism());
+    assertThrows(NoSuchElementException.class, d::getAsBoolean);
+    assertTrue(d.optional().isEmpty());
+    assertEquals(3, invocations.get());
+  }
+
+
+  @Test
+  final void testDeclaredDeterminism() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final OptionalIntSupplier s = OptionalIntSupplier.of(Determinism.DETERMINISTIC, invocations::incrementAndGet);
+    assertEquals(Determinism.DETERMINISTIC, s.determinism());
+    assertEquals(1, s.getAsInt());
+    assertEquals(1, s.orElse(7));
+    assertEquals(Determinism.PRESENT, s.determinism());
+    assertEquals(1, invocations.get());
+
+    final OptionalDoubleSupplier absent = OptionalDoubleSupplier.of(Determinism.ABSENT, () -> 1.0);
+    assertTrue(absent.optional().isEmpty());
+    assertThrows(NoSuchElementException.class, absent::getAsDouble);
+
+    final OptionalLongSupplier nonDeterministic = OptionalLongSupplier.of(Determinism.NON_DETERMINISTIC, () -> 2L);
+    assertEquals(Determinism.NON_DETERMINISTIC, nonDeterministic.determinism());
+
+    final OptionalBooleanSupplier fixed = OptionalBooleanSupplier.of(true);
+    assertSame(fixed, OptionalBooleanSupplier.of(Determinism.DETERMINISTIC, fixed));
+    assertFalse(OptionalBooleanSupplier.of(Determinism.PRESENT, () -> false).getAsBoolean());
+  }
+
+  @Test
+  final void testDefaultingDeterminismMatchesGeneric() {
+    final OptionalIntSupplier primitive =
+      OptionalIntSupplier.of(OptionalIntSupplier.of(Determinism.DETERMINISTIC, () -> 1), OptionalIntSupplier.of(2));
+    final OptionalSupplier<Integer> generic =
+      OptionalSupplier.of(OptionalSupplier.of(Determinism.DETERMINISTIC, () -> 1), OptionalSupplier.of(2));
+    assertEquals(Determinism.DETERMINISTIC, generic.determinism());
+    assertEquals(generic.determinism(), primitive.determinism());
+  }
+
+}
@@ -0,0 +1,157 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import org.microbean.invoke.OptionalSupplier.Determinism;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestRacingOptionalSupplier {
+
+  private TestRacingOptionalSupplier() {
+    super();
+  }
+
+  @Test
+  final void testHigherPriorityWins() throws InterruptedException {
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch lowDone = new CountDownLatch(1);
+    final Supplier<String> high = () -> {
+      try {
+        release.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "high";
+    };
+    final Supplier<String> low = () -> {
+      lowDone.countDown();
+      return "low";
+    };
+    final CompletableFuture<String> result =
+      RacingOptionalSupplier.of(List.of(high, low)).getAsync().toCompletableFuture();
+    assertTrue(lowDone.await(5L, TimeUnit.SECONDS));
+    assertFalse(result.isDone());
+    release.countDown();
+    assertEquals("high", result.join());
+  }
+
+  @Test
+  final void testLowerPriorityWorkIsNotInterrupted() throws InterruptedException {
+    final CountDownLatch lowStarted = new CountDownLatch(1);
+    final CountDownLatch lowRelease = new CountDownLatch(1);
+    final CountDownLatch lowDone = new CountDownLatch(1);
+    final AtomicBoolean lowInterrupted = new AtomicBoolean();
+    final Supplier<String> high = () -> {
+      try {
+        lowStarted.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "high";
+    };
+    final Supplier<String> low = () -> {
+      lowStarted.countDown();
+      try {
+        lowRelease.await();
+      } catch (final InterruptedException e) {
+        lowInterrupted.set(true);
+      }
+      lowDone.countDown();
+      return "low";
+    };
+    assertEquals("high", RacingOptionalSupplier.of(List.of(high, low)).get());
+    lowRelease.countDown();
+    assertTrue(lowDone.await(5L, TimeUnit.SECONDS));
+    assertFalse(lowInterrupted.get());
+  }
+
+  @Test
+  final void testLowerPriorityWorkNotYetStartedNeverRuns() {
+    final List<Runnable> tasks = new ArrayList<>();
+    final AtomicInteger lowInvocations = new AtomicInteger();
+    final Supplier<String> high = () -> "high";
+    final Supplier<String> low = () -> "low" + lowInvocations.incrementAndGet();
+    final CompletableFuture<String> result =
+      RacingOptionalSupplier.of(List.of(high, low), tasks::add).getAsync().toCompletableFuture();
+    assertEquals(2, tasks.size());
+    tasks.get(0).run();
+    assertEquals("high", result.join());
+    tasks.get(1).run();
+    assertEquals(0, lowInvocations.get());
+  }
+
+  @Test
+  final void testDeterministicOutcomeIsRemembered() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final RacingOptionalSupplier<Integer> s =
+      RacingOptionalSupplier.of(List.of(OptionalSupplier.of(Determinism.DETERMINISTIC, invocations::incrementAndGet)));
+    assertSame(Determinism.DETERMINISTIC, s.determinism());
+    assertEquals(1, s.get());
+    assertSame(Determinism.PRESENT, s.determinism());
+    assertEquals(1, s.get());
+    assertEquals(1, s.orElse(-1));
+    assertEquals(1, s.getAsync().toCompletableFuture().getNow(-1));
+    assertEquals(1, invocations.get());
+  }
+
+  @Test
+  final void testDeterminism() {
+    final Supplier<String> absent = () -> {
+      throw new NoSuchElementException();
+    };
+    final RacingOptionalSupplier<String> s =
+      RacingOptionalSupplier.of(List.of(OptionalSupplier.of(Determinism.DETERMINISTIC, absent),
+                                        OptionalSupplier.of(Determinism.DETERMINISTIC, absent)));
+    assertSame(Determinism.DETERMINISTIC, s.determinism());
+    assertThrows(NoSuchElementException.class, s::get);
+    assertSame(Determinism.ABSENT, s.determinism());
+    assertEquals("other", s.orElse("other"));
+
+    final RacingOptionalSupplier<String> p =
+      RacingOptionalSupplier.of(List.of(Absence.instance(), OptionalSupplier.of("x")));
+    assertSame(Determinism.PRESENT, p.determinism());
+    assertEquals("x", p.get());
+  }
+
+  @Test
+  final void testNonDeterministicMemberIsNotTreatedAsPresent() {
+    final AtomicInteger counter = new AtomicInteger();
+    final RacingOptionalSupplier<Integer> s =
+      RacingOptionalSupplier.of(List.of(OptionalSupplier.of(counter::incrementAndGet), OptionalSupplier.of(0)));
+    assertSame(Determinism.NON_DETERMINISTIC, s.determinism());
+    assertEquals(1, s.get());
+    assertEquals(2, s.get());
+  }
+
+}
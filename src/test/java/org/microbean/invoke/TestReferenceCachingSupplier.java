@@ -0,0 +1,108 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TestReferenceCachingSupplier {
+
+  private TestReferenceCachingSupplier() {
+    super();
+  }
+
+  @Test
+  final void testCaching() {
+    final AtomicInteger invocations = new AtomicInteger();
+    final ReferenceCachingSupplier<Object> s = ReferenceCachingSupplier.soft(() -> {
+        invocations.incrementAndGet();
+        return new Object();
+      });
+    final Object value = s.get();
+    assertSame(value, s.get());
+    assertSame(value, s.orElse(null));
+    assertEquals(1, invocations.get());
+    assertEquals(1L, s.computations());
+    assertEquals(0L, s.reclamations());
+  }
+
+  @Test
+  final void testDeterminism() {
+    assertEquals(OptionalSupplier.Determinism.NON_DETERMINISTIC,
+                 ReferenceCachingSupplier.soft(() -> "x").determinism());
+    assertEquals(OptionalSupplier.Determinism.NON_DETERMINISTIC,
+                 ReferenceCachingSupplier.weak(OptionalSupplier.of("x")).determinism());
+    assertEquals(OptionalSupplier.Determinism.ABSENT, ReferenceCachingSupplier.weak(Absence.instance()).determinism());
+  }
+
+  @Test
+  final void testNull() {
+    final List<Reference<Object>> references = new ArrayList<>();
+    final ReferenceCachingSupplier<Object> s = new ReferenceCachingSupplier<>(() -> null, v -> {
+        final Reference<Object> r = new WeakReference<>(v);
+        references.add(r);
+        return r;
+    });
+    assertNull(s.get());
+    // A null value is held through a Reference that is never cleared, so it is never reclaimed.
+    assertTrue(references.isEmpty());
+    assertNull(s.get());
+    assertEquals(1L, s.computations());
+    assertEquals(0L, s.reclamations());
+  }
+
+  @Test
+  final void testAbsenceIsNotCached() {
+    final ReferenceCachingSupplier<Object> s = ReferenceCachingSupplier.soft(Absence.instance());
+    assertSame("other", s.orElse("other"));
+    assertThrows(NoSuchElementException.class, s::get);
+    assertEquals(2L, s.computations());
+  }
+
+  @Test
+  final void testRecomputation() {
+    final List<Reference<Object>> references = new ArrayList<>();
+    final ReferenceCachingSupplier<Object> s = new ReferenceCachingSupplier<>(Object::new, v -> {
+        final Reference<Object> r = new WeakReference<>(v);
+        references.add(r);
+        return r;
+    });
+    final Object first = s.get();
+    assertSame(first, s.get());
+    // Simulate reclamation by the garbage collector.
+    references.get(0).clear();
+    final Object second = s.get();
+    assertNotSame(first, second);
+    assertSame(second, s.orElse(null));
+    assertEquals(2, references.size());
+    assertEquals(1L, s.reclamations());
+    assertEquals(2L, s.computations());
+  }
+
+}
@@ -0,0 +1,61 @@
+/* -*- mode: Java; c-basic-offset: 2; indent-tabs-mode: nil; coding: utf-8-unix -*-
+ *
+ * Copyright © 2023 microBean™.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.microbean.invoke;
+
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class TestStacklessNoSuchElementException {
+
+  private TestStacklessNoSuchElementException() {
+    super();
+  }
+
+  @Test
+  final void testImmutability() {
+    final StacklessNoSuchElementException e = new StacklessNoSuchElementException();
+    assertEquals(0, e.getStackTrace().length);
+    assertSame(e, e.fillInStackTrace());
+    assertEquals(0, e.getStackTrace().length);
+    e.setStackTrace(new Throwable().getStackTrace());
+    assertEquals(0, e.getStackTrace().length);
+    assertThrows(IllegalStateException.class, () -> e.initCause(new RuntimeException()));
+    assertNull(e.getCause());
+  }
+
+  @Test
+  final void testSuppressedExceptionsDoNotAccumulate() {
+    final StacklessNoSuchElementException first = new StacklessNoSuchElementException();
+    first.addSuppressed(new IllegalStateException());
+    assertEquals(1, first.getSuppressed().length);
+    final StacklessNoSuchElementException second = new StacklessNoSuchElementException();
+    assertNotSame(first, second);
+    assertEquals(0, second.getSuppressed().length);
+    assertEquals(0, second.getStackTrace().length);
+  }
+
+  @Test
+  final void testRethrowingHandlerDoesNotSelfSuppress() {
+    final OptionalSupplier<Object> s = Absence.instance();
+    assertThrows(NoSuchElementException.class, () -> s.exceptionally(e -> { throw e; }));
+  }
+
+}